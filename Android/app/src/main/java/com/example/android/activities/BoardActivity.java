@@ -27,7 +27,6 @@ public class BoardActivity extends BaseActivity implements OrderBoardCallback {
     private final List<String> preparingOrders = new ArrayList<>();
     private final List<String> readyOrders = new ArrayList<>();
     private WebSocketClient webSocketClient;
-    private boolean isConnecting = false;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
@@ -41,39 +40,25 @@ public class BoardActivity extends BaseActivity implements OrderBoardCallback {
         initializeRecyclerViews();
         setupLogoClick();
         initializeAdapters();
-        initializeWebSocketClient();
-        connectWebSocket();
     }
 
-    private void initializeWebSocketClient() {
-        webSocketClient = new WebSocketClient();
-        webSocketClient.setOrderBoardCallback(this);
+    @Override
+    protected void onStart() {
+        super.onStart();
+        connectWebSocket();
     }
 
+    /**
+     * Connects while the board is visible. The client reconnects by itself until it is closed, and
+     * resyncs the board on every new connection.
+     */
     private void connectWebSocket() {
-        if (isConnecting) return;
-
-        isConnecting = true;
-        new Thread(this::attemptWebSocketConnection).start();
-    }
-
-    private void attemptWebSocketConnection() {
-        try {
-            webSocketClient.start();
-            Thread.sleep(1000);
-            onWebSocketConnected();
-        } catch (Exception e) {
-            onWebSocketConnectionFailed(e);
+        if (webSocketClient != null) {
+            return;
         }
-    }
-
-    private void onWebSocketConnected() {
-        mainHandler.post(() -> isConnecting = false);
-    }
-
-    private void onWebSocketConnectionFailed(Exception e) {
-        Log.e("WebSocket", "WebSocket connection failed", e);
-        mainHandler.post(() -> isConnecting = false);
+        webSocketClient = new WebSocketClient();
+        webSocketClient.setOrderBoardCallback(this);
+        webSocketClient.start();
     }
 
     private void initializeRecyclerViews() {
@@ -113,7 +98,6 @@ public class BoardActivity extends BaseActivity implements OrderBoardCallback {
 
         buttonOrder.setOnClickListener(v -> {
             updateButtonSelection(buttonOrder, buttonBoard);
-            closeWebSocketClient();
             Intent intent = new Intent(this, OrderHistoryActivity.class);
             startActivity(intent);
         });
@@ -143,8 +127,8 @@ public class BoardActivity extends BaseActivity implements OrderBoardCallback {
         button.setTypeface(null, typefaceStyle);
     }
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
+    protected void onStop() {
+        super.onStop();
         closeWebSocketClient();
     }
 
@@ -6,26 +6,23 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
 
-import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.android.R;
 import com.example.android.adapters.MenuItemAdapter;
-import com.example.android.api.ApiService;
-import com.example.android.api.RetrofitClient;
+import com.example.android.api.MenuRepository;
 import com.example.android.models.MenuItem;
-import java.util.ArrayList;
 import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class MenuActivity extends BaseActivity {
     private MenuItemAdapter menuItemAdapter;
+    private MenuRepository menuRepository;
+    private String selectedCategory;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        menuRepository = MenuRepository.getInstance(this);
         configureActivityLayout();
         setupToolbar();
         configureActionBar();
@@ -107,66 +104,31 @@ public class MenuActivity extends BaseActivity {
         button.setTypeface(null, typefaceStyle);
     }
 
-/**
- * Asynchronously fetches menu items for a specific category from the API.
- *
- * This method creates an API service instance and makes an asynchronous call to retrieve
- * menu items. The response is handled by {@link #handleMenuItemsResponse}.
- *
- * @param category The category of menu items to fetch (e.g., "RAMEN", "UDON", etc.)
- *
- *  */
-private void fetchMenuItems(String category) {
-        ApiService apiService = RetrofitClient.getInstance().create(ApiService.class);
-        Call<List<MenuItem>> call = apiService.getMenuItemsByCategory(category);
-
-        call.enqueue(new Callback<List<MenuItem>>() {
-            @Override
-            public void onResponse(@NonNull Call<List<MenuItem>> call, @NonNull Response<List<MenuItem>> response) {
-                handleMenuItemsResponse(response, category);
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<List<MenuItem>> call, @NonNull Throwable t) {
-                Log.e("MenuActivity", "Failed to fetch items: " + t.getMessage());
-            }
-        });
-    }
     /**
-     * Processes the API response containing menu items and updates the UI accordingly.
+     * Shows the available menu items of a category.
      *
-     * This method handles the menu items response by:
-     * 1. Checking for successful response
-     * 2. Filtering available items
-     * 3. Getting the appropriate header title
-     * 4. Updating the adapter with the processed data
+     * The items come from the {@link MenuRepository}, which serves them from its local copy of the menu
+     * and refreshes that copy in the background, so the list may be updated a second time.
+     * Results for a category that is no longer selected are ignored.
      *
-     * @param response The Response object containing the list of menu items
-     * @param category The category of menu items that was requested
+     * @param category The category of menu items to show (e.g., "RAMEN", "UDON_NOODLES", etc.)
      *
      */
-    private void handleMenuItemsResponse(Response<List<MenuItem>> response, String category) {
-        if (response.isSuccessful() && response.body() != null) {
-            List<MenuItem> menuItems = response.body();
-
-            List<MenuItem> availableMenuItems = filterAvailableItems(menuItems);
-
-            String headerTitle = getHeaderTitleForCategory(category);
-
-            menuItemAdapter.updateMenuItems(availableMenuItems, headerTitle);
-        } else {
-            Log.e("MenuActivity", "Response was not successful");
-        }
-    }
+    private void fetchMenuItems(String category) {
+        selectedCategory = category;
+        menuRepository.getAvailableMenuItems(category, new MenuRepository.MenuCallback() {
+            @Override
+            public void onMenuItems(List<MenuItem> menuItems) {
+                if (category.equals(selectedCategory)) {
+                    menuItemAdapter.updateMenuItems(menuItems, getHeaderTitleForCategory(category));
+                }
+            }
 
-    private static @NonNull List<MenuItem> filterAvailableItems(List<MenuItem> menuItems) {
-        List<MenuItem> availableMenuItems = new ArrayList<>();
-        for (MenuItem item : menuItems) {
-            if (item.isAvailable()) {
-                availableMenuItems.add(item);
+            @Override
+            public void onFailure(Throwable t) {
+                Log.e("MenuActivity", "Failed to fetch items: " + t.getMessage());
             }
-        }
-        return availableMenuItems;
+        });
     }
 
     private String getHeaderTitleForCategory(String category) {
@@ -6,6 +6,7 @@ import com.example.android.models.MenuItem;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
 
@@ -15,6 +16,9 @@ public interface ApiService {
     @GET("api/menu/")
     Call<List<MenuItem>> getMenuItems();
 
+    @GET("api/menu/")
+    Call<List<MenuItem>> getMenuItems(@Header("If-None-Match") String eTag);
+
     @GET("api/menu/available")
     Call<List<MenuItem>> getAvailableMenuItems();
 
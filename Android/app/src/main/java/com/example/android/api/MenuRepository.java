@@ -0,0 +1,296 @@
+package com.example.android.api;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.android.models.MenuItem;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import retrofit2.Response;
+
+/**
+ * Local copy of the whole menu, kept in memory and in a file so it survives restarts and works offline.
+ * <p>
+ * The menu is fetched once and category views are served from an index of the available items per category.
+ * A copy older than {@link #TIME_TO_LIVE_MS} is still served right away, and revalidated in the background
+ * with its ETag; callbacks are called a second time only if the backend sent a different menu.
+ */
+public class MenuRepository {
+
+    private static final String TAG = "MenuRepository";
+    private static final String CACHE_FILE_NAME = "menu.json";
+    private static final long TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    public interface MenuCallback {
+        void onMenuItems(List<MenuItem> menuItems);
+
+        void onFailure(Throwable t);
+    }
+
+    private static MenuRepository instance;
+
+    private final ApiService apiService;
+    private final File cacheFile;
+    private final Executor ioExecutor;
+    private final Executor callbackExecutor;
+    private final LongSupplier clock;
+    private final Gson gson = new Gson();
+
+    private Menu menu;
+    private boolean cacheFileRead;
+    private long fetchedAt;
+    private boolean loading;
+    private final List<PendingRequest> pendingRequests = new ArrayList<>();
+
+    MenuRepository(ApiService apiService, File cacheFile, Executor ioExecutor, Executor callbackExecutor, LongSupplier clock) {
+        this.apiService = apiService;
+        this.cacheFile = cacheFile;
+        this.ioExecutor = ioExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+    }
+
+    public static synchronized MenuRepository getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new MenuRepository(
+                    RetrofitClient.getInstance().create(ApiService.class),
+                    new File(appContext.getCacheDir(), CACHE_FILE_NAME),
+                    Executors.newSingleThreadExecutor(),
+                    appContext.getMainExecutor(),
+                    SystemClock::elapsedRealtime);
+        }
+        return instance;
+    }
+
+    /**
+     * Delivers the available items of the category, from the local copy if there is one, and again if
+     * revalidating the copy changed them.
+     * Fails only if there is no copy at all and the menu cannot be fetched.
+     */
+    public void getAvailableMenuItems(String category, MenuCallback callback) {
+        Menu current;
+        boolean fresh;
+        synchronized (this) {
+            current = menu;
+            fresh = current != null && clock.getAsLong() - fetchedAt < TIME_TO_LIVE_MS;
+            if (!fresh) {
+                pendingRequests.add(new PendingRequest(category, callback, current));
+            }
+        }
+        if (current != null) {
+            deliver(callback, current.getAvailableItems(category));
+        }
+        if (!fresh) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        synchronized (this) {
+            if (loading) {
+                return;
+            }
+            loading = true;
+        }
+        ioExecutor.execute(this::load);
+    }
+
+    private void load() {
+        readCacheFileOnce();
+        String eTag;
+        synchronized (this) {
+            eTag = menu != null ? menu.eTag : null;
+        }
+        try {
+            Response<List<MenuItem>> response = apiService.getMenuItems(eTag).execute();
+            if (response.code() == 304) {
+                loadCompleted(null, null);
+            } else if (response.isSuccessful() && response.body() != null) {
+                Menu fetched = new Menu(response.body(), response.headers().get("ETag"));
+                writeCacheFile(fetched);
+                loadCompleted(fetched, null);
+            } else {
+                loadCompleted(null, new IOException("Fetching the menu failed with status " + response.code()));
+            }
+        } catch (IOException | RuntimeException e) {
+            loadCompleted(null, e);
+        }
+    }
+
+    /**
+     * Serves the copy saved by an earlier run to the waiting callbacks while the menu is revalidated.
+     */
+    private void readCacheFileOnce() {
+        synchronized (this) {
+            if (cacheFileRead) {
+                return;
+            }
+            cacheFileRead = true;
+            if (menu != null) {
+                return;
+            }
+        }
+        Menu saved = readCacheFile();
+        if (saved == null) {
+            return;
+        }
+        List<PendingRequest> waiting;
+        synchronized (this) {
+            menu = saved;
+            waiting = new ArrayList<>(pendingRequests);
+            for (PendingRequest request : waiting) {
+                request.served = saved;
+            }
+        }
+        for (PendingRequest request : waiting) {
+            deliver(request.callback, saved.getAvailableItems(request.category));
+        }
+    }
+
+    /**
+     * @param fetched the menu sent by the backend, or null if the copy is current or fetching failed
+     * @param error   why fetching failed, or null
+     */
+    private void loadCompleted(Menu fetched, Throwable error) {
+        Menu current;
+        List<PendingRequest> waiting;
+        synchronized (this) {
+            loading = false;
+            if (fetched != null) {
+                menu = fetched;
+            }
+            if (error == null) {
+                fetchedAt = clock.getAsLong();
+            }
+            current = menu;
+            waiting = new ArrayList<>(pendingRequests);
+            pendingRequests.clear();
+        }
+        if (error != null) {
+            Log.w(TAG, "Failed to fetch the menu: " + error.getMessage());
+        }
+        for (PendingRequest request : waiting) {
+            if (current == null) {
+                callbackExecutor.execute(() -> request.callback.onFailure(error));
+            } else if (request.served == null || !request.served.hasSameItems(current)) {
+                deliver(request.callback, current.getAvailableItems(request.category));
+            }
+        }
+    }
+
+    private void deliver(MenuCallback callback, List<MenuItem> menuItems) {
+        callbackExecutor.execute(() -> callback.onMenuItems(menuItems));
+    }
+
+    private Menu readCacheFile() {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8)) {
+            CachedMenu cached = gson.fromJson(reader, CachedMenu.class);
+            return cached != null && cached.items != null ? new Menu(cached.items, cached.eTag) : null;
+        } catch (IOException | JsonParseException e) {
+            Log.w(TAG, "Failed to read the saved menu: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the menu to a temporary file first, so a crash while writing never leaves a truncated copy.
+     */
+    private void writeCacheFile(Menu menu) {
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+            gson.toJson(new CachedMenu(menu.eTag, menu.items), writer);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save the menu: " + e.getMessage());
+            temporaryFile.delete();
+            return;
+        }
+        if (!temporaryFile.renameTo(cacheFile)) {
+            Log.w(TAG, "Failed to save the menu");
+            temporaryFile.delete();
+        }
+    }
+
+    /**
+     * An immutable copy of the menu with its index of available items per category.
+     */
+    private static final class Menu {
+        private final List<MenuItem> items;
+        private final String eTag;
+        private final Map<String, List<MenuItem>> availableItemsByCategory = new HashMap<>();
+
+        private Menu(List<MenuItem> items, String eTag) {
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+            this.eTag = eTag;
+            Map<String, List<MenuItem>> index = new HashMap<>();
+            for (MenuItem item : this.items) {
+                if (item.isAvailable()) {
+                    List<MenuItem> categoryItems = index.get(item.getCategory());
+                    if (categoryItems == null) {
+                        categoryItems = new ArrayList<>();
+                        index.put(item.getCategory(), categoryItems);
+                    }
+                    categoryItems.add(item);
+                }
+            }
+            for (Map.Entry<String, List<MenuItem>> entry : index.entrySet()) {
+                availableItemsByCategory.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+        }
+
+        private List<MenuItem> getAvailableItems(String category) {
+            List<MenuItem> categoryItems = availableItemsByCategory.get(category);
+            return categoryItems != null ? categoryItems : Collections.<MenuItem>emptyList();
+        }
+
+        private boolean hasSameItems(Menu other) {
+            return this == other || eTag != null && eTag.equals(other.eTag);
+        }
+    }
+
+    private static final class PendingRequest {
+        private final String category;
+        private final MenuCallback callback;
+        private Menu served;
+
+        private PendingRequest(String category, MenuCallback callback, Menu served) {
+            this.category = category;
+            this.callback = callback;
+            this.served = served;
+        }
+    }
+
+    private static final class CachedMenu {
+        private final String eTag;
+        private final List<MenuItem> items;
+
+        private CachedMenu(String eTag, List<MenuItem> items) {
+            this.eTag = eTag;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.android.api;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Local copy of the order board, built from a snapshot and kept current by applying
+ * the numbered events broadcast by the backend.
+ */
+public class OrderBoardState {
+
+    private static final String LIVE_KEY = "liveOrderBoardCodes";
+    private static final String READY_KEY = "liveOrderBoardReadyCodes";
+
+    private final Set<String> liveCodes = new TreeSet<>();
+    private final Set<String> readyCodes = new LinkedHashSet<>();
+    private long sequence = -1;
+
+    public synchronized boolean hasSnapshot() {
+        return sequence >= 0;
+    }
+
+    public synchronized void applySnapshot(JSONObject snapshot) throws JSONException {
+        liveCodes.clear();
+        readyCodes.clear();
+        addAll(snapshot.getJSONArray(LIVE_KEY), liveCodes);
+        addAll(snapshot.getJSONArray(READY_KEY), readyCodes);
+        sequence = snapshot.getLong("sequence");
+    }
+
+    /**
+     * Applies the event if it is the next one in sequence and skips events already
+     * contained in the snapshot.
+     *
+     * @return false when events were missed and a new snapshot is needed
+     */
+    public synchronized boolean applyEvent(JSONObject event) throws JSONException {
+        long eventSequence = event.getLong("sequence");
+        if (eventSequence <= sequence) {
+            return true;
+        }
+        if (eventSequence != sequence + 1) {
+            return false;
+        }
+        String code = event.getString("code");
+        switch (event.getString("type")) {
+            case "ADDED":
+                liveCodes.add(code);
+                break;
+            case "MOVED_TO_READY":
+                liveCodes.remove(code);
+                readyCodes.add(code);
+                break;
+            case "MOVED_TO_LIVE":
+                readyCodes.remove(code);
+                liveCodes.add(code);
+                break;
+            case "REMOVED":
+                liveCodes.remove(code);
+                readyCodes.remove(code);
+                break;
+            default:
+                return false;
+        }
+        sequence = eventSequence;
+        return true;
+    }
+
+    public synchronized JSONObject toJson() throws JSONException {
+        JSONObject orderBoard = new JSONObject();
+        orderBoard.put(LIVE_KEY, new JSONArray(liveCodes));
+        orderBoard.put(READY_KEY, new JSONArray(readyCodes));
+        return orderBoard;
+    }
+
+    private static void addAll(JSONArray codes, Set<String> target) throws JSONException {
+        for (int i = 0; i < codes.length(); i++) {
+            target.add(codes.getString(i));
+        }
+    }
+}
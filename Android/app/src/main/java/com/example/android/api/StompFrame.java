@@ -0,0 +1,101 @@
+package com.example.android.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * A STOMP 1.2 frame: a command, headers and a text body.
+ */
+@Getter
+public class StompFrame {
+
+    private final String command;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public StompFrame(String command, Map<String, String> headers, String body) {
+        this.command = command;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = body;
+    }
+
+    public StompFrame(String command, Map<String, String> headers) {
+        this(command, headers, "");
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * Encodes the frame for sending, escaping the header names and values except in CONNECT frames,
+     * as STOMP 1.2 requires.
+     */
+    public String toText() {
+        boolean escape = !"CONNECT".equals(command);
+        StringBuilder text = new StringBuilder(command).append('\n');
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            text.append(escape ? escape(header.getKey()) : header.getKey())
+                    .append(':')
+                    .append(escape ? escape(header.getValue()) : header.getValue())
+                    .append('\n');
+        }
+        return text.append('\n').append(body).append('\u0000').toString();
+    }
+
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case ':':
+                    escaped.append("\\c");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                unescaped.append(c);
+                continue;
+            }
+            char escapedChar = value.charAt(++i);
+            switch (escapedChar) {
+                case 'n':
+                    unescaped.append('\n');
+                    break;
+                case 'r':
+                    unescaped.append('\r');
+                    break;
+                case 'c':
+                    unescaped.append(':');
+                    break;
+                default:
+                    unescaped.append(escapedChar);
+            }
+        }
+        return unescaped.toString();
+    }
+}
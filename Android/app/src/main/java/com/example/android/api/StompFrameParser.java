@@ -0,0 +1,130 @@
+package com.example.android.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the text received on a connection into STOMP frames.
+ * <p>
+ * A WebSocket message may hold part of a frame, several frames, or only heart-beats, so the text is
+ * buffered until a frame is complete. A frame ends at the first NUL after its headers, or after
+ * content-length bytes of body if it has that header, in which case the body may contain NULs itself.
+ */
+public class StompFrameParser {
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Adds the text to the buffer and returns the frames it completes, in order.
+     *
+     * @throws IOException if a frame is malformed; the connection cannot be resynchronised after that
+     */
+    public List<StompFrame> parse(String text) throws IOException {
+        buffer.append(text);
+        List<StompFrame> frames = new ArrayList<>();
+        StompFrame frame;
+        while ((frame = nextFrame()) != null) {
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private StompFrame nextFrame() throws IOException {
+        skipHeartbeats();
+        int headersEnd = indexOfHeadersEnd();
+        if (headersEnd < 0) {
+            return null;
+        }
+        String[] lines = buffer.substring(0, headersEnd).split("\r?\n");
+        String command = lines[0];
+        Map<String, String> headers = new LinkedHashMap<>();
+        boolean escaped = !"CONNECTED".equals(command);
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new IOException("Malformed STOMP header: " + lines[i]);
+            }
+            String name = lines[i].substring(0, colon);
+            String value = lines[i].substring(colon + 1);
+            if (escaped) {
+                name = StompFrame.unescape(name);
+                value = StompFrame.unescape(value);
+            }
+            // the first of repeated headers wins
+            if (!headers.containsKey(name)) {
+                headers.put(name, value);
+            }
+        }
+
+        int bodyStart = buffer.charAt(headersEnd) == '\r' ? headersEnd + 4 : headersEnd + 2;
+        int bodyEnd = bodyEnd(bodyStart, headers.get("content-length"));
+        if (bodyEnd < 0) {
+            return null;
+        }
+        String body = buffer.substring(bodyStart, bodyEnd);
+        buffer.delete(0, bodyEnd + 1);
+        return new StompFrame(command, headers, body);
+    }
+
+    /**
+     * Removes the end-of-lines sent as heart-beats between frames.
+     */
+    private void skipHeartbeats() {
+        int start = 0;
+        while (start < buffer.length() && (buffer.charAt(start) == '\n' || buffer.charAt(start) == '\r')) {
+            start++;
+        }
+        buffer.delete(0, start);
+    }
+
+    private int indexOfHeadersEnd() {
+        int lf = buffer.indexOf("\n\n");
+        int crlf = buffer.indexOf("\r\n\r\n");
+        if (lf < 0 || crlf >= 0 && crlf < lf) {
+            return crlf;
+        }
+        return lf;
+    }
+
+    /**
+     * @return the index of the NUL ending the body, or -1 if the body has not been received completely
+     */
+    private int bodyEnd(int bodyStart, String contentLength) throws IOException {
+        if (contentLength == null) {
+            return buffer.indexOf("\u0000", bodyStart);
+        }
+        long remainingBytes;
+        try {
+            remainingBytes = Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed STOMP content-length: " + contentLength);
+        }
+        // content-length counts the bytes of the UTF-8 body, the buffer holds characters
+        int end = bodyStart;
+        while (remainingBytes > 0 && end < buffer.length()) {
+            remainingBytes -= utf8Length(buffer.charAt(end));
+            end++;
+        }
+        if (remainingBytes > 0 || end >= buffer.length()) {
+            return -1;
+        }
+        if (remainingBytes < 0 || buffer.charAt(end) != '\u0000') {
+            throw new IOException("STOMP frame body does not match its content-length");
+        }
+        return end;
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800) {
+            return 2;
+        }
+        // each half of a surrogate pair stands for two of the four bytes of the code point
+        return Character.isSurrogate(c) ? 2 : 3;
+    }
+}
@@ -2,106 +2,364 @@ package com.example.android.api;
 
 import android.util.Log;
 import androidx.annotation.NonNull;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import lombok.Setter;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 
+/**
+ * STOMP client for the order board that keeps its connection up until it is closed.
+ * <p>
+ * Heart-beats are negotiated with the broker, and a connection that stays silent for three times the
+ * negotiated interval is dropped. A dropped connection is reopened after an exponentially growing
+ * delay; every new connection subscribes to the events again and resyncs the board from a new snapshot.
+ * <p>
+ * All connection state is only touched on the client's own thread, which is also the thread the
+ * callback is called on.
+ */
 public class WebSocketClient {
 
     private static final String TAG = "WebSocketClient";
     private static final String WEBSOCKET_URL = "ws://10.0.2.2:8080/ws";
-    private static final String STOMP_CONNECT_FRAME = "CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n\n\u0000";
-    private static final String STOMP_DISCONNECT_FRAME = "DISCONNECT\nreceipt:bye\n\n\u0000";
-    private static final String ORDER_BOARD_TOPIC = "/topic/orderBoard";
+    private static final String ORDER_BOARD_EVENTS_TOPIC = "/topic/orderBoard/events";
+    private static final String ORDER_BOARD_SNAPSHOT_DESTINATION = "/app/orderBoard/snapshot";
     private static final String SEND_DESTINATION = "/app/sendMessage";
+    private static final long HEARTBEAT_MS = 10_000;
+    private static final long INITIAL_RECONNECT_DELAY_MS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 60_000;
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+
+    private final String url;
+    private final OkHttpClient client;
+    private final ScheduledExecutorService executor;
+    private final long heartbeatMs;
+    private final long initialReconnectDelayMs;
+    private final long maxReconnectDelayMs;
+    private final Random random = new Random();
 
+    private final OrderBoardState orderBoardState = new OrderBoardState();
+    private final List<JSONObject> bufferedEvents = new ArrayList<>();
+    private boolean awaitingSnapshot;
+    private int snapshotRequests = 0;
+
+    private boolean running;
     private WebSocket webSocket;
+    private StompFrameParser parser;
     private boolean isConnected = false;
+    private int reconnectAttempts;
+    private long lastReceivedAt;
+    private ScheduledFuture<?> reconnectTask;
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> heartbeatCheckTask;
 
     @Setter
-    private OrderBoardCallback orderBoardCallback;
+    private volatile OrderBoardCallback orderBoardCallback;
+
+    public WebSocketClient() {
+        this(WEBSOCKET_URL, new OkHttpClient(), HEARTBEAT_MS, INITIAL_RECONNECT_DELAY_MS, MAX_RECONNECT_DELAY_MS);
+    }
+
+    WebSocketClient(String url, OkHttpClient client, long heartbeatMs, long initialReconnectDelayMs, long maxReconnectDelayMs) {
+        this.url = url;
+        this.client = client;
+        this.heartbeatMs = heartbeatMs;
+        this.initialReconnectDelayMs = initialReconnectDelayMs;
+        this.maxReconnectDelayMs = maxReconnectDelayMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
+    /**
+     * Connects in the background and keeps reconnecting until {@link #close()} is called.
+     */
     public void start() {
-        OkHttpClient client = new OkHttpClient();
-        Request request = new Request.Builder().url(WEBSOCKET_URL).build();
+        submit(() -> {
+            if (running) {
+                return;
+            }
+            running = true;
+            connect();
+        });
+    }
 
+    private void connect() {
+        reconnectTask = null;
+        if (!running) {
+            return;
+        }
+        parser = new StompFrameParser();
+        Request request = new Request.Builder().url(url).build();
         webSocket = client.newWebSocket(request, createWebSocketListener());
     }
 
+    /**
+     * Hands every event of the socket to the client's thread, where events of sockets that have been
+     * replaced in the meantime are dropped.
+     */
     private WebSocketListener createWebSocketListener() {
         return new WebSocketListener() {
             @Override
-            public void onOpen(@NonNull WebSocket webSocket, @NonNull okhttp3.Response response) {
-                sendStompConnect();
+            public void onOpen(@NonNull WebSocket socket, @NonNull okhttp3.Response response) {
+                execute(socket, () -> sendStompConnect());
             }
 
             @Override
-            public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
-                handleMessage(text);
+            public void onMessage(@NonNull WebSocket socket, @NonNull String text) {
+                execute(socket, () -> handleMessage(text));
             }
 
             @Override
-            public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
-                closeWebSocket();
+            public void onClosing(@NonNull WebSocket socket, int code, @NonNull String reason) {
+                socket.close(1000, null);
+                execute(socket, () -> connectionLost(new IOException("Closed by the server: " + code + " " + reason)));
             }
 
             @Override
-            public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable t, okhttp3.Response response) {
-                isConnected = false;
+            public void onFailure(@NonNull WebSocket socket, @NonNull Throwable t, okhttp3.Response response) {
+                execute(socket, () -> connectionLost(t));
             }
         };
     }
 
+    private void execute(WebSocket socket, Runnable task) {
+        submit(() -> {
+            if (socket == webSocket) {
+                task.run();
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the client has been closed
+        }
+    }
+
     private void handleMessage(String text) {
+        lastReceivedAt = now();
+        List<StompFrame> frames;
         try {
-            if (text.startsWith("CONNECTED")) {
-                onStompConnected();
-            } else if (text.contains("MESSAGE")) {
-                handleStompMessage(text);
+            frames = parser.parse(text);
+        } catch (IOException e) {
+            dropConnection(e);
+            return;
+        }
+        for (StompFrame frame : frames) {
+            handleFrame(frame);
+            if (webSocket == null) {
+                return;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling message", e);
         }
     }
 
-    private void onStompConnected() {
+    private void handleFrame(StompFrame frame) {
+        switch (frame.getCommand()) {
+            case "CONNECTED":
+                onStompConnected(frame);
+                break;
+            case "MESSAGE":
+                handleStompMessage(frame);
+                break;
+            case "ERROR":
+                String message = frame.getHeader("message");
+                dropConnection(new IOException("STOMP error: " + (message != null ? message : frame.getBody())));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onStompConnected(StompFrame frame) {
         isConnected = true;
+        reconnectAttempts = 0;
+        startHeartbeats(frame.getHeader("heart-beat"));
         subscribeToTopic();
-        sendMessage("Hello Server!");
+        requestSnapshot();
     }
 
-    private void handleStompMessage(String text) {
-        String payload = extractMessagePayload(text);
-        if (payload == null) {
-            return;
-        }
-
-        if (text.contains("destination:" + ORDER_BOARD_TOPIC)) {
-            updateOrderBoard(payload);
+    private void handleStompMessage(StompFrame frame) {
+        String destination = frame.getHeader("destination");
+        if (ORDER_BOARD_EVENTS_TOPIC.equals(destination)) {
+            applyOrderBoardEvents(frame.getBody());
+        } else if (ORDER_BOARD_SNAPSHOT_DESTINATION.equals(destination)) {
+            applyOrderBoardSnapshot(frame.getBody());
         }
     }
 
-    private String extractMessagePayload(String text) {
-        String[] parts = text.split("\n\n");
-        return parts.length > 1 ? parts[1].replace("\u0000", "") : null;
+    /**
+     * Applies the snapshot, then the events that arrived while waiting for it.
+     */
+    private void applyOrderBoardSnapshot(String payload) {
+        try {
+            orderBoardState.applySnapshot(new JSONObject(payload));
+            awaitingSnapshot = false;
+            List<JSONObject> events = new ArrayList<>(bufferedEvents);
+            bufferedEvents.clear();
+            applyEvents(events);
+            notifyOrderBoardUpdate();
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing order board snapshot", e);
+        }
     }
 
-    private void updateOrderBoard(String payload) {
+    private void applyOrderBoardEvents(String payload) {
         try {
-            JSONObject orderBoard = new JSONObject(payload);
-            if (orderBoardCallback != null) {
-                orderBoardCallback.onOrderBoardUpdate(orderBoard);
+            JSONArray eventArray = new JSONArray(payload);
+            List<JSONObject> events = new ArrayList<>();
+            for (int i = 0; i < eventArray.length(); i++) {
+                events.add(eventArray.getJSONObject(i));
+            }
+            if (awaitingSnapshot) {
+                bufferedEvents.addAll(events);
+                return;
             }
+            applyEvents(events);
+            notifyOrderBoardUpdate();
         } catch (Exception e) {
-            Log.e(TAG, "Error parsing order board JSON", e);
+            Log.e(TAG, "Error parsing order board events", e);
+        }
+    }
+
+    /**
+     * Applies the events in order; after a gap the rest is kept for the new snapshot requested.
+     */
+    private void applyEvents(List<JSONObject> events) throws JSONException {
+        for (int i = 0; i < events.size(); i++) {
+            if (!orderBoardState.applyEvent(events.get(i))) {
+                Log.w(TAG, "Missed order board events, requesting a new snapshot");
+                requestSnapshot();
+                bufferedEvents.addAll(events.subList(i, events.size()));
+                return;
+            }
         }
     }
 
+    private void notifyOrderBoardUpdate() throws JSONException {
+        OrderBoardCallback callback = orderBoardCallback;
+        if (callback != null && orderBoardState.hasSnapshot()) {
+            callback.onOrderBoardUpdate(orderBoardState.toJson());
+        }
+    }
+
+    /**
+     * Sends heart-beats and checks the incoming ones at the intervals agreed with the broker: the larger
+     * of what one side offers and the other asks for, or none if either side does not want them.
+     */
+    private void startHeartbeats(String serverHeartbeat) {
+        stopHeartbeats();
+        long serverSends = 0;
+        long serverWants = 0;
+        if (serverHeartbeat != null) {
+            String[] values = serverHeartbeat.split(",");
+            try {
+                serverSends = Long.parseLong(values[0].trim());
+                serverWants = values.length > 1 ? Long.parseLong(values[1].trim()) : 0;
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Ignoring malformed heart-beat header: " + serverHeartbeat);
+            }
+        }
+        long sendInterval = heartbeatMs > 0 && serverWants > 0 ? Math.max(heartbeatMs, serverWants) : 0;
+        long receiveInterval = heartbeatMs > 0 && serverSends > 0 ? Math.max(heartbeatMs, serverSends) : 0;
+
+        WebSocket socket = webSocket;
+        if (sendInterval > 0) {
+            heartbeatTask = executor.scheduleAtFixedRate(() -> socket.send("\n"),
+                    sendInterval, sendInterval, TimeUnit.MILLISECONDS);
+        }
+        if (receiveInterval > 0) {
+            // the broker only checks once per interval whether a heart-beat is due, so they can be almost two intervals apart
+            long timeout = 3 * receiveInterval;
+            heartbeatCheckTask = executor.scheduleAtFixedRate(() -> {
+                if (socket == webSocket && now() - lastReceivedAt > timeout) {
+                    dropConnection(new IOException("No heart-beat from the server for " + timeout + " ms"));
+                }
+            }, receiveInterval, receiveInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void stopHeartbeats() {
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+            heartbeatTask = null;
+        }
+        if (heartbeatCheckTask != null) {
+            heartbeatCheckTask.cancel(false);
+            heartbeatCheckTask = null;
+        }
+    }
+
+    private void dropConnection(Throwable reason) {
+        if (webSocket != null) {
+            webSocket.cancel();
+        }
+        connectionLost(reason);
+    }
+
+    private void connectionLost(Throwable reason) {
+        Log.w(TAG, "Connection lost: " + reason.getMessage());
+        stopHeartbeats();
+        webSocket = null;
+        isConnected = false;
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!running || reconnectTask != null) {
+            return;
+        }
+        long delay = reconnectDelay(reconnectAttempts++);
+        reconnectTask = executor.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Doubles the delay with every failed attempt up to the maximum, and picks a random delay in its
+     * upper half so clients that lost the connection together do not all come back at once.
+     */
+    long reconnectDelay(int attempt) {
+        long delay = initialReconnectDelayMs << Math.min(attempt, 30);
+        if (delay <= 0 || delay > maxReconnectDelayMs) {
+            delay = maxReconnectDelayMs;
+        }
+        return delay / 2 + (long) (random.nextDouble() * (delay - delay / 2));
+    }
+
     private void sendStompConnect() {
-        webSocket.send(STOMP_CONNECT_FRAME);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("accept-version", "1.2");
+        headers.put("host", "localhost");
+        headers.put("heart-beat", heartbeatMs + "," + heartbeatMs);
+        webSocket.send(new StompFrame("CONNECT", headers).toText());
+
+        // a broker that accepted the socket but never confirms the session is as good as gone
+        WebSocket socket = webSocket;
+        heartbeatCheckTask = executor.schedule(() -> {
+            if (socket == webSocket && !isConnected) {
+                dropConnection(new IOException("No CONNECTED frame within " + CONNECT_TIMEOUT_MS + " ms"));
+            }
+        }, CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
     }
 
     private void subscribeToTopic() {
@@ -109,31 +367,67 @@ public class WebSocketClient {
             return;
         }
 
-        String subscribeFrame = "SUBSCRIBE\nid:sub-0\ndestination:" + ORDER_BOARD_TOPIC + "\nack:auto\n\n\u0000";
-        webSocket.send(subscribeFrame);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("id", "sub-0");
+        headers.put("destination", ORDER_BOARD_EVENTS_TOPIC);
+        headers.put("ack", "auto");
+        webSocket.send(new StompFrame("SUBSCRIBE", headers).toText());
     }
 
-    public void sendMessage(String message) {
+    /**
+     * Subscribes to the snapshot, which the broker answers once; events received until then are buffered.
+     */
+    private void requestSnapshot() {
         if (!isConnected) {
             return;
         }
 
-        String sendFrame = "SEND\ndestination:" + SEND_DESTINATION + "\ncontent-type:text/plain\ncontent-length:" + message.length() + "\n\n" + message + "\u0000";
-        webSocket.send(sendFrame);
+        awaitingSnapshot = true;
+        bufferedEvents.clear();
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("id", "snapshot-" + (++snapshotRequests));
+        headers.put("destination", ORDER_BOARD_SNAPSHOT_DESTINATION);
+        webSocket.send(new StompFrame("SUBSCRIBE", headers).toText());
     }
 
-    public void close() {
-        if (webSocket != null) {
-            webSocket.send(STOMP_DISCONNECT_FRAME);
-            closeWebSocket();
-        }
+    public void sendMessage(String message) {
+        submit(() -> {
+            if (!isConnected) {
+                return;
+            }
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("destination", SEND_DESTINATION);
+            headers.put("content-type", "text/plain");
+            headers.put("content-length", String.valueOf(message.getBytes(StandardCharsets.UTF_8).length));
+            webSocket.send(new StompFrame("SEND", headers, message).toText());
+        });
     }
 
-    private void closeWebSocket() {
-        if (webSocket != null) {
-            webSocket.close(1000, "Goodbye");
+    /**
+     * Disconnects and stops reconnecting. The client cannot be started again.
+     */
+    public void close() {
+        submit(() -> {
+            running = false;
+            if (reconnectTask != null) {
+                reconnectTask.cancel(false);
+                reconnectTask = null;
+            }
+            stopHeartbeats();
+            if (webSocket != null) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                headers.put("receipt", "bye");
+                webSocket.send(new StompFrame("DISCONNECT", headers).toText());
+                webSocket.close(1000, "Goodbye");
+                webSocket = null;
+            }
             isConnected = false;
-            webSocket = null;
-        }
+        });
+        executor.shutdown();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
     }
 }
@@ -0,0 +1,207 @@
+package com.example.android.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.android.models.MenuItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Runs the repository synchronously against a mock server, so every callback has been called when a request returns.
+ */
+public class MenuRepositoryTest {
+
+    private static final String MENU_JSON = "[" +
+            "{\"id\":1,\"name\":\"Tonkotsu\",\"category\":\"RAMEN\",\"available\":true,\"price\":12.5}," +
+            "{\"id\":2,\"name\":\"Shoyu\",\"category\":\"RAMEN\",\"available\":false,\"price\":11.0}," +
+            "{\"id\":3,\"name\":\"Kitsune\",\"category\":\"UDON_NOODLES\",\"available\":true,\"price\":10.0}]";
+    private static final String UPDATED_MENU_JSON = "[" +
+            "{\"id\":1,\"name\":\"Tonkotsu\",\"category\":\"RAMEN\",\"available\":true,\"price\":12.5}," +
+            "{\"id\":2,\"name\":\"Shoyu\",\"category\":\"RAMEN\",\"available\":true,\"price\":11.0}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicLong clock = new AtomicLong();
+    private ApiService apiService;
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        cacheFile = new File(temporaryFolder.getRoot(), "menu.json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void getAvailableMenuItems_ShouldFetchTheMenuOnceForAllCategories() throws InterruptedException {
+        // Arrange
+        server.enqueue(menuResponse(MENU_JSON, "\"v1\""));
+        MenuRepository repository = newRepository();
+
+        // Act
+        RecordingCallback ramen = new RecordingCallback();
+        RecordingCallback udon = new RecordingCallback();
+        RecordingCallback ramenAgain = new RecordingCallback();
+        repository.getAvailableMenuItems("RAMEN", ramen);
+        repository.getAvailableMenuItems("UDON_NOODLES", udon);
+        repository.getAvailableMenuItems("RAMEN", ramenAgain);
+
+        // Assert
+        assertEquals(1, server.getRequestCount());
+        assertEquals("/api/menu/", server.takeRequest().getPath());
+        assertEquals(names("Tonkotsu"), ramen.lastNames());
+        assertEquals(names("Kitsune"), udon.lastNames());
+        assertEquals(names("Tonkotsu"), ramenAgain.lastNames());
+        assertEquals(1, ramen.deliveries.size());
+    }
+
+    @Test
+    public void getAvailableMenuItems_ShouldRevalidateAnExpiredCopyWithItsETag() throws InterruptedException {
+        // Arrange
+        server.enqueue(menuResponse(MENU_JSON, "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+        MenuRepository repository = newRepository();
+        repository.getAvailableMenuItems("RAMEN", new RecordingCallback());
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+
+        // Act
+        RecordingCallback callback = new RecordingCallback();
+        repository.getAvailableMenuItems("RAMEN", callback);
+
+        // Assert
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+        assertEquals(1, callback.deliveries.size());
+        assertEquals(names("Tonkotsu"), callback.lastNames());
+    }
+
+    @Test
+    public void getAvailableMenuItems_ShouldDeliverAgainWhenTheMenuChanged() {
+        // Arrange
+        server.enqueue(menuResponse(MENU_JSON, "\"v1\""));
+        server.enqueue(menuResponse(UPDATED_MENU_JSON, "\"v2\""));
+        MenuRepository repository = newRepository();
+        repository.getAvailableMenuItems("RAMEN", new RecordingCallback());
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+
+        // Act
+        RecordingCallback ramen = new RecordingCallback();
+        RecordingCallback udon = new RecordingCallback();
+        repository.getAvailableMenuItems("RAMEN", ramen);
+        repository.getAvailableMenuItems("UDON_NOODLES", udon);
+
+        // Assert
+        assertEquals(2, ramen.deliveries.size());
+        assertEquals(names("Tonkotsu"), ramen.deliveries.get(0));
+        assertEquals(names("Tonkotsu", "Shoyu"), ramen.lastNames());
+        assertEquals(names(), udon.lastNames());
+    }
+
+    @Test
+    public void getAvailableMenuItems_ShouldServeTheSavedMenuWhenOffline() throws IOException, InterruptedException {
+        // Arrange
+        server.enqueue(menuResponse(MENU_JSON, "\"v1\""));
+        newRepository().getAvailableMenuItems("RAMEN", new RecordingCallback());
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        // Act
+        RecordingCallback callback = new RecordingCallback();
+        newRepository().getAvailableMenuItems("UDON_NOODLES", callback);
+
+        // Assert
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(names("Kitsune"), callback.lastNames());
+        assertEquals(1, callback.deliveries.size());
+        assertNull(callback.failure);
+        assertTrue(cacheFile.exists());
+    }
+
+    @Test
+    public void getAvailableMenuItems_ShouldFailWithoutAnyCopy() throws IOException {
+        // Arrange
+        server.shutdown();
+
+        // Act
+        RecordingCallback callback = new RecordingCallback();
+        newRepository().getAvailableMenuItems("RAMEN", callback);
+
+        // Assert
+        assertTrue(callback.deliveries.isEmpty());
+        assertNotNull(callback.failure);
+    }
+
+    private MenuRepository newRepository() {
+        return new MenuRepository(apiService, cacheFile, Runnable::run, Runnable::run, clock::get);
+    }
+
+    private static MockResponse menuResponse(String body, String eTag) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("ETag", eTag)
+                .setBody(body);
+    }
+
+    private static List<String> names(String... names) {
+        List<String> list = new ArrayList<>();
+        for (String name : names) {
+            list.add(name);
+        }
+        return list;
+    }
+
+    private static final class RecordingCallback implements MenuRepository.MenuCallback {
+        private final List<List<String>> deliveries = new ArrayList<>();
+        private Throwable failure;
+
+        @Override
+        public void onMenuItems(List<MenuItem> menuItems) {
+            List<String> delivered = new ArrayList<>();
+            for (MenuItem item : menuItems) {
+                delivered.add(item.getName());
+            }
+            deliveries.add(delivered);
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            failure = t;
+        }
+
+        private List<String> lastNames() {
+            return deliveries.get(deliveries.size() - 1);
+        }
+    }
+}
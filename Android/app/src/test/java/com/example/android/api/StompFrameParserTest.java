@@ -0,0 +1,80 @@
+package com.example.android.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StompFrameParserTest {
+
+    private final StompFrameParser parser = new StompFrameParser();
+
+    @Test
+    public void parse_ShouldWaitForTheRestOfAPartialFrame() throws IOException {
+        // Act
+        List<StompFrame> first = parser.parse("MESSAGE\ndestination:/topic/orderBoard/ev");
+        List<StompFrame> second = parser.parse("ents\n\n[{\"sequence\":");
+        List<StompFrame> third = parser.parse("1}]\u0000");
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(1, third.size());
+        assertEquals("/topic/orderBoard/events", third.get(0).getHeader("destination"));
+        assertEquals("[{\"sequence\":1}]", third.get(0).getBody());
+    }
+
+    @Test
+    public void parse_ShouldSplitSeveralFramesAndSkipHeartbeats() throws IOException {
+        // Act
+        List<StompFrame> frames = parser.parse("\n\r\nCONNECTED\nversion:1.2\nheart-beat:10000,10000\n\n\u0000\n"
+                + "MESSAGE\r\ndestination:/a\r\n\r\none\u0000MESSAGE\ndestination:/b\n\ntwo\u0000\n\n");
+
+        // Assert
+        assertEquals(3, frames.size());
+        assertEquals("CONNECTED", frames.get(0).getCommand());
+        assertEquals("10000,10000", frames.get(0).getHeader("heart-beat"));
+        assertEquals("one", frames.get(1).getBody());
+        assertEquals("/b", frames.get(2).getHeader("destination"));
+        assertEquals("two", frames.get(2).getBody());
+    }
+
+    @Test
+    public void parse_ShouldReadTheContentLengthInUtf8Bytes() throws IOException {
+        // Arrange
+        String body = "caf\u00e9 \u0000 \uD83C\uDF5C";
+
+        // Act
+        List<StompFrame> partial = parser.parse("MESSAGE\ncontent-length:12\n\ncaf\u00e9 \u0000");
+        List<StompFrame> frames = parser.parse(" \uD83C\uDF5C\u0000");
+
+        // Assert
+        assertTrue(partial.isEmpty());
+        assertEquals(1, frames.size());
+        assertEquals(body, frames.get(0).getBody());
+    }
+
+    @Test
+    public void parse_ShouldUnescapeHeadersAndKeepTheFirstOfRepeatedOnes() throws IOException {
+        // Arrange
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("message", "line\none: c:\\d");
+        String text = new StompFrame("ERROR", headers).toText().replace("\n\n", "\nmessage:ignored\n\n");
+
+        // Act
+        List<StompFrame> frames = parser.parse(text);
+
+        // Assert
+        assertEquals("line\none: c:\\d", frames.get(0).getHeader("message"));
+    }
+
+    @Test(expected = IOException.class)
+    public void parse_ShouldRejectABodyLongerThanItsContentLength() throws IOException {
+        parser.parse("MESSAGE\ncontent-length:2\n\nabc\u0000");
+    }
+}
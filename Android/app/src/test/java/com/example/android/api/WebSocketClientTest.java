@@ -0,0 +1,200 @@
+package com.example.android.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Runs the client against a fake broker on a mock server, with short heart-beat and reconnect intervals.
+ */
+public class WebSocketClientTest {
+
+    private static final String EVENTS_TOPIC = "/topic/orderBoard/events";
+    private static final String SNAPSHOT_DESTINATION = "/app/orderBoard/snapshot";
+    private static final long HEARTBEAT_MS = 100;
+
+    private final MockWebServer server = new MockWebServer();
+    private final BlockingQueue<JSONObject> boards = new LinkedBlockingQueue<>();
+    private WebSocketClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        client = new WebSocketClient(server.url("/ws").toString().replace("http", "ws"), new OkHttpClient(), HEARTBEAT_MS, 10, 100);
+        client.setOrderBoardCallback(boards::add);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void start_ShouldResubscribeAndResyncAfterTheConnectionDropped() throws Exception {
+        // Arrange
+        FakeBroker first = new FakeBroker("0,0", snapshot(1, "A"));
+        FakeBroker second = new FakeBroker("0,0", snapshot(5, "A", "B"));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(first));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(second));
+
+        // Act
+        client.start();
+        JSONObject firstBoard = boards.poll(5, TimeUnit.SECONDS);
+        first.socket.close(1001, "Going away");
+        JSONObject resyncedBoard = boards.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(codes("A"), liveCodes(firstBoard));
+        assertEquals(codes("A", "B"), liveCodes(resyncedBoard));
+        assertEquals("CONNECT", second.frames.poll(5, TimeUnit.SECONDS).getCommand());
+        assertEquals(EVENTS_TOPIC, second.frames.poll(5, TimeUnit.SECONDS).getHeader("destination"));
+        assertEquals(SNAPSHOT_DESTINATION, second.frames.poll(5, TimeUnit.SECONDS).getHeader("destination"));
+    }
+
+    @Test
+    public void start_ShouldApplyEventsReceivedBeforeTheSnapshotOnTopOfIt() throws Exception {
+        // Arrange
+        FakeBroker broker = new FakeBroker("0,0",
+                message(EVENTS_TOPIC, "[{\"sequence\":1,\"type\":\"ADDED\",\"code\":\"A\"},"
+                        + "{\"sequence\":2,\"type\":\"ADDED\",\"code\":\"B\"}]"),
+                snapshot(1, "A"));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(broker));
+
+        // Act
+        client.start();
+        JSONObject board = boards.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(codes("A", "B"), liveCodes(board));
+    }
+
+    @Test
+    public void start_ShouldSendHeartbeatsAndReconnectWhenTheBrokerFallsSilent() throws Exception {
+        // Arrange
+        FakeBroker silent = new FakeBroker(HEARTBEAT_MS + "," + HEARTBEAT_MS, snapshot(1, "A"));
+        FakeBroker next = new FakeBroker("0,0", snapshot(2, "A", "B"));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(silent));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(next));
+
+        // Act
+        client.start();
+
+        // Assert
+        assertNotNull(silent.heartbeats.poll(5, TimeUnit.SECONDS));
+        assertEquals(codes("A"), liveCodes(boards.poll(5, TimeUnit.SECONDS)));
+        assertEquals(codes("A", "B"), liveCodes(boards.poll(5, TimeUnit.SECONDS)));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void reconnectDelay_ShouldGrowExponentiallyUpToTheMaximum() {
+        // Arrange
+        WebSocketClient backoff = new WebSocketClient("ws://localhost/ws", new OkHttpClient(), HEARTBEAT_MS, 1_000, 60_000);
+
+        // Act & Assert
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long expected = Math.min(1_000L << Math.min(attempt, 30), 60_000);
+            long delay = backoff.reconnectDelay(attempt);
+            assertTrue("Attempt " + attempt + " waited " + delay + " ms", delay >= expected / 2 && delay <= expected);
+        }
+        backoff.close();
+    }
+
+    private static String snapshot(long sequence, String... liveCodes) throws Exception {
+        JSONObject snapshot = new JSONObject();
+        snapshot.put("liveOrderBoardCodes", new org.json.JSONArray(Arrays.asList(liveCodes)));
+        snapshot.put("liveOrderBoardReadyCodes", new org.json.JSONArray());
+        snapshot.put("sequence", sequence);
+        return message(SNAPSHOT_DESTINATION, snapshot.toString());
+    }
+
+    private static String message(String destination, String body) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("destination", destination);
+        headers.put("content-type", "application/json");
+        return new StompFrame("MESSAGE", headers, body).toText();
+    }
+
+    private static List<String> liveCodes(JSONObject board) throws Exception {
+        assertNotNull("No order board update", board);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < board.getJSONArray("liveOrderBoardCodes").length(); i++) {
+            codes.add(board.getJSONArray("liveOrderBoardCodes").getString(i));
+        }
+        return codes;
+    }
+
+    private static List<String> codes(String... codes) {
+        return Arrays.asList(codes);
+    }
+
+    /**
+     * Confirms the session with the given heart-beat header and answers the snapshot subscription
+     * with the given messages, sending them together in one WebSocket message.
+     */
+    private static final class FakeBroker extends WebSocketListener {
+        private final String heartbeat;
+        private final String[] snapshotReply;
+        private final StompFrameParser parser = new StompFrameParser();
+        private final BlockingQueue<StompFrame> frames = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> heartbeats = new LinkedBlockingQueue<>();
+        private volatile WebSocket socket;
+
+        private FakeBroker(String heartbeat, String... snapshotReply) {
+            this.heartbeat = heartbeat;
+            this.snapshotReply = snapshotReply;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, okhttp3.Response response) {
+            socket = webSocket;
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            if (text.trim().isEmpty()) {
+                heartbeats.add(text);
+                return;
+            }
+            try {
+                for (StompFrame frame : parser.parse(text)) {
+                    frames.add(frame);
+                    if ("CONNECT".equals(frame.getCommand())) {
+                        webSocket.send("CONNECTED\nversion:1.2\nheart-beat:" + heartbeat + "\n\n\u0000");
+                    } else if (SNAPSHOT_DESTINATION.equals(frame.getHeader("destination"))) {
+                        webSocket.send(String.join("", snapshotReply));
+                    }
+                }
+            } catch (IOException e) {
+                webSocket.close(1002, e.getMessage());
+            }
+        }
+    }
+}
@@ -16,11 +16,26 @@ public class EmailConfiguration {
     @Value("${spring.mail.password}")
     private String emailPassword;
 
+    @Value("${spring.mail.host:smtp.gmail.com}")
+    private String host;
+
+    @Value("${spring.mail.port:587}")
+    private int port;
+
+    @Value("${email.smtp.connection-timeout-ms:5000}")
+    private int connectionTimeoutMs;
+
+    @Value("${email.smtp.timeout-ms:10000}")
+    private int timeoutMs;
+
+    @Value("${email.smtp.write-timeout-ms:10000}")
+    private int writeTimeoutMs;
+
     @Bean
     public JavaMailSender javaMailSender(){
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(emailUsername);
         mailSender.setPassword(emailPassword);
 
@@ -28,6 +43,9 @@ public class EmailConfiguration {
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.smtp.connectiontimeout", connectionTimeoutMs);
+        props.put("mail.smtp.timeout", timeoutMs);
+        props.put("mail.smtp.writetimeout", writeTimeoutMs);
         props.put("mail.debug", "true");
 
         return mailSender;
@@ -6,21 +6,27 @@
  * <p>
  * The filter performs the following operations:
  * 1. Extracts JWT token from the Authorization header
- * 2. Validates the token and extracts user information
- * 3. Creates and sets the authentication context if the token is valid
- * 4. Handles various authentication errors with appropriate HTTP responses
+ * 2. Verifies the token once and extracts user information
+ * 3. Takes the user from the {@link AuthenticatedUserCache}, loading it only on a miss
+ * 4. Creates and sets the authentication context if the token is valid
+ * 5. Handles various authentication errors with appropriate HTTP responses
  *
  * @author Your Name
  * @version 1.0
  * @see OncePerRequestFilter
  * @see JwtService
  * @see UserDetailsService
+ * @see AuthenticatedUserCache
  */
 package com.food.backend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.backend.model.User;
+import com.food.backend.service.AuthenticatedUserCache;
 import com.food.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -48,6 +54,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AuthenticatedUserCache authenticatedUserCache;
     private final ObjectMapper objectMapper;
 
     /**
@@ -55,10 +62,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      *
      * @param jwtService Service for JWT operations
      * @param userDetailsService Service for user details operations
+     * @param authenticatedUserCache Cache of users with verified tokens
      */
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   AuthenticatedUserCache authenticatedUserCache) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.authenticatedUserCache = authenticatedUserCache;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -121,21 +131,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain
     ) throws IOException, ServletException {
-        if (jwtService.hasTokenExpired(jwt) ) {
+        Claims claims;
+        try {
+            claims = jwtService.parseVerifiedClaims(jwt);
+        } catch (ExpiredJwtException e) {
             sendErrorResponse(response, "Token has expired");
             return;
+        } catch (JwtException | IllegalArgumentException e) {
+            sendErrorResponse(response, "Token is not valid");
+            return;
         }
 
-        String username = jwtService.extractUsername(jwt);
+        String username = claims.getSubject();
         if (!isValidAuthenticationContext(username)) {
             sendErrorResponse(response, "Invalid Username");
             return;
         }
 
-        User user = (User) userDetailsService.loadUserByUsername(username);
-        if (!jwtService.isTokenValid(jwt, user)) {
-            sendErrorResponse(response, "Token is not valid");
-            return;
+        User user = authenticatedUserCache.get(jwt);
+        if (user == null || !username.equals(user.getUsername())) {
+            user = (User) userDetailsService.loadUserByUsername(username);
+            authenticatedUserCache.put(jwt, user,
+                    claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
         }
 
         setAuthenticationContext(user, request);
@@ -43,6 +43,7 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.GET,"/api/menu/name/{name}").permitAll()
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/orders/{orderId}/status").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/orders/{orderId}/status/stream").permitAll()
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
@@ -1,5 +1,6 @@
 package com.food.backend.controller;
 
+import com.food.backend.dto.boarddtos.OrderBoardSnapshotDto;
 import com.food.backend.service.LiveOrderBoard;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 
@@ -45,4 +47,24 @@ public class EventController {
     public String handleMessage() {
         return liveOrderBoard.getOrderBoardState().toString();
     }
+
+    @Operation(
+            summary = "Get an order board snapshot",
+            description = "Subscribing to /app/orderBoard/snapshot replies once to the subscriber with the full board and its sequence number. " +
+                    "Subscribe to /topic/orderBoard/events first and apply the events with a higher sequence on top of the snapshot"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Snapshot of the order board",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderBoardSnapshotDto.class)
+                    )
+            )
+    })
+    @SubscribeMapping("/orderBoard/snapshot")
+    public OrderBoardSnapshotDto getSnapshot() {
+        return liveOrderBoard.getSnapshot();
+    }
 }
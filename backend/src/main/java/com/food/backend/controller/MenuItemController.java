@@ -6,18 +6,22 @@ import com.food.backend.model.MenuItem;
 import com.food.backend.service.MenuItemService;
 import com.food.backend.utils.classes.ResponseUtil;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -34,9 +38,19 @@ public class MenuItemController {
             summary = "Get all menu items",
             description = "Retrieves a list of all menu items in the system"
     )
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved menu items")
-    public ResponseEntity<List<MenuItem>> getMenuItems() {
-        return ResponseEntity.ok(menuItemService.findAll());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved menu items",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = MenuItem.class)))),
+            @ApiResponse(responseCode = "304", description = "The client's copy is current")
+    })
+    public ResponseEntity<byte[]> getMenuItems(
+            @Parameter(description = "ETag of a copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return ResponseUtil.serializedJsonResponse(menuItemService.findAllSerialized(), ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
@@ -69,9 +83,20 @@ public class MenuItemController {
             summary = "Get available menu items",
             description = "Retrieves all menu items that are currently available"
     )
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved available menu items")
-    public ResponseEntity<List<MenuItem>> getAvailableMenuItems() {
-        return ResponseEntity.ok(menuItemService.findByAvailable(true));
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved available menu items",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = MenuItem.class)))),
+            @ApiResponse(responseCode = "304", description = "The client's copy is current")
+    })
+    public ResponseEntity<byte[]> getAvailableMenuItems(
+            @Parameter(description = "ETag of a copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return ResponseUtil.serializedJsonResponse(menuItemService.findAvailableSerialized(), ifNoneMatch,
+                acceptEncoding);
     }
 
     @GetMapping("/category/{category}")
@@ -79,11 +104,21 @@ public class MenuItemController {
             summary = "Get menu items by category",
             description = "Retrieves all menu items in a specific category"
     )
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved menu items for the category")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(
-            @PathVariable("category") Category category
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved menu items for the category",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = MenuItem.class)))),
+            @ApiResponse(responseCode = "304", description = "The client's copy is current")
+    })
+    public ResponseEntity<byte[]> getMenuItemsByCategory(
+            @PathVariable("category") Category category,
+            @Parameter(description = "ETag of a copy the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        return ResponseEntity.ok(menuItemService.findByCategory(category));
+        return ResponseUtil.serializedJsonResponse(menuItemService.findByCategorySerialized(category), ifNoneMatch,
+                acceptEncoding);
     }
 
     @GetMapping("/name/{name}")
@@ -1,15 +1,23 @@
 package com.food.backend.controller;
 
 import com.food.backend.dto.orderdtos.CreateOrderDto;
+import com.food.backend.dto.orderdtos.OrderChangesDto;
+import com.food.backend.dto.orderdtos.OrderPageDto;
+import com.food.backend.dto.orderdtos.OrderStatusEventDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
 import com.food.backend.dto.orderdtos.UpdateOrderStatusDto;
 import com.food.backend.dto.orderdtos.UpdatePreparedByDto;
 import com.food.backend.model.Order;
 import com.food.backend.model.User;
 import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
 import com.food.backend.service.OrderService;
+import com.food.backend.service.OrderStatusPublisher;
 import com.food.backend.exception.OrderNotFoundException;
+import com.food.backend.exception.TooManyStreamsException;
 import com.food.backend.service.UserService;
 import com.food.backend.utils.classes.ResponseUtil;
+import com.food.backend.utils.other.OrderFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,11 +30,17 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -36,11 +50,13 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final OrderStatusPublisher orderStatusPublisher;
 
     @Autowired
-    public OrderController(OrderService orderService, UserService userService) {
+    public OrderController(OrderService orderService, UserService userService, OrderStatusPublisher orderStatusPublisher) {
         this.orderService = orderService;
         this.userService = userService;
+        this.orderStatusPublisher = orderStatusPublisher;
     }
 
     @Operation(
@@ -83,7 +99,7 @@ public class OrderController {
     @GetMapping("/{orderId}")
     public ResponseEntity<?> getOrderById(@PathVariable Long orderId) {
         try {
-            Order order = orderService.getOrderById(orderId)
+            OrderViewDto order = orderService.getOrderById(orderId)
                     .orElseThrow(() -> new OrderNotFoundException(orderId));
             return ResponseUtil.successResponse(order, "Order retrieved successfully");
         } catch (OrderNotFoundException e) {
@@ -98,15 +114,93 @@ public class OrderController {
     @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved all orders",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Order.class)))
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderViewDto.class)))
     )
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping
     public ResponseEntity<?> getAllOrders() {
-        List<Order> orders = orderService.getAllOrdersWithItems();
+        List<OrderViewDto> orders = orderService.getAllOrdersWithItems();
         return ResponseUtil.successResponse(orders, "Orders retrieved successfully");
     }
 
+    @Operation(
+            summary = "Get a page of orders",
+            description = "Retrieves orders newest first, including their items, one page at a time. " +
+                    "Pass the nextCursor of a page as cursor to get the page after it"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the page",
+                    content = @Content(schema = @Schema(implementation = OrderPageDto.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or limit")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/page")
+    public ResponseEntity<?> getOrdersPage(
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) OrderType type,
+            @RequestParam(required = false) Long preparedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            OrderFilter filter = new OrderFilter(status, type, preparedBy, from, to);
+            OrderPageDto page = orderService.getOrdersPage(filter, cursor, limit);
+            return ResponseUtil.successResponse(page, "Orders retrieved successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Get order changes",
+            description = "Retrieves the orders created, updated or deleted since a version, for clients that keep a copy " +
+                    "of the order list. Start with version 0 to get every order, then pass the returned version. A response " +
+                    "marked as a snapshot holds every order and replaces the client's copy"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Order changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OrderChangesDto.class))
+            ),
+            @ApiResponse(responseCode = "304", description = "Nothing changed since the version"),
+            @ApiResponse(responseCode = "400", description = "Invalid version")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/changes")
+    public ResponseEntity<?> getOrderChanges(@RequestParam(defaultValue = "0") long since) {
+        try {
+            return orderService.getOrderChanges(since)
+                    .<ResponseEntity<?>>map(changes -> ResponseUtil.successResponse(changes, "Order changes retrieved successfully"))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Get the items of several orders",
+            description = "Retrieves the items of each of the given orders in one request, keyed by order id, for " +
+                    "clients that show the details of several orders. Every requested order is in the result, with " +
+                    "no items if it has none or does not exist"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order items retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Too many orders requested")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/items")
+    public ResponseEntity<?> getOrderItems(@RequestParam List<Long> ids) {
+        try {
+            return ResponseUtil.successResponse(orderService.getItemsByOrderIds(ids), "Order items retrieved successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+    }
 
     @Operation(
             summary = "Get order status",
@@ -130,6 +224,38 @@ public class OrderController {
         }
     }
 
+    @Operation(
+            summary = "Stream order status",
+            description = "Server-sent events with the current status of the order first and every status change after it, " +
+                    "as \"status\" events. The STOMP topic /topic/orders/{orderId} carries the same changes"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Status stream opened",
+                    content = @Content(
+                            mediaType = "text/event-stream",
+                            schema = @Schema(implementation = OrderStatusEventDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "429", description = "The order has too many open status streams"),
+            @ApiResponse(responseCode = "503", description = "The server has too many open status streams")
+    })
+    @GetMapping("/{orderId}/status/stream")
+    public ResponseEntity<SseEmitter> streamOrderStatus(@PathVariable Long orderId) {
+        try {
+            return ResponseEntity.ok(orderStatusPublisher.openStream(orderId));
+        } catch (OrderNotFoundException e) {
+            // stream clients can not accept a JSON error body
+            return ResponseEntity.notFound().build();
+        } catch (TooManyStreamsException e) {
+            return ResponseEntity.status(e.isPerOrder() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
     @Operation(
             summary = "Update order status",
             description = "Updates the status of an existing order"
@@ -147,7 +273,7 @@ public class OrderController {
                                                UpdateOrderStatusDto updateOrderStatusDto) {
         try {
             Order updatedOrder = orderService.updateOrderStatus(orderId, updateOrderStatusDto.getOrderStatus());
-            return ResponseUtil.successResponse(updatedOrder, "Order status updated successfully");
+            return ResponseUtil.successResponse(OrderViewDto.fromOrder(updatedOrder), "Order status updated successfully");
         } catch (OrderNotFoundException e) {
             return ResponseUtil.notFoundResponse(e.getMessage());
         }
@@ -182,12 +308,12 @@ public class OrderController {
     @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved orders",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Order.class)))
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderViewDto.class)))
     )
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/status/{status}")
     public ResponseEntity<?> getOrdersByStatus(@PathVariable OrderStatus status) {
-        List<Order> orders = orderService.getOrdersByStatus(status);
+        List<OrderViewDto> orders = orderService.getOrdersByStatus(status);
         return ResponseUtil.successResponse(orders, "Orders retrieved successfully");
     }
 
@@ -205,7 +331,7 @@ public class OrderController {
     public ResponseEntity<?> getOrdersByPreparedBy(@PathVariable Long userId) {
         User preparedBy = userService.findUserById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User with id " + userId + " not found"));
-        List<Order> orders = orderService.getOrdersByPreparedBy(preparedBy);
+        List<OrderViewDto> orders = orderService.getOrdersByPreparedBy(preparedBy);
         return ResponseUtil.successResponse(orders, "Orders retrieved successfully");
     }
 
@@ -226,7 +352,7 @@ public class OrderController {
             @RequestBody UpdatePreparedByDto dto) {
         try {
             Order updatedOrder = orderService.updateOrderPreparedBy(orderId, dto.getUserName());
-            return ResponseUtil.successResponse(updatedOrder, "Order preparedBy updated successfully");
+            return ResponseUtil.successResponse(OrderViewDto.fromOrder(updatedOrder), "Order preparedBy updated successfully");
         } catch (OrderNotFoundException | EntityNotFoundException e) {
             return ResponseUtil.notFoundResponse(e.getMessage());
         }
@@ -0,0 +1,51 @@
+package com.food.backend.controller;
+
+import com.food.backend.dto.orderdtos.OrderStatusEventDto;
+import com.food.backend.exception.OrderNotFoundException;
+import com.food.backend.service.OrderStatusPublisher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Slf4j
+@Controller
+@Tag(name = "Order Status Events", description = "WebSocket endpoints for the status of single orders")
+public class OrderStatusEventController {
+    private final OrderStatusPublisher orderStatusPublisher;
+
+    public OrderStatusEventController(OrderStatusPublisher orderStatusPublisher) {
+        this.orderStatusPublisher = orderStatusPublisher;
+    }
+
+    @Operation(
+            summary = "Get the current status of an order",
+            description = "Subscribing to /app/orders/{orderId}/status replies once to the subscriber with the current status. " +
+                    "Subscribe to /topic/orders/{orderId} first to receive every change after it. Unknown orders get no reply"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Current status of the order",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderStatusEventDto.class)
+                    )
+            )
+    })
+    @SubscribeMapping("/orders/{orderId}/status")
+    public OrderStatusEventDto getCurrentStatus(@DestinationVariable Long orderId) {
+        try {
+            return orderStatusPublisher.getCurrentStatus(orderId);
+        } catch (OrderNotFoundException e) {
+            log.debug("Status subscription for unknown order {}", orderId);
+            return null;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.food.backend.controller;
 
+import com.food.backend.model.Enums.ExportFormat;
+import com.food.backend.model.Enums.ReportGranularity;
+import com.food.backend.service.OrderExportService;
 import com.food.backend.service.ReportService;
+import com.food.backend.utils.classes.ResponseUtil;
+import com.food.backend.utils.other.DateRange;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,11 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @RequestMapping("/api/reports")
 @RestController
@@ -21,12 +36,17 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Reports", description = "Endpoints for generating sales reports")
 public class ReportController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
     private final ReportService reportService;
+    private final OrderExportService orderExportService;
 
 
     @Autowired
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, OrderExportService orderExportService) {
         this.reportService = reportService;
+        this.orderExportService = orderExportService;
     }
 
     @GetMapping("/daily/json")
@@ -65,4 +85,91 @@ public class ReportController {
     public ResponseEntity<byte[]> generateWeeklyReport() {
         return reportService.generateWeeklyReport();
     }
+
+    @GetMapping("/json")
+    @Operation(
+            summary = "Generate report for a date range",
+            description = "Generates a report for any date range, widened to whole hours, with an optional hourly or daily series. Requires manager role",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report generated successfully",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"totalOrders\": 5, \"totalAmount\": 100.0, \"averageAmount\": 20.0, \"salesByCategory\": {\"RAMEN\": 3, \"UDON_NOODLES\": 2}, " +
+                                    "\"series\": [{\"bucketStart\": \"2024-06-15T00:00:00\", \"totalOrders\": 5, \"totalAmount\": 100.0}]}"))
+            ),
+            @ApiResponse(responseCode = "400", description = "Start is after end"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<?> generateReport(
+            @Parameter(description = "Start of the range", example = "2024-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End of the range", example = "2024-06-30T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "Adds a series of HOURLY or DAILY buckets to the report")
+            @RequestParam(required = false) ReportGranularity granularity) {
+        try {
+            return reportService.generateReport(new DateRange(start, end), granularity);
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @Operation(
+            summary = "Rebuild sales rollups",
+            description = "Recomputes the hourly sales rollups of a date range from the orders table, e.g. after orders were corrected in the database. Orders picked up before rollups existed are filled in automatically on the first start. Requires manager role",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups rebuilt successfully"),
+            @ApiResponse(responseCode = "400", description = "Start is after end"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        try {
+            int rows = reportService.rebuildRollups(new DateRange(start, end));
+            return ResponseUtil.successResponse(rows, "Sales rollups rebuilt successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export orders",
+            description = "Streams all orders placed in a date range with their items as CSV or newline-delimited JSON, one line per order item. Requires manager role",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export started",
+                    content = {
+                            @Content(mediaType = "text/csv", examples = @ExampleObject(value =
+                                    "order_id,order_time,status,order_type,email,board_code,order_total,order_item_id,menu_item_id,menu_item_name,category,quantity,item_total\n" +
+                                    "1001,2024-06-15T14:30,PICKED_UP,TAKE_OUT,customer@example.com,5,25.98,1,3,Tonkotsu Ramen,RAMEN,2,25.98")),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            @ApiResponse(responseCode = "400", description = "Start is after end"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "CSV or NDJSON")
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        DateRange dateRange;
+        try {
+            dateRange = new DateRange(start, end);
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequestResponse(e.getMessage());
+        }
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(dateRange, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders." + format.name().toLowerCase())
+                .body(body);
+    }
 }
@@ -1,6 +1,7 @@
 package com.food.backend.controller;
 
 import com.food.backend.dto.UserDto;
+import com.food.backend.dto.UserSummaryDto;
 import com.food.backend.model.User;
 import com.food.backend.service.UserService;
 
@@ -125,7 +126,7 @@ public class UserController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved all users",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = User.class)))
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserSummaryDto.class)))
             ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "403",
@@ -135,8 +136,8 @@ public class UserController {
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/")
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<ApiResponse<List<User>>> allUsers() {
-        List<User> users = userService.allUsers();
+    public ResponseEntity<ApiResponse<List<UserSummaryDto>>> allUsers() {
+        List<UserSummaryDto> users = userService.allUsers();
         return ResponseUtil.successResponse(users, "All users retrieved");
     }
 
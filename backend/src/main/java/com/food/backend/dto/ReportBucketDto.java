@@ -0,0 +1,21 @@
+package com.food.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Sales of one hour or one day of a report")
+public class ReportBucketDto {
+    @Schema(description = "Start of the bucket", example = "2024-06-15T12:00:00")
+    private LocalDateTime bucketStart;
+
+    @Schema(description = "Number of orders picked up in the bucket", example = "12")
+    private Number totalOrders;
+
+    @Schema(description = "Total amount of sales in the bucket", example = "210.40")
+    private Double totalAmount;
+}
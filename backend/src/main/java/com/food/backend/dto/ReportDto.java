@@ -1,8 +1,10 @@
 package com.food.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -21,4 +23,8 @@ public class ReportDto{
 
     @Schema(description = "Sales breakdown by category")
     private Map<String, Number> salesByCategory;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Sales per hour or per day, only present when a granularity was requested")
+    private List<ReportBucketDto> series;
 }
@@ -0,0 +1,25 @@
+package com.food.backend.dto;
+
+import com.food.backend.model.Role;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "User as returned by the user listing")
+public class UserSummaryDto {
+    @Schema(description = "Unique identifier for the user", example = "123")
+    private Long id;
+
+    @Schema(description = "Username", example = "johndoe")
+    private String username;
+
+    @Schema(description = "Indicates if the user is enabled", example = "true")
+    private boolean enabled;
+
+    @Schema(description = "User's roles")
+    private Set<Role> roles;
+}
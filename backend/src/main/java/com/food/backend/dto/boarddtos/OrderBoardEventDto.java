@@ -0,0 +1,21 @@
+package com.food.backend.dto.boarddtos;
+
+import com.food.backend.model.Enums.OrderBoardEventType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Single change of the order board, broadcast on /topic/orderBoard/events")
+public class OrderBoardEventDto {
+
+    @Schema(description = "Board sequence number after this change, increases by one per event", example = "42")
+    private long sequence;
+
+    @Schema(description = "Kind of change", example = "MOVED_TO_READY")
+    private OrderBoardEventType type;
+
+    @Schema(description = "Board code the change applies to", example = "17")
+    private String code;
+}
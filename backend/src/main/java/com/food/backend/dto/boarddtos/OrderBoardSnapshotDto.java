@@ -0,0 +1,22 @@
+package com.food.backend.dto.boarddtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Full order board state, events with a higher sequence apply on top of it")
+public class OrderBoardSnapshotDto {
+
+    @Schema(description = "Sequence number of the last event included in this snapshot", example = "41")
+    private long sequence;
+
+    @Schema(description = "Board codes of orders in preparation", example = "[\"4\", \"5\", \"6\"]")
+    private Set<String> liveOrderBoardCodes;
+
+    @Schema(description = "Board codes of orders ready for pickup", example = "[\"1\", \"2\", \"3\"]")
+    private Set<String> liveOrderBoardReadyCodes;
+}
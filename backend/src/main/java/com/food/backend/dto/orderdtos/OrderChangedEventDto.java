@@ -0,0 +1,15 @@
+package com.food.backend.dto.orderdtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Signal that an order was created, updated or deleted, broadcast on /topic/orderChanges once " +
+        "the change committed. Clients keeping a copy of the order list fetch GET /api/orders/changes on it")
+public class OrderChangedEventDto {
+
+    @Schema(description = "ID of the changed order", example = "1")
+    private Long orderId;
+}
@@ -0,0 +1,27 @@
+package com.food.backend.dto.orderdtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Orders created, updated or deleted since a change version")
+public class OrderChangesDto {
+
+    @Schema(description = "Version to ask for changes since next time", example = "1718454600000000")
+    private long version;
+
+    @Schema(description = "Whether the orders are every order, replacing the client's copy. Sent for version 0 and " +
+            "for versions older than the deleted orders are kept for")
+    private boolean snapshot;
+
+    @Schema(description = "Orders created or updated since the requested version, in their current state. " +
+            "Orders changed shortly before the request may be sent again in the next response")
+    private List<OrderViewDto> orders;
+
+    @Schema(description = "IDs of orders deleted since the requested version")
+    private List<Long> deletedOrderIds;
+}
@@ -0,0 +1,32 @@
+package com.food.backend.dto.orderdtos;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"orderId", "orderTime", "status", "orderType", "email", "boardCode", "orderTotal",
+        "orderItemId", "menuItemId", "menuItemName", "category", "quantity", "itemTotal"})
+@Schema(description = "One order item of the order export, with the columns of its order repeated")
+public class OrderExportRowDto {
+    private Long orderId;
+    private LocalDateTime orderTime;
+    private OrderStatus status;
+    private OrderType orderType;
+    private String email;
+    private String boardCode;
+    private Double orderTotal;
+    private Long orderItemId;
+    private Long menuItemId;
+    private String menuItemName;
+    private Category category;
+    private Integer quantity;
+    private Double itemTotal;
+}
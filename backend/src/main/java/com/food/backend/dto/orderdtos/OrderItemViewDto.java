@@ -0,0 +1,43 @@
+package com.food.backend.dto.orderdtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.OrderItem;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+@Getter
+@Schema(description = "Item of an order as returned by the order read endpoints")
+public class OrderItemViewDto {
+    @JsonIgnore
+    private final Long orderId;
+
+    @Schema(description = "Unique identifier of the order item", example = "1")
+    private final Long orderItemId;
+
+    @Schema(description = "The menu item ordered")
+    private final OrderedMenuItemDto item;
+
+    @Schema(description = "Quantity of the item ordered", example = "2")
+    private final Integer quantity;
+
+    @Schema(description = "Total price for this order item", example = "25.98")
+    private final double totalPrice;
+
+    public OrderItemViewDto(Long orderId, Long orderItemId, Integer quantity, double totalPrice,
+                            Long menuItemId, String menuItemName, Double menuItemPrice, Category category) {
+        this.orderId = orderId;
+        this.orderItemId = orderItemId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.item = new OrderedMenuItemDto(menuItemId, menuItemName, menuItemPrice, category);
+    }
+
+    public static OrderItemViewDto fromOrderItem(OrderItem orderItem) {
+        MenuItem menuItem = orderItem.getItem();
+        return new OrderItemViewDto(orderItem.getOrder().getOrderId(), orderItem.getOrderItemId(),
+                orderItem.getQuantity(), orderItem.getTotalPrice(),
+                menuItem.getId(), menuItem.getName(), menuItem.getPrice(), menuItem.getCategory());
+    }
+}
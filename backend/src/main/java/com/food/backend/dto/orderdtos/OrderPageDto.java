@@ -0,0 +1,18 @@
+package com.food.backend.dto.orderdtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "One page of the order listing, newest orders first")
+public class OrderPageDto {
+    @Schema(description = "Orders of the page including their items")
+    private List<OrderViewDto> orders;
+
+    @Schema(description = "Cursor of the next page, null on the last page", example = "MjAyNC0wNi0xNVQxNDozMHwxMDAx")
+    private String nextCursor;
+}
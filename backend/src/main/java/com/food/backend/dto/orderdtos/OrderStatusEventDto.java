@@ -0,0 +1,34 @@
+package com.food.backend.dto.orderdtos;
+
+import com.food.backend.model.Enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Status of a single order, pushed on /topic/orders/{orderId} and the order's status stream")
+public class OrderStatusEventDto {
+
+    @Schema(description = "ID of the order", example = "1")
+    private Long orderId;
+
+    @Schema(description = "Status of the order", example = "READY_FOR_PICKUP")
+    private OrderStatus status;
+
+    @Schema(description = "Change version of the order with this status, increasing with every change. Events with " +
+            "a version at or below one already received are stale", example = "1718454600000000")
+    private long version;
+
+    @Schema(description = "When the status was sent", example = "2024-01-01T12:00:00")
+    private LocalDateTime sentAt;
+
+    /**
+     * @param changeVersion the order's change version, null for orders last changed before versions were kept
+     */
+    public OrderStatusEventDto(Long orderId, OrderStatus status, Long changeVersion) {
+        this(orderId, status, changeVersion != null ? changeVersion : 0, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,76 @@
+package com.food.backend.dto.orderdtos;
+
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.Order;
+import com.food.backend.model.User;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read model of an order. Built straight from a query with a constructor expression, so no
+ * entity, preparer roles or menu item details are loaded to answer a read.
+ */
+@Getter
+@Schema(description = "Order with its items as returned by the order read endpoints")
+public class OrderViewDto {
+    @Schema(description = "Unique identifier of the order", example = "1001")
+    private final Long orderId;
+
+    @Schema(description = "Employee who prepared the order")
+    private final PreparedByDto preparedBy;
+
+    @Schema(description = "Current status of the order")
+    private final OrderStatus status;
+
+    @Schema(description = "Type of the order")
+    private final OrderType orderType;
+
+    @Schema(description = "Total price of the order", example = "25.99")
+    private final Double totalPrice;
+
+    @Schema(description = "Time when the order was placed", example = "2023-06-15T14:30:00")
+    private final LocalDateTime orderTime;
+
+    @Schema(description = "Code for the board/table", example = "05")
+    private final String boardCode;
+
+    @Schema(description = "Email of the customer", example = "customer@example.com")
+    private final String email;
+
+    @Setter
+    @Schema(description = "List of items in the order")
+    private List<OrderItemViewDto> orderItems = List.of();
+
+    public OrderViewDto(Long orderId, OrderStatus status, OrderType orderType, Double totalPrice,
+                        LocalDateTime orderTime, String boardCode, String email,
+                        Long preparedById, String preparedByUsername) {
+        this.orderId = orderId;
+        this.status = status;
+        this.orderType = orderType;
+        this.totalPrice = totalPrice;
+        this.orderTime = orderTime;
+        this.boardCode = boardCode;
+        this.email = email;
+        this.preparedBy = preparedById == null ? null : new PreparedByDto(preparedById, preparedByUsername);
+    }
+
+    /**
+     * Builds the view of an order loaded with {@link Order#WITH_ITEMS_AND_PREPARER}.
+     */
+    public static OrderViewDto fromOrder(Order order) {
+        Optional<User> preparedBy = Optional.ofNullable(order.getPreparedBy());
+        OrderViewDto view = new OrderViewDto(order.getOrderId(), order.getStatus(), order.getOrderType(),
+                order.getTotalPrice(), order.getOrderTime(), order.getBoardCode(), order.getEmail(),
+                preparedBy.map(User::getId).orElse(null), preparedBy.map(User::getUsername).orElse(null));
+        view.setOrderItems(Optional.ofNullable(order.getOrderItems()).orElse(List.of()).stream()
+                .map(OrderItemViewDto::fromOrderItem)
+                .toList());
+        return view;
+    }
+}
@@ -0,0 +1,23 @@
+package com.food.backend.dto.orderdtos;
+
+import com.food.backend.model.Enums.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Menu item of an order item, without its description and photo")
+public class OrderedMenuItemDto {
+    @Schema(description = "Unique identifier of the menu item", example = "1")
+    private Long id;
+
+    @Schema(description = "Name of the menu item", example = "Margherita Pizza")
+    private String name;
+
+    @Schema(description = "Current price of the menu item", example = "12.99")
+    private Double price;
+
+    @Schema(description = "Category of the menu item")
+    private Category category;
+}
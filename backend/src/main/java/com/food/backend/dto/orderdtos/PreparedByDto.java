@@ -0,0 +1,16 @@
+package com.food.backend.dto.orderdtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Employee who prepared an order")
+public class PreparedByDto {
+    @Schema(description = "Unique identifier of the user", example = "101")
+    private Long id;
+
+    @Schema(description = "Username", example = "johndoe")
+    private String username;
+}
@@ -0,0 +1,17 @@
+package com.food.backend.exception;
+
+public class TooManyStreamsException extends RuntimeException {
+    private final boolean perOrder;
+
+    public TooManyStreamsException(String message, boolean perOrder) {
+        super(message);
+        this.perOrder = perOrder;
+    }
+
+    /**
+     * @return whether the order's own limit was reached, rather than the limit of the whole instance
+     */
+    public boolean isPerOrder() {
+        return perOrder;
+    }
+}
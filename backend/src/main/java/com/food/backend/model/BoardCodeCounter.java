@@ -0,0 +1,25 @@
+package com.food.backend.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "board_code_counters")
+@Schema(description = "Cluster-wide counter that board code blocks are reserved from")
+public class BoardCodeCounter {
+    @Id
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    public BoardCodeCounter(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,8 @@
+package com.food.backend.model.Enums;
+
+public enum OrderBoardEventType {
+    ADDED,
+    MOVED_TO_READY,
+    MOVED_TO_LIVE,
+    REMOVED
+}
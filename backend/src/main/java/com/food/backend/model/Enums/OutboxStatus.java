@@ -0,0 +1,8 @@
+package com.food.backend.model.Enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
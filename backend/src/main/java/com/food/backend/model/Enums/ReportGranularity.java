@@ -0,0 +1,6 @@
+package com.food.backend.model.Enums;
+
+public enum ReportGranularity {
+    HOURLY,
+    DAILY
+}
@@ -0,0 +1,46 @@
+package com.food.backend.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "hourly_sales_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hourly_sales_rollups_bucket", columnNames = {"bucket_start", "category"}))
+@Schema(description = "Picked up orders aggregated per hour, once for all categories and once per category")
+public class HourlySalesRollup {
+    /** Category value of the row that holds whole-order totals. */
+    public static final String ALL_CATEGORIES = "ALL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hourly_sales_rollups_seq")
+    @SequenceGenerator(name = "hourly_sales_rollups_seq", sequenceName = "hourly_sales_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 32)
+    private String category;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "items_sold", nullable = false)
+    private long itemsSold;
+
+    @Column(name = "sales_amount", nullable = false)
+    private double salesAmount;
+
+    public HourlySalesRollup(LocalDateTime bucketStart, String category) {
+        this.bucketStart = bucketStart;
+        this.category = category;
+    }
+}
@@ -18,7 +18,8 @@ import lombok.Setter;
 @Schema(description = "Entity representing a menu item")
 public class MenuItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_seq")
+    @SequenceGenerator(name = "menu_items_seq", sequenceName = "menu_items_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the menu item", example = "1")
     private Long Id;
 
@@ -1,8 +1,10 @@
 package com.food.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.food.backend.model.Enums.OrderStatus;
 import com.food.backend.model.Enums.OrderType;
+import com.food.backend.utils.other.ChangeVersion;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -16,15 +18,33 @@ import java.util.List;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_time_order_id", columnList = "order_time, orderId"),
+        @Index(name = "idx_orders_change_version", columnList = "change_version")
+})
 @Schema(description = "Entity representing an order")
+@NamedEntityGraph(
+        name = Order.WITH_ITEMS_AND_PREPARER,
+        attributeNodes = {
+                @NamedAttributeNode(value = "orderItems", subgraph = "orderItems"),
+                @NamedAttributeNode("preparedBy")
+        },
+        subgraphs = @NamedSubgraph(name = "orderItems", attributeNodes = @NamedAttributeNode("item"))
+)
 public class Order {
+    /**
+     * Everything an {@link com.food.backend.dto.orderdtos.OrderViewDto} is built from. The roles
+     * of the preparer are left out: joined next to the items they would repeat every item.
+     */
+    public static final String WITH_ITEMS_AND_PREPARER = "Order.withItemsAndPreparer";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the order", example = "1001")
     private Long orderId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = true)
     @Schema(description = "Employee who prepared the order")
     private User preparedBy;
@@ -60,4 +80,17 @@ public class Order {
     @JsonManagedReference
     private List<OrderItem> orderItems;
 
+    /**
+     * Version of the last change, see {@link ChangeVersion}. Null for orders last changed before
+     * versions were kept.
+     */
+    @Column(name = "change_version")
+    @JsonIgnore
+    private Long changeVersion;
+
+    @PrePersist
+    @PreUpdate
+    void updateChangeVersion() {
+        changeVersion = ChangeVersion.next();
+    }
 }
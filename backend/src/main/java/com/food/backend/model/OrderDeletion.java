@@ -0,0 +1,24 @@
+package com.food.backend.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_deletions", indexes = @Index(name = "idx_order_deletions_change_version", columnList = "change_version"))
+@Schema(description = "Record of a deleted order, so the order change feed can report the deletion")
+public class OrderDeletion {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+}
@@ -19,7 +19,13 @@ import java.util.stream.Collectors;
 @Setter
 @NoArgsConstructor
 @Schema(description = "User entity")
+@NamedEntityGraph(name = User.WITH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 public class User implements UserDetails {
+    /**
+     * Roles are needed for the authorities of every authenticated request.
+     */
+    public static final String WITH_ROLES = "User.withRoles";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Schema(description = "Unique identifier for the user", example = "123e4567-e89b-12d3-a456-426614174000")
@@ -38,7 +44,7 @@ public class User implements UserDetails {
     @Schema(description = "Indicates if the user is enabled", example = "true")
     private boolean enabled;
 
-    @ElementCollection(fetch = FetchType.EAGER) //
+    @ElementCollection
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
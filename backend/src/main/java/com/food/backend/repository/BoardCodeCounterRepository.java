@@ -0,0 +1,19 @@
+package com.food.backend.repository;
+
+import com.food.backend.model.BoardCodeCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BoardCodeCounterRepository extends JpaRepository<BoardCodeCounter, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BoardCodeCounter c WHERE c.name = :name")
+    Optional<BoardCodeCounter> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,54 @@
+package com.food.backend.repository;
+
+import com.food.backend.model.HourlySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlySalesRollupRepository extends JpaRepository<HourlySalesRollup, Long> {
+
+    /**
+     * Creates an empty row unless it exists, inside the caller's transaction. A concurrent insert of the same
+     * row makes this wait for that transaction instead of failing. The id is the high end of a pooled range
+     * of the sequence, so it never collides with ids Hibernate allocates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hourly_sales_rollups (id, bucket_start, category, order_count, items_sold, sales_amount) " +
+            "VALUES (nextval('hourly_sales_rollups_seq'), :bucketStart, :category, 0, 0, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfMissing(@Param("bucketStart") LocalDateTime bucketStart, @Param("category") String category);
+
+    // applied in the database so concurrent pickups in the same hour never overwrite each other; never
+    // below zero, so taking out an order that was never counted cannot make a report negative
+    @Modifying
+    @Query("UPDATE HourlySalesRollup r SET " +
+            "r.orderCount = CASE WHEN r.orderCount + :orders < 0 THEN 0 ELSE r.orderCount + :orders END, " +
+            "r.itemsSold = CASE WHEN r.itemsSold + :items < 0 THEN 0 ELSE r.itemsSold + :items END, " +
+            "r.salesAmount = CASE WHEN r.salesAmount + :amount < 0 THEN 0.0 ELSE r.salesAmount + :amount END " +
+            "WHERE r.bucketStart = :bucketStart AND r.category = :category")
+    int increment(
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("category") String category,
+            @Param("orders") long orders,
+            @Param("items") long items,
+            @Param("amount") double amount
+    );
+
+    @Query("SELECT r.category, SUM(r.orderCount), SUM(r.itemsSold), SUM(r.salesAmount) FROM HourlySalesRollup r " +
+            "WHERE r.bucketStart BETWEEN :start AND :end GROUP BY r.category")
+    List<Object[]> summarizeByCategory(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT r FROM HourlySalesRollup r WHERE r.category = '" + HourlySalesRollup.ALL_CATEGORIES + "' " +
+            "AND r.bucketStart BETWEEN :start AND :end AND r.orderCount <> 0 ORDER BY r.bucketStart")
+    List<HourlySalesRollup> findOrderTotals(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("DELETE FROM HourlySalesRollup r WHERE r.bucketStart BETWEEN :start AND :end")
+    int deleteByBucketStartBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,21 @@
+package com.food.backend.repository;
+
+import com.food.backend.model.OrderDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderDeletionRepository extends JpaRepository<OrderDeletion, Long> {
+
+    @Query("SELECT d.orderId FROM OrderDeletion d WHERE d.changeVersion > :since")
+    List<Long> findOrderIdsDeletedAfter(@Param("since") long since);
+
+    @Modifying
+    @Query("DELETE FROM OrderDeletion d WHERE d.changeVersion < :before")
+    int deleteByChangeVersionBefore(@Param("before") long before);
+}
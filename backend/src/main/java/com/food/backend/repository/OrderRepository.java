@@ -1,57 +1,93 @@
 package com.food.backend.repository;
 
+import com.food.backend.dto.orderdtos.OrderExportRowDto;
+import com.food.backend.dto.orderdtos.OrderItemViewDto;
+import com.food.backend.dto.orderdtos.OrderStatusEventDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
 import com.food.backend.model.Enums.OrderStatus;
 import com.food.backend.model.Order;
-import com.food.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface OrderRepository extends CrudRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
-    List<Order> getOrdersByStatus(OrderStatus status);
-    List<Order> getOrdersByPreparedBy(User preparedBy);
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems")
-    List<Order> findAllWithItems();
+    @EntityGraph(Order.WITH_ITEMS_AND_PREPARER)
+    Optional<Order> findWithItemsByOrderId(Long orderId);
 
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems ORDER BY o.orderId DESC")
-    List<Order> findAllWithItemsOrderByOrderId();
+    @Query("SELECT new com.food.backend.dto.orderdtos.OrderViewDto(o.orderId, o.status, o.orderType, o.totalPrice, " +
+            "o.orderTime, o.boardCode, o.email, pb.id, pb.username) " +
+            "FROM Order o " +
+            "LEFT JOIN o.preparedBy pb " +
+            "WHERE o.orderId = :orderId")
+    Optional<OrderViewDto> findOrderViewById(@Param("orderId") Long orderId);
 
+    @Query("SELECT new com.food.backend.dto.orderdtos.OrderItemViewDto(o.orderId, oi.orderItemId, oi.quantity, " +
+            "oi.totalPrice, mi.Id, mi.name, mi.price, mi.category) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.order o " +
+            "JOIN oi.item mi " +
+            "WHERE o.orderId IN :orderIds " +
+            "ORDER BY oi.orderItemId")
+    List<OrderItemViewDto> findItemViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
-    Number countOrderByOrderTimeBetweenAndStatus(LocalDateTime start, LocalDateTime end, OrderStatus status);
-    @Query("SELECT AVG(o.totalPrice) FROM Order o WHERE o.orderTime BETWEEN :start AND :end AND o.status = :status")
-    Double averageTotalPriceByOrderTimeBetweenAndStatus(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("status") OrderStatus status
-    );
-    @Query("SELECT SUM(o.totalPrice) FROM Order o WHERE o.orderTime BETWEEN :start AND :end AND o.status = :status")
-    Double sumTotalPriceByOrderTimeBetweenAndStatus(
+    @Query("SELECT MIN(o.orderTime) FROM Order o")
+    Optional<LocalDateTime> findFirstOrderTime();
+
+    @Query("SELECT MAX(o.orderTime) FROM Order o")
+    Optional<LocalDateTime> findLastOrderTime();
+
+    @Query("SELECT o.orderTime, o.totalPrice FROM Order o " +
+            "WHERE o.status = :status AND o.orderTime BETWEEN :start AND :end")
+    List<Object[]> findOrderTotals(
+            @Param("status") OrderStatus status,
             @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("status") OrderStatus status
+            @Param("end") LocalDateTime end
     );
-//
-    @Query("SELECT mi.category, SUM(oi.quantity) " +
+
+    @Query("SELECT o.orderTime, mi.category, oi.quantity, oi.totalPrice, o.orderId " +
             "FROM OrderItem oi " +
             "JOIN oi.item mi " +
             "JOIN oi.order o " +
-            "WHERE o.status = :status AND o.orderTime BETWEEN :start AND :end " +
-            "GROUP BY mi.category")
-    List<Object[]> countItemsSoldByCategory(
+            "WHERE o.status = :status AND o.orderTime BETWEEN :start AND :end")
+    List<Object[]> findItemTotals(
             @Param("status") OrderStatus status,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
     );
 
+    // scalar rows in a forward-only cursor, so an export never holds more than one fetch in memory
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.food.backend.dto.orderdtos.OrderExportRowDto(o.orderId, o.orderTime, o.status, o.orderType, " +
+            "o.email, o.boardCode, o.totalPrice, oi.orderItemId, mi.Id, mi.name, mi.category, oi.quantity, oi.totalPrice) " +
+            "FROM Order o " +
+            "LEFT JOIN o.orderItems oi " +
+            "LEFT JOIN oi.item mi " +
+            "WHERE o.orderTime BETWEEN :start AND :end " +
+            "ORDER BY o.orderId, oi.orderItemId")
+    Stream<OrderExportRowDto> streamExportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     @Query("SELECT o.status FROM Order o WHERE o.orderId = :orderId")
     Optional<OrderStatus> findStatusById(@Param("orderId") Long orderId);
 
+    @Query("SELECT new com.food.backend.dto.orderdtos.OrderStatusEventDto(o.orderId, o.status, o.changeVersion) " +
+            "FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderStatusEventDto> findStatusEventById(@Param("orderId") Long orderId);
+
 }
@@ -0,0 +1,28 @@
+package com.food.backend.repository;
+
+import com.food.backend.dto.orderdtos.OrderViewDto;
+import com.food.backend.utils.other.OrderCursor;
+import com.food.backend.utils.other.OrderFilter;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Orders matching the filter, newest first, that come after the cursor, without their items.
+     * Seeks on (order_time, order_id) so a page costs the same wherever it is in the listing.
+     *
+     * @param after last order of the previous page, or null for the first page
+     */
+    List<OrderViewDto> findOrderViews(OrderFilter filter, OrderCursor after, int limit);
+
+    /**
+     * All orders matching the filter, newest first, without their items.
+     */
+    List<OrderViewDto> findOrderViews(OrderFilter filter);
+
+    /**
+     * Orders whose last change has a higher version, newest first, without their items.
+     */
+    List<OrderViewDto> findOrderViewsChangedAfter(long version);
+}
@@ -0,0 +1,83 @@
+package com.food.backend.repository;
+
+import com.food.backend.dto.orderdtos.OrderViewDto;
+import com.food.backend.model.Order;
+import com.food.backend.model.User;
+import com.food.backend.utils.other.OrderCursor;
+import com.food.backend.utils.other.OrderFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderViewDto> findOrderViews(OrderFilter filter, OrderCursor after, int limit) {
+        return createQuery(filter, after, null)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<OrderViewDto> findOrderViews(OrderFilter filter) {
+        return createQuery(filter, null, null).getResultList();
+    }
+
+    @Override
+    public List<OrderViewDto> findOrderViewsChangedAfter(long version) {
+        return createQuery(new OrderFilter(null, null, null, null, null), null, version).getResultList();
+    }
+
+    private TypedQuery<OrderViewDto> createQuery(OrderFilter filter, OrderCursor after, Long changedAfter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderViewDto> query = cb.createQuery(OrderViewDto.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, User> preparedBy = order.join("preparedBy", JoinType.LEFT);
+        // only the criteria that were given end up in the SQL, so the planner can use the index
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            predicates.add(order.get("status").in(filter.statuses()));
+        }
+        if (filter.orderType() != null) {
+            predicates.add(cb.equal(order.get("orderType"), filter.orderType()));
+        }
+        if (filter.preparedById() != null) {
+            predicates.add(cb.equal(preparedBy.get("id"), filter.preparedById()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<LocalDateTime>get("orderTime"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.<LocalDateTime>get("orderTime"), filter.to()));
+        }
+        if (changedAfter != null) {
+            predicates.add(cb.greaterThan(order.<Long>get("changeVersion"), changedAfter));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(order.<LocalDateTime>get("orderTime"), after.orderTime()),
+                    cb.and(cb.equal(order.get("orderTime"), after.orderTime()),
+                            cb.lessThan(order.<Long>get("orderId"), after.orderId()))));
+        }
+        query.select(cb.construct(OrderViewDto.class,
+                        order.get("orderId"), order.get("status"), order.get("orderType"), order.get("totalPrice"),
+                        order.get("orderTime"), order.get("boardCode"), order.get("email"),
+                        preparedBy.get("id"), preparedBy.get("username")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(order.get("orderTime")), cb.desc(order.get("orderId")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -0,0 +1,31 @@
+package com.food.backend.repository;
+
+import com.food.backend.model.Enums.OutboxStatus;
+import com.food.backend.model.OutboxEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // lock timeout -2 is Hibernate's SKIP LOCKED, so concurrent dispatchers never claim the same row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEmail e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<OutboxEmail> findDueForUpdate(
+            @Param("statuses") Collection<OutboxStatus> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,9 @@
+package com.food.backend.repository;
+
+import com.food.backend.model.SalesRollupBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SalesRollupBackfillRepository extends JpaRepository<SalesRollupBackfill, String> {
+}
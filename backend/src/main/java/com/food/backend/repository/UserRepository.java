@@ -1,12 +1,24 @@
 package com.food.backend.repository;
 
 import com.food.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Long> {
+    @EntityGraph(User.WITH_ROLES)
     Optional<User> findByUsername(String username);
+
+    @Override
+    @EntityGraph(User.WITH_ROLES)
+    Optional<User> findById(Long id);
+
+    // one row per role, so the users and their roles come back in a single query
+    @Query("SELECT u.id, u.username, u.enabled, r FROM User u LEFT JOIN u.roles r ORDER BY u.id")
+    List<Object[]> findAllWithRoles();
 }
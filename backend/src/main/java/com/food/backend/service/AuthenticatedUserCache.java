@@ -0,0 +1,98 @@
+package com.food.backend.service;
+
+import com.food.backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Users already authenticated by a token, so requests carrying a verified token skip loading the
+ * user and its roles. Holds at most {@code maxSize} tokens, least recently used first out, each for
+ * the TTL or until the token expires, whichever comes first.
+ * <p>
+ * Changes made on this instance evict the user's tokens once they commit. Changes made through
+ * another instance apply here once the cached entries expire.
+ */
+@Service
+public class AuthenticatedUserCache {
+    private final long ttlMs;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public AuthenticatedUserCache(@Value("${security.jwt.principal-cache.ttl-ms:60000}") long ttlMs,
+                                  @Value("${security.jwt.principal-cache.max-size:10000}") int maxSize) {
+        this(ttlMs, maxSize, Clock.systemUTC());
+    }
+
+    public AuthenticatedUserCache(long ttlMs, int maxSize, Clock clock) {
+        if (ttlMs < 0 || maxSize < 0) {
+            throw new IllegalArgumentException("Principal cache TTL and size must not be negative");
+        }
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AuthenticatedUserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the user the token was verified for, or null if it is not cached
+     */
+    public synchronized User get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(token);
+            return null;
+        }
+        return entry.user();
+    }
+
+    public synchronized void put(String token, User user, Instant tokenExpiresAt) {
+        Instant expiresAt = clock.instant().plusMillis(ttlMs);
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+            expiresAt = tokenExpiresAt;
+        }
+        entries.put(token, new Entry(user, expiresAt));
+    }
+
+    /**
+     * Evicts every token of the user, after the surrounding transaction commits if there is one,
+     * so a concurrent request can not cache the old state again.
+     */
+    public void evictUser(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeUser(userId);
+            }
+        });
+    }
+
+    private synchronized void removeUser(Long userId) {
+        entries.values().removeIf(entry -> Objects.equals(entry.user().getId(), userId));
+    }
+
+    private record Entry(User user, Instant expiresAt) {
+    }
+}
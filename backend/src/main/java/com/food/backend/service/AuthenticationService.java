@@ -20,11 +20,13 @@ public class AuthenticationService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
-    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager) {
+    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Transactional
@@ -56,7 +58,9 @@ public class AuthenticationService {
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             user.setRoles(roles);
-            return Optional.of(userRepository.save(user));
+            User savedUser = userRepository.save(user);
+            authenticatedUserCache.evictUser(savedUser.getId());
+            return Optional.of(savedUser);
         }
         return Optional.empty();
     }
@@ -0,0 +1,129 @@
+package com.food.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out board numbers that are unique across all backend instances. Numbers are taken from
+ * a block reserved in the database, so only one allocation per block needs a round trip. The next
+ * block is reserved in the background once half of the current one is used.
+ */
+@Slf4j
+@Component
+public class BoardCodeAllocator {
+    private final BoardCodeCounterService boardCodeCounterService;
+    private final int blockSize;
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(Block.EXHAUSTED);
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-code-reserver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<Block> nextBlock;
+
+    public BoardCodeAllocator(BoardCodeCounterService boardCodeCounterService,
+                              @Value("${order-board.code-block-size:10}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Board code block size must be positive");
+        }
+        this.boardCodeCounterService = boardCodeCounterService;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Reserves the first block before requests arrive, so orders never wait for the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reserveFirstBlock() {
+        prefetch().join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reserver.shutdownNow();
+    }
+
+    public long nextNumber() {
+        while (true) {
+            Block block = currentBlock.get();
+            long number = block.next.getAndIncrement();
+            if (number < block.end) {
+                if (number == block.prefetchAt) {
+                    prefetch();
+                }
+                return number;
+            }
+            advance(block);
+        }
+    }
+
+    /**
+     * Switches to the reserved block, waiting for its reservation only if the current block ran out first.
+     */
+    private void advance(Block exhausted) {
+        CompletableFuture<Block> reserved;
+        synchronized (this) {
+            if (currentBlock.get() != exhausted) {
+                return;
+            }
+            reserved = prefetch();
+        }
+        Block block = reserved.join();
+        synchronized (this) {
+            if (currentBlock.get() == exhausted) {
+                currentBlock.set(block);
+                nextBlock = null;
+            }
+        }
+    }
+
+    /**
+     * Starts reserving the next block on the reserver thread, unless that is already under way. The
+     * reservation never runs on a request thread, which already holds a connection for its own
+     * transaction and would need a second one.
+     */
+    private synchronized CompletableFuture<Block> prefetch() {
+        if (nextBlock == null || nextBlock.isCompletedExceptionally()) {
+            nextBlock = CompletableFuture.supplyAsync(() -> {
+                long start = reserveBlock();
+                log.debug("Reserved board numbers {} to {}", start, start + blockSize - 1);
+                return new Block(start, start + blockSize);
+            }, reserver);
+        }
+        return nextBlock;
+    }
+
+    private long reserveBlock() {
+        try {
+            return boardCodeCounterService.reserveBlock(blockSize);
+        } catch (DataIntegrityViolationException e) {
+            // two instances created the counter row at the same time, the row exists now
+            return boardCodeCounterService.reserveBlock(blockSize);
+        }
+    }
+
+    private static final class Block {
+        static final Block EXHAUSTED = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+        final long prefetchAt;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = start + (end - start) / 2;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.food.backend.service;
+
+import com.food.backend.model.BoardCodeCounter;
+import com.food.backend.repository.BoardCodeCounterRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reserves blocks of board numbers from a row in the database, so every backend instance
+ * draws from the same sequence.
+ */
+@Service
+public class BoardCodeCounterService {
+    static final String COUNTER_NAME = "order-board";
+
+    private final BoardCodeCounterRepository boardCodeCounterRepository;
+
+    public BoardCodeCounterService(BoardCodeCounterRepository boardCodeCounterRepository) {
+        this.boardCodeCounterRepository = boardCodeCounterRepository;
+    }
+
+    /**
+     * Reserves {@code size} consecutive numbers and returns the first one. Runs in its own
+     * transaction so the row lock is released right away; {@link BoardCodeAllocator} calls it
+     * from its own thread, never from inside an order's transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(int size) {
+        BoardCodeCounter counter = boardCodeCounterRepository.findForUpdate(COUNTER_NAME)
+                .orElseGet(() -> boardCodeCounterRepository.saveAndFlush(new BoardCodeCounter(COUNTER_NAME)));
+        long start = counter.getNextValue();
+        counter.setNextValue(start + size);
+        return start;
+    }
+}
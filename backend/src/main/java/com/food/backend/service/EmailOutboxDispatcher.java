@@ -0,0 +1,103 @@
+package com.food.backend.service;
+
+import com.food.backend.model.OutboxEmail;
+import com.food.backend.utils.other.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drains the email outbox on a bounded pool of sender threads. SMTP failures are retried with
+ * backoff by {@link EmailOutboxService}; repeated failures open a circuit breaker that pauses
+ * delivery so a dead mail server is not hammered.
+ * <p>
+ * The pool is private to the dispatcher rather than a bean, so it does not replace the application
+ * task executor Spring Boot provides for MVC async requests.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final ThreadPoolTaskExecutor emailOutboxExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final int batchSize;
+
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                                 EmailService emailService,
+                                 @Value("${email.outbox.workers:4}") int workers,
+                                 @Value("${email.outbox.batch-size:20}") int batchSize,
+                                 @Value("${email.outbox.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                 @Value("${email.outbox.circuit-breaker.open-duration-ms:60000}") long openDurationMs) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+        this.emailOutboxExecutor = createExecutor(workers, batchSize);
+        this.batchSize = batchSize;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMs));
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int workers, int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emailOutboxExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatchDueEmails() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        // after the open period only a single trial email goes out
+        int limit = circuitBreaker.getState() == CircuitBreaker.State.CLOSED ? batchSize : 1;
+        int capacity = Math.min(limit, emailOutboxExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+        List<OutboxEmail> emails = emailOutboxService.claimDueEmails(capacity);
+        for (OutboxEmail email : emails) {
+            try {
+                emailOutboxExecutor.execute(() -> deliver(email));
+            } catch (TaskRejectedException e) {
+                emailOutboxService.release(email.getId());
+            }
+        }
+    }
+
+    private void deliver(OutboxEmail email) {
+        if (!circuitBreaker.allowRequest()) {
+            emailOutboxService.release(email.getId());
+            return;
+        }
+        try {
+            emailService.sendEmail(email.getRecipient(), email.getSubject(), email.getBody());
+            circuitBreaker.recordSuccess();
+            emailOutboxService.markSent(email.getId());
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            log.warn("Failed to send email {} to {}: {}", email.getId(), email.getRecipient(), e.getMessage());
+            emailOutboxService.markFailed(email.getId(), e.getMessage());
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+}
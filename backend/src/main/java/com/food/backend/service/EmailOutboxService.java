@@ -0,0 +1,125 @@
+package com.food.backend.service;
+
+import com.food.backend.dto.orderdtos.OrderDto;
+import com.food.backend.model.Enums.OutboxStatus;
+import com.food.backend.model.OutboxEmail;
+import com.food.backend.repository.OutboxEmailRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Transactional outbox for outgoing emails. Emails are written in the caller's transaction
+ * and delivered later by {@link EmailOutboxDispatcher}, so a request never waits on SMTP.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailService emailService;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    public EmailOutboxService(OutboxEmailRepository outboxEmailRepository,
+                              EmailService emailService,
+                              @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${email.outbox.initial-backoff-ms:5000}") long initialBackoffMs,
+                              @Value("${email.outbox.max-backoff-ms:600000}") long maxBackoffMs,
+                              @Value("${email.outbox.claim-timeout-ms:300000}") long claimTimeoutMs) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailService = emailService;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+    }
+
+    @Transactional
+    public OutboxEmail enqueueOrderConfirmation(String recipient, OrderDto order) {
+        OutboxEmail email = new OutboxEmail(
+                recipient,
+                emailService.buildEmailSubject(order),
+                emailService.getOrderConfirmationEmailBody(order)
+        );
+        return outboxEmailRepository.save(email);
+    }
+
+    /**
+     * Claims up to {@code limit} due emails for delivery. Claimed rows are marked SENDING and
+     * become due again after the claim timeout, so emails held by a crashed worker are retried.
+     */
+    @Transactional
+    public List<OutboxEmail> claimDueEmails(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> emails = outboxEmailRepository.findDueForUpdate(
+                EnumSet.of(OutboxStatus.PENDING, OutboxStatus.SENDING),
+                now,
+                PageRequest.of(0, limit)
+        );
+        emails.forEach(email -> {
+            email.setStatus(OutboxStatus.SENDING);
+            email.setNextAttemptAt(now.plus(claimTimeout));
+        });
+        return emails;
+    }
+
+    @Transactional
+    public void markSent(Long id) {
+        outboxEmailRepository.findById(id).ifPresent(email -> {
+            email.setStatus(OutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        });
+    }
+
+    @Transactional
+    public void markFailed(Long id, String error) {
+        outboxEmailRepository.findById(id).ifPresent(email -> {
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(error));
+            if (attempts >= maxAttempts) {
+                email.setStatus(OutboxStatus.FAILED);
+                log.warn("Giving up on email {} to {} after {} attempts: {}", id, email.getRecipient(), attempts, error);
+            } else {
+                email.setStatus(OutboxStatus.PENDING);
+                email.setNextAttemptAt(LocalDateTime.now().plus(backoffFor(attempts)));
+            }
+        });
+    }
+
+    /**
+     * Hands a claimed email back without counting an attempt, e.g. when the circuit is open.
+     */
+    @Transactional
+    public void release(Long id) {
+        outboxEmailRepository.findById(id).ifPresent(email -> {
+            email.setStatus(OutboxStatus.PENDING);
+            email.setNextAttemptAt(LocalDateTime.now());
+        });
+    }
+
+    public Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -22,28 +22,32 @@ public class EmailService {
 
 
     public void sendOrderConfirmationEmail(String recipient, OrderDto order) throws MessagingException {
-        MimeMessage message = createEmailMessage(recipient, order);
+        sendEmail(recipient, buildEmailSubject(order), getOrderConfirmationEmailBody(order));
+    }
+
+    public void sendEmail(String recipient, String subject, String htmlBody) throws MessagingException {
+        MimeMessage message = createEmailMessage(recipient, subject, htmlBody);
         emailSender.send(message);
     }
 
-    private MimeMessage createEmailMessage(String recipient, OrderDto order) throws MessagingException {
+    private MimeMessage createEmailMessage(String recipient, String subject, String htmlBody) throws MessagingException {
 
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true); // true indicates multipart message
 
         helper.setTo(recipient);
-        helper.setSubject(buildEmailSubject(order));
-        helper.setText(getOrderConfirmationEmailBody(order), true); // true indicates html
+        helper.setSubject(subject);
+        helper.setText(htmlBody, true); // true indicates html
 
         return message;
     }
 
-    private String buildEmailSubject(OrderDto order) {
+    public String buildEmailSubject(OrderDto order) {
         return String.format("SLURP - Order Confirmation: %s", order.getOrderId());
     }
 
 
-    private String getOrderConfirmationEmailBody(OrderDto order) {
+    public String getOrderConfirmationEmailBody(OrderDto order) {
         return String.format(
                 "<html>" +
                         "<head>" +
@@ -3,6 +3,8 @@ package com.food.backend.service;
 import com.food.backend.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -21,14 +23,29 @@ import java.util.logging.Logger;
 @Slf4j
 @Service
 public class JwtService {
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
-
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
     final private Logger logger = Logger.getLogger(JwtService.class.getName());
 
+    public JwtService(@Value("${security.jwt.secret-key}") String secretKey,
+                      @Value("${security.jwt.expiration-time}") long jwtExpiration) {
+        this.signInKey = getSignInKey(secretKey);
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+    }
+
+    /**
+     * Verifies the signature and expiration of the token and returns its claims.
+     *
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or its signature does not match
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -84,17 +101,13 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), Jwts.SIG.HS256)
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
     private Claims extractAllClaims(String token) {
-        return  Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseVerifiedClaims(token);
     }
-    private SecretKey getSignInKey() {
+    private static SecretKey getSignInKey(String secretKey) {
         try {
             return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
         } catch (Exception e) {
@@ -1,8 +1,10 @@
 package com.food.backend.service;
 
+import com.food.backend.dto.boarddtos.OrderBoardEventDto;
+import com.food.backend.dto.boarddtos.OrderBoardSnapshotDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
+import com.food.backend.model.Enums.OrderBoardEventType;
 import com.food.backend.model.Enums.OrderStatus;
-import com.food.backend.model.Order;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -10,116 +12,222 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
-import java.util.stream.Stream;
 
 
+/**
+ * Board codes of orders in preparation and ready for pickup.
+ * <p>
+ * The state is an immutable {@link BoardState} swapped with compare-and-set, so concurrent
+ * order requests never lock each other and every broadcast serializes a consistent snapshot
+ * that can no longer change underneath the message converter.
+ * <p>
+ * Every change becomes a small {@link OrderBoardEventDto}, numbered with the board version so that
+ * consecutive events differ by exactly one, and is broadcast in batches by {@link OrderBoardPublisher}.
+ * A client subscribes to the events first, then requests a {@link OrderBoardSnapshotDto} and applies
+ * the events whose sequence is higher than the snapshot's. When it sees a gap it requests a new snapshot.
+ * <p>
+ * Board numbers come from {@link BoardCodeAllocator}, so instances sharing a database never hand
+ * out the same number within one round of the board.
+ */
 @Slf4j
-@Getter
 @Service
 public class LiveOrderBoard {
-    private final SortedSet<String> liveOrderBoardCodes;
-    private final Set<String> readyOrderBoardCodes;
+    public static final String SNAPSHOT_TOPIC = "/topic/orderBoard";
+    private static final int MAX_BOARD_NUMBER = 100;
+
+    private final AtomicReference<BoardState> state = new AtomicReference<>(BoardState.EMPTY);
+    private final BoardCodeAllocator boardCodeAllocator;
     private final OrderService orderService;
-    private static Integer LAST_NUMBER = -1;
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final OrderBoardPublisher orderBoardPublisher;
     private final Logger logger = Logger.getLogger(LiveOrderBoard.class.getName());
 
     @Autowired
-    public LiveOrderBoard(@Lazy OrderService orderService, SimpMessagingTemplate messagingTemplate) {
+    public LiveOrderBoard(@Lazy OrderService orderService, SimpMessagingTemplate messagingTemplate,
+                          OrderBoardPublisher orderBoardPublisher, BoardCodeAllocator boardCodeAllocator) {
         this.orderService = orderService;
+        this.boardCodeAllocator = boardCodeAllocator;
         this.messagingTemplate = messagingTemplate;
-        this.liveOrderBoardCodes = new TreeSet<>();
-        this.readyOrderBoardCodes = new HashSet<>();
+        this.orderBoardPublisher = orderBoardPublisher;
         initializeOrderSets();
 
     }
 
     private void initializeOrderSets() {
-        clearOrderSets();
         loadOrdersIntoSets();
         sendUpdatedOrderBoard();
-        getLastOrderNumber();
-    }
-    private void getLastOrderNumber() {
-        Number maxOrderNumber = getMaxOrderNumberFromLiveOrderBoardCodesList(liveOrderBoardCodes.stream());
-        Number maxReadyOrderNumber = getMaxOrderNumberFromLiveOrderBoardCodesList(readyOrderBoardCodes.stream());
-        LAST_NUMBER = Math.max(maxOrderNumber.intValue(), maxReadyOrderNumber.intValue());
-    }
-
-    private Number getMaxOrderNumberFromLiveOrderBoardCodesList(Stream<String> liveOrderBoardCodes) {
-        return liveOrderBoardCodes
-                .map(Integer::parseInt)
-                .max(Integer::compareTo)
-                .orElse(-1);
-    }
-
-    private void clearOrderSets() {
-        liveOrderBoardCodes.clear();
-        readyOrderBoardCodes.clear();
     }
 
     private void loadOrdersIntoSets() {
-        addOrdersToSet(orderService.getOrdersByStatus(OrderStatus.IN_PREPARATION), liveOrderBoardCodes);
-        addOrdersToSet(orderService.getOrdersByStatus(OrderStatus.READY_FOR_PICKUP), readyOrderBoardCodes);
+        List<String> live = getBoardCodes(orderService.getOrdersByStatus(OrderStatus.IN_PREPARATION));
+        List<String> ready = getBoardCodes(orderService.getOrdersByStatus(OrderStatus.READY_FOR_PICKUP));
+        BoardState loaded = BoardState.EMPTY.withLive(new TreeSet<>(live)).withReady(new LinkedHashSet<>(ready));
+        state.set(loaded);
+        orderBoardPublisher.reset(loaded.version());
     }
 
-    private void addOrdersToSet(List<Order> orders, Set<String> targetSet) {
-        orders.forEach(order -> targetSet.add(order.getBoardCode()));
+    private List<String> getBoardCodes(List<OrderViewDto> orders) {
+        return orders.stream()
+                .map(OrderViewDto::getBoardCode)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
+    /**
+     * Hands out the next number that is not on the board yet, so a slow order holding
+     * its code can never share it with a newer one after the counter wraps around.
+     */
     public String generateOrderBoardCode() {
-        if (++LAST_NUMBER == 100)  LAST_NUMBER = 0;
-        String orderCode = LAST_NUMBER.toString();
-        addNewOrderCode(orderCode);
-        return orderCode;
+        for (int attempt = 0; attempt < MAX_BOARD_NUMBER; attempt++) {
+            String orderCode = nextOrderCode();
+            if (addNewOrderCode(orderCode)) {
+                return orderCode;
+            }
+        }
+        this.logger.warning("Order board is full, reusing a code that is already displayed");
+        return nextOrderCode();
     }
-    private void addNewOrderCode(String orderCode) {
-        liveOrderBoardCodes.add(orderCode);
-        sendUpdatedOrderBoard();
+    private String nextOrderCode() {
+        return Long.toString(boardCodeAllocator.nextNumber() % MAX_BOARD_NUMBER);
+    }
+    private boolean addNewOrderCode(String orderCode) {
+        return update(OrderBoardEventType.ADDED, orderCode, current -> current.addLive(orderCode));
     }
     public void moveOrderCodeToReady(String orderCode) {
-        try{
-            liveOrderBoardCodes.remove(orderCode);
-        }
-        catch (Exception e) {
+        if (orderCode == null) {
             this.logger.info("Order code not found in live order board");
+            return;
         }
-        finally {
-            readyOrderBoardCodes.add(orderCode);
-            sendUpdatedOrderBoard();
-        }
-
+        update(OrderBoardEventType.MOVED_TO_READY, orderCode, current -> current.moveToReady(orderCode));
     }
     public void moveOrderCodetoLive(String orderCode) {
-        try{
-            readyOrderBoardCodes.remove(orderCode);
-        }
-        catch (Exception e) {
+        if (orderCode == null) {
             this.logger.info("Order code not found in ready order board");
+            return;
         }
-        finally {
-            liveOrderBoardCodes.add(orderCode);
-            sendUpdatedOrderBoard();
-        }
-
+        update(OrderBoardEventType.MOVED_TO_LIVE, orderCode, current -> current.moveToLive(orderCode));
     }
     public void removeOrderCode(String orderCode) {
-        liveOrderBoardCodes.remove(orderCode);
-        readyOrderBoardCodes.remove(orderCode);
-        sendUpdatedOrderBoard();
+        if (orderCode == null) {
+            return;
+        }
+        update(OrderBoardEventType.REMOVED, orderCode, current -> current.remove(orderCode));
     }
+
+    private boolean update(OrderBoardEventType type, String orderCode, UnaryOperator<BoardState> transition) {
+        BoardState previous;
+        BoardState next;
+        do {
+            previous = state.get();
+            next = transition.apply(previous);
+            if (next == previous) {
+                return false;
+            }
+        } while (!state.compareAndSet(previous, next));
+        orderBoardPublisher.submit(new OrderBoardEventDto(next.version(), type, orderCode));
+        return true;
+    }
+
+    /**
+     * Broadcasts the full board to every screen. Only needed on startup and for legacy
+     * clients, regular changes go out as events.
+     */
     public void sendUpdatedOrderBoard() {
         this.logger.info("Sending updated order board state");
-        Map<String, Set<String>> orderBoardState = getOrderBoardState();
-        messagingTemplate.convertAndSend("/topic/orderBoard", orderBoardState);
+        messagingTemplate.convertAndSend(SNAPSHOT_TOPIC, getOrderBoardState());
+    }
+
+    /**
+     * Events of changes in this snapshot that are still being published carry a sequence not
+     * higher than the snapshot's, so clients subscribed before asking simply skip them.
+     */
+    public OrderBoardSnapshotDto getSnapshot() {
+        BoardState current = state.get();
+        return new OrderBoardSnapshotDto(current.version(), current.live(), current.ready());
     }
 
     public Map<String, Set<String>> getOrderBoardState() {
-        return Map.of(
-                "liveOrderBoardCodes", liveOrderBoardCodes,
-                "liveOrderBoardReadyCodes", readyOrderBoardCodes
-        );
+        return state.get().toMap();
+    }
+
+    public SortedSet<String> getLiveOrderBoardCodes() {
+        return state.get().live();
+    }
+
+    public Set<String> getReadyOrderBoardCodes() {
+        return state.get().ready();
+    }
+
+    /**
+     * Immutable snapshot of the board. Every transition returns a new copy with a higher
+     * version, or the same instance when nothing changed.
+     */
+    private record BoardState(long version, SortedSet<String> live, Set<String> ready) {
+        static final BoardState EMPTY = new BoardState(0, Collections.emptySortedSet(), Collections.emptySet());
+
+        BoardState withLive(SortedSet<String> newLive) {
+            return next(newLive, ready);
+        }
+
+        BoardState withReady(Set<String> newReady) {
+            return next(live, newReady);
+        }
+
+        private BoardState next(SortedSet<String> newLive, Set<String> newReady) {
+            return new BoardState(version + 1, Collections.unmodifiableSortedSet(newLive), Collections.unmodifiableSet(newReady));
+        }
+
+        BoardState addLive(String code) {
+            if (live.contains(code) || ready.contains(code)) {
+                return this;
+            }
+            SortedSet<String> newLive = new TreeSet<>(live);
+            newLive.add(code);
+            return withLive(newLive);
+        }
+
+        BoardState moveToReady(String code) {
+            if (!live.contains(code) && ready.contains(code)) {
+                return this;
+            }
+            SortedSet<String> newLive = new TreeSet<>(live);
+            newLive.remove(code);
+            Set<String> newReady = new LinkedHashSet<>(ready);
+            newReady.add(code);
+            return next(newLive, newReady);
+        }
+
+        BoardState moveToLive(String code) {
+            if (live.contains(code) && !ready.contains(code)) {
+                return this;
+            }
+            SortedSet<String> newLive = new TreeSet<>(live);
+            newLive.add(code);
+            Set<String> newReady = new LinkedHashSet<>(ready);
+            newReady.remove(code);
+            return next(newLive, newReady);
+        }
+
+        BoardState remove(String code) {
+            if (!live.contains(code) && !ready.contains(code)) {
+                return this;
+            }
+            SortedSet<String> newLive = new TreeSet<>(live);
+            newLive.remove(code);
+            Set<String> newReady = new LinkedHashSet<>(ready);
+            newReady.remove(code);
+            return next(newLive, newReady);
+        }
+
+        Map<String, Set<String>> toMap() {
+            return Map.of(
+                    "liveOrderBoardCodes", live,
+                    "liveOrderBoardReadyCodes", ready
+            );
+        }
     }
 }
@@ -1,40 +1,164 @@
 package com.food.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.backend.dto.MenuItemDto;
 import com.food.backend.model.Enums.Category;
 import com.food.backend.model.MenuItem;
 import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.utils.other.SerializedResponse;
 import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+/**
+ * Serves menu reads from an immutable in-memory catalog, so they do no database I/O. The catalog
+ * is rebuilt from the database after every menu change commits, and on a fixed interval to pick
+ * up changes made through other instances. The JSON of the whole menu, the available items
+ * and every category is serialized once per rebuild, so those responses are sent as stored bytes.
+ * <p>
+ * Menu items in the catalog are shared between requests and must not be modified.
+ */
 @Slf4j
 @Service
 public class MenuItemService {
     private final MenuItemsRepository menuItemsRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate rebuildTransaction;
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>();
 
-    public MenuItemService(MenuItemsRepository menuItemsRepository) {
+    private final Counter catalogHits;
+    private final Counter catalogMisses;
+    private final Timer catalogRebuilds;
+
+    public MenuItemService(MenuItemsRepository menuItemsRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry, ObjectMapper objectMapper) {
         this.menuItemsRepository = menuItemsRepository;
+        this.objectMapper = objectMapper;
+        // rebuilds run after a commit, when the committed transaction can not be used anymore
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction.setReadOnly(true);
+        this.catalogHits = Counter.builder("menu.catalog.lookups")
+                .tag("result", "hit")
+                .description("Menu reads answered from the loaded catalog")
+                .register(meterRegistry);
+        this.catalogMisses = Counter.builder("menu.catalog.lookups")
+                .tag("result", "miss")
+                .description("Menu reads that had to load the catalog first")
+                .register(meterRegistry);
+        this.catalogRebuilds = Timer.builder("menu.catalog.rebuild")
+                .description("Time to load the menu and build the catalog")
+                .register(meterRegistry);
+        Gauge.builder("menu.catalog.items", catalog, current -> current.get() == null ? 0 : current.get().all().size())
+                .description("Menu items in the catalog")
+                .register(meterRegistry);
     }
 
     public Optional<MenuItem> findByNameIgnoreCase(String name) {
-        return menuItemsRepository.findByNameIgnoreCase(name);
+        return Optional.ofNullable(catalog().byName().get(name.toLowerCase(Locale.ROOT)));
     }
 
     public List<MenuItem> findByAvailable(boolean available) {
-        return menuItemsRepository.findByAvailable(available);
+        return available ? catalog().available() : catalog().unavailable();
     }
 
     public List<MenuItem> findByCategory(Category category) {
-        return menuItemsRepository.findByCategory(category);
+        return catalog().byCategory().getOrDefault(category, List.of());
     }
 
     public List<MenuItem> findAll() {
-        return (List<MenuItem>) menuItemsRepository.findAll();
+        return catalog().all();
+    }
+
+    public SerializedResponse findAllSerialized() {
+        return catalog().allResponse();
+    }
+
+    public SerializedResponse findAvailableSerialized() {
+        return catalog().availableResponse();
+    }
+
+    public SerializedResponse findByCategorySerialized(Category category) {
+        return catalog().categoryResponses().get(category);
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog.get();
+        if (current != null) {
+            catalogHits.increment();
+            return current;
+        }
+        catalogMisses.increment();
+        return loadCatalog();
+    }
+
+    /**
+     * Builds the catalog on first use. Callers that waited for the lock take the one built meanwhile.
+     */
+    private synchronized Catalog loadCatalog() {
+        Catalog current = catalog.get();
+        return current != null ? current : rebuildCatalog();
+    }
+
+    @Scheduled(initialDelayString = "${menu.catalog.refresh-interval-ms:60000}",
+            fixedDelayString = "${menu.catalog.refresh-interval-ms:60000}")
+    public void refreshCatalog() {
+        rebuildCatalog();
+    }
+
+    /**
+     * Rebuilds are serialized, so the last one to finish has read every change committed before it.
+     */
+    private synchronized Catalog rebuildCatalog() {
+        Catalog rebuilt = catalogRebuilds.record(() -> {
+            List<MenuItem> menuItems = rebuildTransaction.execute(status -> {
+                List<MenuItem> loaded = new ArrayList<>();
+                menuItemsRepository.findAll().forEach(loaded::add);
+                return loaded;
+            });
+            return Catalog.of(menuItems, objectMapper);
+        });
+        catalog.set(rebuilt);
+        log.debug("Rebuilt menu catalog with {} items", rebuilt.all().size());
+        return rebuilt;
+    }
+
+    private void rebuildCatalogAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildCatalog();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildCatalog();
+            }
+        });
     }
 
     public MenuItem createNewMenuItem(MenuItemDto menuItemDto) throws BadRequestException {
@@ -48,6 +172,7 @@ public class MenuItemService {
         } catch (Exception e) {
             throw new RuntimeException("Failed to create new menu item", e);
         }
+        rebuildCatalogAfterCommit();
         return newMenuItem;
     }
 
@@ -78,7 +203,9 @@ public class MenuItemService {
 
         setMenuItemFieldsFromDto(menuItemToUpdate, menuItemDto);
 
-        return menuItemsRepository.save(menuItemToUpdate);
+        MenuItem updatedMenuItem = menuItemsRepository.save(menuItemToUpdate);
+        rebuildCatalogAfterCommit();
+        return updatedMenuItem;
     }
 
     private static void setMenuItemFieldsFromDto(MenuItem menuItem, MenuItemDto menuItemDto) {
@@ -99,10 +226,38 @@ public class MenuItemService {
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete menu item with id " + id, e);
         }
+        rebuildCatalogAfterCommit();
     }
 
     public Optional<MenuItem> findById(Long id) {
-        return menuItemsRepository.findById(id);
+        return Optional.ofNullable(catalog().byId().get(id));
+    }
+
+    /**
+     * Resolves every requested menu item with a single query, keyed by id.
+     * Unknown or unavailable items are rejected in the same pass. Orders are priced from the
+     * database rather than the catalog, which may lag behind changes made on other instances.
+     */
+    public Map<Long, MenuItem> findAvailableByIds(Collection<Long> ids) {
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        menuItemsRepository.findAllById(ids).forEach(menuItem -> menuItems.put(menuItem.getId(), menuItem));
+
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !menuItems.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException("Menu items with ids " + missingIds + " not found");
+        }
+
+        List<String> unavailableItems = menuItems.values().stream()
+                .filter(menuItem -> !Boolean.TRUE.equals(menuItem.getAvailable()))
+                .map(MenuItem::getName)
+                .toList();
+        if (!unavailableItems.isEmpty()) {
+            throw new IllegalArgumentException("Menu items " + unavailableItems + " are not available");
+        }
+        return menuItems;
     }
     private MenuItem findByIdOrThrow(Long id) {
         return menuItemsRepository.findById(id)
@@ -112,7 +267,47 @@ public class MenuItemService {
     public MenuItem changeAvailability(Long id){
         MenuItem menuItem = findByIdOrThrow(id);
         menuItem.setAvailable(!menuItem.getAvailable());
-        return menuItemsRepository.save(menuItem);
+        MenuItem savedMenuItem = menuItemsRepository.save(menuItem);
+        rebuildCatalogAfterCommit();
+        return savedMenuItem;
+    }
+
+    private record Catalog(List<MenuItem> all, List<MenuItem> available, List<MenuItem> unavailable,
+                           Map<Long, MenuItem> byId, Map<Category, List<MenuItem>> byCategory,
+                           Map<String, MenuItem> byName, SerializedResponse allResponse,
+                           SerializedResponse availableResponse, Map<Category, SerializedResponse> categoryResponses) {
+
+        static Catalog of(List<MenuItem> menuItems, ObjectMapper objectMapper) {
+            List<MenuItem> all = new ArrayList<>(menuItems);
+            all.sort(Comparator.comparing(MenuItem::getId));
+            Map<Boolean, List<MenuItem>> byAvailability = all.stream()
+                    .collect(Collectors.partitioningBy(menuItem -> Boolean.TRUE.equals(menuItem.getAvailable())));
+            Map<Long, MenuItem> byId = new HashMap<>();
+            Map<Category, List<MenuItem>> byCategory = new EnumMap<>(Category.class);
+            Map<String, MenuItem> byName = new HashMap<>();
+            for (MenuItem menuItem : all) {
+                byId.put(menuItem.getId(), menuItem);
+                byCategory.computeIfAbsent(menuItem.getCategory(), _ -> new ArrayList<>()).add(menuItem);
+                byName.putIfAbsent(menuItem.getName().toLowerCase(Locale.ROOT), menuItem);
+            }
+            byCategory.replaceAll((category, items) -> List.copyOf(items));
+            Map<Category, SerializedResponse> categoryResponses = new EnumMap<>(Category.class);
+            for (Category category : Category.values()) {
+                categoryResponses.put(category, serialize(objectMapper, byCategory.getOrDefault(category, List.of())));
+            }
+            return new Catalog(List.copyOf(all), List.copyOf(byAvailability.get(true)),
+                    List.copyOf(byAvailability.get(false)), Map.copyOf(byId), Collections.unmodifiableMap(byCategory),
+                    Map.copyOf(byName), serialize(objectMapper, all), serialize(objectMapper, byAvailability.get(true)),
+                    Collections.unmodifiableMap(categoryResponses));
+        }
+
+        private static SerializedResponse serialize(ObjectMapper objectMapper, List<MenuItem> menuItems) {
+            try {
+                return SerializedResponse.of(objectMapper.writeValueAsBytes(menuItems));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize the menu", e);
+            }
+        }
     }
 
 }
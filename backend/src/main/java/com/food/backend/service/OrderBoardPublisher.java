@@ -0,0 +1,126 @@
+package com.food.backend.service;
+
+import com.food.backend.dto.boarddtos.OrderBoardEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces order board events and broadcasts them at most once per flush interval, so a rush of
+ * status changes costs one message per interval instead of one per change.
+ * <p>
+ * Events are sent as a JSON array in sequence order. An event whose predecessor has not been
+ * submitted yet waits for the next flush, so subscribers never see the sequence go backwards.
+ * <p>
+ * Flushes run on a thread of their own rather than the shared scheduler, so the board never waits
+ * behind the outbox poll or a catalog rebuild.
+ */
+@Slf4j
+@Component
+public class OrderBoardPublisher {
+    public static final String EVENTS_TOPIC = "/topic/orderBoard/events";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long flushIntervalMs;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-board-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentSkipListMap<Long, PendingEvent> pendingEvents = new ConcurrentSkipListMap<>();
+    private final Object flushLock = new Object();
+    private long lastPublishedSequence = -1;
+
+    private final Counter submittedUpdates;
+    private final Counter coalescedUpdates;
+    private final Counter broadcasts;
+    private final Timer flushLatency;
+
+    public OrderBoardPublisher(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry,
+                               @Value("${order-board.flush-interval-ms:100}") long flushIntervalMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+        this.submittedUpdates = Counter.builder("orderboard.updates")
+                .description("Order board changes submitted for broadcast")
+                .register(meterRegistry);
+        this.coalescedUpdates = Counter.builder("orderboard.updates.coalesced")
+                .description("Order board changes merged into a broadcast of an earlier change")
+                .register(meterRegistry);
+        this.broadcasts = Counter.builder("orderboard.broadcasts")
+                .description("Order board event messages sent to subscribers")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("orderboard.flush.latency")
+                .description("Time from the oldest change in a broadcast to the broadcast being sent")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlushing() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // an exception would cancel the schedule
+                log.warn("Failed to broadcast order board events", e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Sets the sequence the next event continues from. Events at or below it are never sent.
+     */
+    public void reset(long sequence) {
+        synchronized (flushLock) {
+            lastPublishedSequence = sequence;
+            pendingEvents.headMap(sequence, true).clear();
+        }
+    }
+
+    public void submit(OrderBoardEventDto event) {
+        pendingEvents.put(event.getSequence(), new PendingEvent(event, System.nanoTime()));
+        submittedUpdates.increment();
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            List<OrderBoardEventDto> batch = new ArrayList<>();
+            long oldestSubmittedAt = Long.MAX_VALUE;
+            PendingEvent pending;
+            while ((pending = pendingEvents.remove(lastPublishedSequence + 1)) != null) {
+                batch.add(pending.event());
+                oldestSubmittedAt = Math.min(oldestSubmittedAt, pending.submittedAt());
+                lastPublishedSequence = pending.event().getSequence();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            messagingTemplate.convertAndSend(EVENTS_TOPIC, batch);
+            broadcasts.increment();
+            coalescedUpdates.increment(batch.size() - 1);
+            flushLatency.record(System.nanoTime() - oldestSubmittedAt, TimeUnit.NANOSECONDS);
+            log.debug("Broadcast {} order board events up to sequence {}", batch.size(), lastPublishedSequence);
+        }
+    }
+
+    private record PendingEvent(OrderBoardEventDto event, long submittedAt) {
+    }
+}
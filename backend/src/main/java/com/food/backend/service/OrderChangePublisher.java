@@ -0,0 +1,42 @@
+package com.food.backend.service;
+
+import com.food.backend.dto.orderdtos.OrderChangedEventDto;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells clients that keep a copy of the order list that an order changed, on {@code /topic/orderChanges}.
+ * <p>
+ * Order board events are no substitute: they are sent before the change commits, and changes that leave
+ * the board as it is, such as cancelling a picked up order, send none. This signal is sent for every
+ * change, once it committed, so a fetch of the changes it triggers finds the change.
+ */
+@Component
+public class OrderChangePublisher {
+    public static final String CHANGES_TOPIC = "/topic/orderChanges";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public OrderChangePublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public void publishAfterCommit(Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(orderId);
+            }
+        });
+    }
+
+    private void publish(Long orderId) {
+        messagingTemplate.convertAndSend(CHANGES_TOPIC, new OrderChangedEventDto(orderId));
+    }
+}
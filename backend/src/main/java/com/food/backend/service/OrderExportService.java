@@ -0,0 +1,107 @@
+package com.food.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.food.backend.dto.orderdtos.OrderExportRowDto;
+import com.food.backend.model.Enums.ExportFormat;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.utils.other.DateRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the orders and order items of a date range as CSV or newline-delimited JSON, one line
+ * per order item. Rows are read from a database cursor and written as they arrive, so the heap
+ * used does not depend on the size of the range.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "order_id,order_time,status,order_type,email,board_code,order_total," +
+            "order_item_id,menu_item_id,menu_item_name,category,quantity,item_total";
+
+    private final OrderRepository orderRepository;
+    private final ObjectWriter rowWriter;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        // by default Jackson flushes and closes the target after every row
+        this.rowWriter = objectMapper.writerFor(OrderExportRowDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(DateRange dateRange, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long rows = 0;
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<OrderExportRowDto> exportRows = orderRepository.streamExportRows(dateRange.start(), dateRange.end())) {
+            Iterator<OrderExportRowDto> iterator = exportRows.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRowDto row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    rowWriter.writeValue(writer, row);
+                    writer.write('\n');
+                }
+                rows++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} order rows for {} as {}", rows, dateRange, format);
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, OrderExportRowDto row) throws IOException {
+        writer.write(String.valueOf(row.getOrderId()));
+        writeCsvField(writer, row.getOrderTime());
+        writeCsvField(writer, row.getStatus());
+        writeCsvField(writer, row.getOrderType());
+        writeCsvField(writer, row.getEmail());
+        writeCsvField(writer, row.getBoardCode());
+        writeCsvField(writer, row.getOrderTotal());
+        writeCsvField(writer, row.getOrderItemId());
+        writeCsvField(writer, row.getMenuItemId());
+        writeCsvField(writer, row.getMenuItemName());
+        writeCsvField(writer, row.getCategory());
+        writeCsvField(writer, row.getQuantity());
+        writeCsvField(writer, row.getItemTotal());
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
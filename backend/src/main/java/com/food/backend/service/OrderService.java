@@ -2,80 +2,113 @@ package com.food.backend.service;
 
 import com.food.backend.dto.orderdtos.CreateOrderDto;
 import com.food.backend.dto.orderdtos.CreateOrderItemDto;
+import com.food.backend.dto.orderdtos.OrderChangesDto;
 import com.food.backend.dto.orderdtos.OrderDto;
 import com.food.backend.dto.orderdtos.OrderItemListingDto;
+import com.food.backend.dto.orderdtos.OrderItemViewDto;
+import com.food.backend.dto.orderdtos.OrderPageDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
 import com.food.backend.model.Order;
+import com.food.backend.model.OrderDeletion;
 import com.food.backend.model.OrderItem;
 import com.food.backend.model.MenuItem;
 import com.food.backend.model.User;
 import com.food.backend.model.Enums.OrderStatus;
 import com.food.backend.model.Enums.OrderType;
+import com.food.backend.repository.OrderDeletionRepository;
 import com.food.backend.repository.OrderRepository;
-import com.food.backend.repository.OrderItemRepository;
 import com.food.backend.exception.OrderNotFoundException;
-import jakarta.mail.MessagingException;
-import jakarta.persistence.EntityNotFoundException;
+import com.food.backend.utils.other.ChangeVersion;
+import com.food.backend.utils.other.OrderCursor;
+import com.food.backend.utils.other.OrderFilter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class OrderService {
+    public static final int MAX_PAGE_SIZE = 200;
+    // keeps the IN list of an item query well below the bind parameter limit of the driver
+    private static final int ITEM_QUERY_BATCH_SIZE = 1000;
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final MenuItemService menuItemService;
     private final LiveOrderBoard liveOrderBoard;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final UserService userService;
+    private final SalesRollupService salesRollupService;
+    private final OrderStatusPublisher orderStatusPublisher;
+    private final OrderChangePublisher orderChangePublisher;
+    /**
+     * Transactions that change orders give up after this, so their change versions settle within
+     * {@code order-changes.settle-ms}, which must be longer.
+     */
+    static final int ORDER_WRITE_TIMEOUT_SECONDS = 3;
+
+    private final OrderDeletionRepository orderDeletionRepository;
+    private final Duration changeSettleWindow;
+    private final Duration deletionRetention;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, MenuItemService menuItemService, @Lazy LiveOrderBoard liveOrderBoard, EmailService emailService, UserService userService) {
+    public OrderService(OrderRepository orderRepository, MenuItemService menuItemService, @Lazy LiveOrderBoard liveOrderBoard, EmailOutboxService emailOutboxService, UserService userService, SalesRollupService salesRollupService, OrderStatusPublisher orderStatusPublisher,
+                        OrderChangePublisher orderChangePublisher, OrderDeletionRepository orderDeletionRepository, @Value("${order-changes.settle-ms:5000}") long changeSettleMs,
+                        @Value("${order-changes.deletion-retention-ms:604800000}") long deletionRetentionMs) {
         this.orderRepository = orderRepository;
-        this.orderItemRepository = orderItemRepository;
         this.menuItemService = menuItemService;
         this.liveOrderBoard = liveOrderBoard;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         this.userService = userService;
+        this.salesRollupService = salesRollupService;
+        this.orderStatusPublisher = orderStatusPublisher;
+        this.orderChangePublisher = orderChangePublisher;
+        this.orderDeletionRepository = orderDeletionRepository;
+        this.changeSettleWindow = Duration.ofMillis(changeSettleMs);
+        this.deletionRetention = Duration.ofMillis(deletionRetentionMs);
     }
 
-    @Transactional
+    @Transactional(timeout = ORDER_WRITE_TIMEOUT_SECONDS)
     public Order createOrder(CreateOrderDto createOrderDto)  {
         Order order = initializeOrder(createOrderDto.getOrderType(), createOrderDto.getEmail());
-        Order savedOrder = orderRepository.save(order);
-        List<OrderItem> orderItemsList = createOrderItemsList(savedOrder, createOrderDto.getOrderItems());
+        List<OrderItem> orderItemsList = createOrderItemsList(order, createOrderDto.getOrderItems());
+        order.setOrderItems(orderItemsList);
         calculateAndSetTotalPrice(order, orderItemsList);
         saveOrder(order, orderItemsList);
-        savedOrder.setOrderItems(orderItemsList);
-        return savedOrder;
+        orderChangePublisher.publishAfterCommit(order.getOrderId());
+        return order;
     }
 
+    /**
+     * Persists the fully built order aggregate. The items are cascaded from the order and
+     * use pooled sequence ids, so the order and all of its items go out in one batched flush.
+     * The confirmation email is queued in the outbox within the same transaction.
+     */
     private void saveOrder(Order order, List<OrderItem> orderItemsList) {
         try {
             order.setBoardCode(liveOrderBoard.generateOrderBoardCode());
-            orderRepository.save(order);
-            saveOrderItems(order, orderItemsList);
+            orderRepository.saveAndFlush(order);
+            emailOutboxService.enqueueOrderConfirmation(order.getEmail(), OrderDto.fromOrder(order, getOrderItemsListingDto(orderItemsList)));
         } catch (Exception e) {
             liveOrderBoard.removeOrderCode(order.getBoardCode());
             throw new RuntimeException("Failed to create order", e);
         }
-        finally {
-            sendOrderConfirmationEmail(order.getEmail(), OrderDto.fromOrder(order, getOrderItemsListingDto(orderItemsList)));
-        }
     }
 
     private List<OrderItem> createOrderItemsList(Order order, List<CreateOrderItemDto> orderItems) {
+        Map<Long, MenuItem> menuItems = menuItemService.findAvailableByIds(orderItems.stream()
+                .map(CreateOrderItemDto::getMenuItemId)
+                .collect(Collectors.toSet()));
         return orderItems.stream()
-                .map(itemDto -> {
-                    MenuItem menuItem = menuItemService.findById(itemDto.getMenuItemId())
-                            .orElseThrow(() -> new EntityNotFoundException("Menu item with id " + itemDto.getMenuItemId() + " not found"));
-                    return createOrderItem(order, menuItem, itemDto.getQuantity());
-                })
+                .map(itemDto -> createOrderItem(order, menuItems.get(itemDto.getMenuItemId()), itemDto.getQuantity()))
                 .collect(Collectors.toList());
     }
 
@@ -85,8 +118,10 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
-    public Optional<Order> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId);
+    @Transactional(readOnly = true)
+    public Optional<OrderViewDto> getOrderById(Long orderId) {
+        return orderRepository.findOrderViewById(orderId)
+                .map(order -> withItems(List.of(order)).getFirst());
     }
     public OrderStatus getOrderStatus(Long orderId) {
         return orderRepository.findStatusById(orderId)
@@ -94,14 +129,29 @@ public class OrderService {
     }
 
 
-    @Transactional
+    @Transactional(timeout = ORDER_WRITE_TIMEOUT_SECONDS)
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus) throws IllegalArgumentException {
         checkIfStatusIsValid(newStatus.toString());
 
         Order order = findOrderOrThrow(orderId);
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
+        updateSalesRollups(previousStatus, newStatus, order);
         moveOrderNumberOnTheBoardBasedOnStatus(newStatus, order);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (previousStatus != newStatus) {
+            orderStatusPublisher.publishAfterCommit(savedOrder);
+            orderChangePublisher.publishAfterCommit(orderId);
+        }
+        return savedOrder;
+    }
+
+    private void updateSalesRollups(OrderStatus previousStatus, OrderStatus newStatus, Order order) {
+        if (newStatus == OrderStatus.PICKED_UP && previousStatus != OrderStatus.PICKED_UP) {
+            salesRollupService.recordPickedUp(order);
+        } else if (previousStatus == OrderStatus.PICKED_UP && newStatus != OrderStatus.PICKED_UP) {
+            salesRollupService.revertPickedUp(order);
+        }
     }
 
     private void moveOrderNumberOnTheBoardBasedOnStatus(OrderStatus newStatus, Order order) {
@@ -123,23 +173,126 @@ public class OrderService {
         OrderType.valueOf(orderType);
     }
 
-    @Transactional
+    @Transactional(timeout = ORDER_WRITE_TIMEOUT_SECONDS)
     public void deleteOrder(Long orderId) {
         Order order = findOrderOrThrow(orderId);
+        updateSalesRollups(order.getStatus(), null, order);
         liveOrderBoard.removeOrderCode(order.getBoardCode());
         orderRepository.deleteById(orderId);
+        orderDeletionRepository.save(new OrderDeletion(orderId, ChangeVersion.next()));
+        orderChangePublisher.publishAfterCommit(orderId);
+    }
+
+    /**
+     * Orders created, updated or deleted after {@code since}, or a snapshot of every order when
+     * {@code since} is 0 or older than the deleted orders are kept for. The returned version never
+     * passes changes that may still commit, so orders changed within the settle window are sent
+     * again next time instead of being missed.
+     *
+     * @return empty if nothing changed after {@code since}
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderChangesDto> getOrderChanges(long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Version must not be negative");
+        }
+        long settled = ChangeVersion.settled(changeSettleWindow);
+        if (since < ChangeVersion.settled(deletionRetention)) {
+            return Optional.of(new OrderChangesDto(settled, true,
+                    withItems(orderRepository.findOrderViews(new OrderFilter(null, null, null, null, null))), List.of()));
+        }
+        List<OrderViewDto> changed = orderRepository.findOrderViewsChangedAfter(since);
+        List<Long> deleted = orderDeletionRepository.findOrderIdsDeletedAfter(since);
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrderChangesDto(Math.max(since, settled), false, withItems(changed), deleted));
     }
 
-    public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.getOrdersByStatus(status);
+    /**
+     * Forgets deleted orders after the retention, clients that last asked before then get a snapshot.
+     */
+    @Scheduled(fixedDelayString = "${order-changes.deletion-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeOrderDeletions() {
+        int purged = orderDeletionRepository.deleteByChangeVersionBefore(ChangeVersion.settled(deletionRetention));
+        if (purged > 0) {
+            log.info("Purged {} order deletions older than {}", purged, deletionRetention);
+        }
     }
 
-    public List<Order> getOrdersByPreparedBy(User preparedBy) {
-        return orderRepository.getOrdersByPreparedBy(preparedBy);
+    @Transactional(readOnly = true)
+    public List<OrderViewDto> getOrdersByStatus(OrderStatus status) {
+        return withItems(orderRepository.findOrderViews(new OrderFilter(Set.of(status), null, null, null, null)));
     }
 
-    public List<Order> getAllOrdersWithItems() {
-        return orderRepository.findAllWithItemsOrderByOrderId();
+    @Transactional(readOnly = true)
+    public List<OrderViewDto> getOrdersByPreparedBy(User preparedBy) {
+        return withItems(orderRepository.findOrderViews(new OrderFilter(null, null, preparedBy.getId(), null, null)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderViewDto> getAllOrdersWithItems() {
+        return withItems(orderRepository.findOrderViews(new OrderFilter(null, null, null, null, null)));
+    }
+
+    /**
+     * Returns one page of orders, newest first, with their items. The page is found with a keyset
+     * query on (orderTime, orderId) and its items are loaded in one more query.
+     *
+     * @param after cursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDto getOrdersPage(OrderFilter filter, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor cursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+        // one extra order tells whether there is a next page
+        List<OrderViewDto> orders = orderRepository.findOrderViews(filter, cursor, limit + 1);
+        if (orders.size() <= limit) {
+            return new OrderPageDto(withItems(orders), null);
+        }
+        List<OrderViewDto> page = withItems(orders.subList(0, limit));
+        OrderViewDto last = page.getLast();
+        return new OrderPageDto(page, new OrderCursor(last.getOrderTime(), last.getOrderId()).encode());
+    }
+
+    /**
+     * Returns the items of each of the given orders, in the order of the ids, for clients that show
+     * the details of several orders. Orders without items, and ids of orders that do not exist, get
+     * an empty list.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<OrderItemViewDto>> getItemsByOrderIds(List<Long> orderIds) {
+        if (orderIds.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_PAGE_SIZE + " orders can be requested at once");
+        }
+        Map<Long, List<OrderItemViewDto>> itemsByOrderId = findItemsByOrderId(orderIds);
+        Map<Long, List<OrderItemViewDto>> items = new LinkedHashMap<>();
+        orderIds.forEach(orderId -> items.put(orderId, itemsByOrderId.getOrDefault(orderId, List.of())));
+        return items;
+    }
+
+    private List<OrderViewDto> withItems(List<OrderViewDto> orders) {
+        Map<Long, List<OrderItemViewDto>> itemsByOrderId =
+                findItemsByOrderId(orders.stream().map(OrderViewDto::getOrderId).toList());
+        orders.forEach(order -> order.setOrderItems(itemsByOrderId.getOrDefault(order.getOrderId(), List.of())));
+        return orders;
+    }
+
+    /**
+     * Loads the items of all given orders with one query per {@value #ITEM_QUERY_BATCH_SIZE} orders.
+     */
+    private Map<Long, List<OrderItemViewDto>> findItemsByOrderId(List<Long> orderIds) {
+        Map<Long, List<OrderItemViewDto>> itemsByOrderId = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += ITEM_QUERY_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + ITEM_QUERY_BATCH_SIZE, orderIds.size()));
+            for (OrderItemViewDto item : orderRepository.findItemViewsByOrderIdIn(batch)) {
+                itemsByOrderId.computeIfAbsent(item.getOrderId(), _ -> new ArrayList<>()).add(item);
+            }
+        }
+        return itemsByOrderId;
     }
 
 
@@ -160,15 +313,8 @@ public class OrderService {
                 .sum();
     }
 
-    private void saveOrderItems(Order order, List<OrderItem> orderItems) {
-        orderItems.forEach(item -> {
-            item.setOrder(order);
-            orderItemRepository.save(item);
-        });
-    }
-
     private Order findOrderOrThrow(Long orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
     }
 
@@ -189,21 +335,16 @@ public class OrderService {
         order.setTotalPrice(totalPrice);
     }
 
-    private void sendOrderConfirmationEmail(String to, OrderDto order) {
-        try{
-            emailService.sendOrderConfirmationEmail(to, order);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send order confirmation email", e);
-        }
-    }
-
+    @Transactional(timeout = ORDER_WRITE_TIMEOUT_SECONDS)
     public Order updateOrderPreparedBy(Long orderId, String userName) {
         validateParameters(orderId, userName);
         Order order = findOrderOrThrow(orderId);
         User user = userService.findUserByUsername(userName);
 
         order.setPreparedBy(user);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderChangePublisher.publishAfterCommit(orderId);
+        return savedOrder;
     }
     private void validateParameters(Long orderId, String userName) {
         if (orderId == null || userName == null || userName.isEmpty()) {
@@ -0,0 +1,228 @@
+package com.food.backend.service;
+
+import com.food.backend.dto.orderdtos.OrderStatusEventDto;
+import com.food.backend.exception.OrderNotFoundException;
+import com.food.backend.exception.TooManyStreamsException;
+import com.food.backend.model.Order;
+import com.food.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the status of single orders to customers waiting for them, on the STOMP topic
+ * {@code /topic/orders/{orderId}} and on server-sent event streams. Subscribers get the current
+ * status first and every change after it, so they hold one idle connection instead of polling.
+ * <p>
+ * Changes are pushed once the transaction that made them commits. Stream writes run on a small pool of
+ * their own, so a slow client never holds up the request that changed the order or the scheduler sending
+ * heart-beats. The endpoint is public, so the streams are capped per order and per instance.
+ * <p>
+ * Every event carries the order's change version. The writes to a stream are serialized and never send
+ * a version below the last one sent, so a status read before a change commits, or a change handed to
+ * the pool just before a later one, cannot overtake the newer status and end the stream on a stale one.
+ */
+@Slf4j
+@Component
+public class OrderStatusPublisher {
+    public static final String ORDER_TOPIC_PREFIX = "/topic/orders/";
+    public static final String STATUS_EVENT = "status";
+    private static final int FAN_OUT_QUEUE_CAPACITY = 1_000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final OrderRepository orderRepository;
+    private final long streamTimeoutMs;
+    private final int maxStreamsPerOrder;
+    private final int maxStreams;
+    private final ThreadPoolTaskExecutor fanOutExecutor;
+    private final Map<Long, Set<StatusStream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    public OrderStatusPublisher(SimpMessagingTemplate messagingTemplate, OrderRepository orderRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${order-status.stream-timeout-ms:1800000}") long streamTimeoutMs,
+                                @Value("${order-status.max-streams-per-order:10}") int maxStreamsPerOrder,
+                                @Value("${order-status.max-streams:5000}") int maxStreams,
+                                @Value("${order-status.fan-out-workers:4}") int fanOutWorkers) {
+        this.messagingTemplate = messagingTemplate;
+        this.orderRepository = orderRepository;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxStreamsPerOrder = maxStreamsPerOrder;
+        this.maxStreams = maxStreams;
+        this.fanOutExecutor = createExecutor(fanOutWorkers);
+        Gauge.builder("orders.status.streams", openStreams, AtomicInteger::get)
+                .description("Open order status streams")
+                .register(meterRegistry);
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(FAN_OUT_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("order-status-");
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+
+    public OrderStatusEventDto getCurrentStatus(Long orderId) {
+        return orderRepository.findStatusEventById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
+    /**
+     * Opens a stream of the order's status. The stream is registered before the current status
+     * is read, so a change committed in between is sent rather than lost.
+     *
+     * @throws TooManyStreamsException if the order or the instance already has as many streams as allowed
+     */
+    public SseEmitter openStream(Long orderId) {
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            throw new TooManyStreamsException("Too many open order status streams", false);
+        }
+        StatusStream stream = new StatusStream(orderId, createEmitter(streamTimeoutMs));
+        try {
+            streams.compute(orderId, (_, orderStreams) -> {
+                Set<StatusStream> open = orderStreams != null ? orderStreams : ConcurrentHashMap.newKeySet();
+                if (open.size() >= maxStreamsPerOrder) {
+                    throw new TooManyStreamsException("Too many open status streams for order " + orderId, true);
+                }
+                open.add(stream);
+                return open;
+            });
+        } catch (TooManyStreamsException e) {
+            openStreams.decrementAndGet();
+            throw e;
+        }
+        SseEmitter emitter = stream.emitter;
+        emitter.onCompletion(() -> removeStream(stream));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(_ -> removeStream(stream));
+        try {
+            stream.send(getCurrentStatus(orderId));
+        } catch (OrderNotFoundException e) {
+            removeStream(stream);
+            throw e;
+        }
+        return emitter;
+    }
+
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Publishes the order's status once the current transaction commits, with the change version the
+     * commit wrote.
+     */
+    public void publishAfterCommit(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(order);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(order);
+            }
+        });
+    }
+
+    private void publish(Order order) {
+        OrderStatusEventDto event = new OrderStatusEventDto(order.getOrderId(), order.getStatus(), order.getChangeVersion());
+        messagingTemplate.convertAndSend(ORDER_TOPIC_PREFIX + order.getOrderId(), event);
+        Set<StatusStream> orderStreams = streams.get(order.getOrderId());
+        if (orderStreams == null) {
+            return;
+        }
+        try {
+            fanOutExecutor.execute(() -> orderStreams.forEach(stream -> stream.send(event)));
+        } catch (TaskRejectedException e) {
+            // the clients reconnect and get the current status first
+            log.warn("Status streams are falling behind, closing the streams of order {}", order.getOrderId());
+            orderStreams.forEach(stream -> stream.emitter.complete());
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies, and finds the ones whose client is gone.
+     */
+    @Scheduled(fixedDelayString = "${order-status.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        try {
+            fanOutExecutor.execute(() -> streams.values().forEach(orderStreams -> orderStreams.forEach(StatusStream::sendHeartbeat)));
+        } catch (TaskRejectedException e) {
+            log.debug("Skipping status stream heart-beats while the streams are falling behind");
+        }
+    }
+
+    private void removeStream(StatusStream stream) {
+        streams.computeIfPresent(stream.orderId, (_, orderStreams) -> {
+            if (orderStreams.remove(stream)) {
+                openStreams.decrementAndGet();
+            }
+            return orderStreams.isEmpty() ? null : orderStreams;
+        });
+    }
+
+    /**
+     * One client's stream. Its writes are serialized, and events older than the last one sent are dropped.
+     */
+    private final class StatusStream {
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private long lastSentVersion = -1;
+
+        private StatusStream(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        synchronized void send(OrderStatusEventDto event) {
+            if (event.getVersion() <= lastSentVersion) {
+                log.debug("Skipping stale status {} of order {}", event.getVersion(), orderId);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(STATUS_EVENT)
+                        .data(event, MediaType.APPLICATION_JSON));
+                lastSentVersion = event.getVersion();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping status stream of order {}: {}", orderId, e.getMessage());
+                removeStream(this);
+            }
+        }
+
+        synchronized void sendHeartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                removeStream(this);
+            }
+        }
+    }
+}
@@ -3,9 +3,7 @@ package com.food.backend.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.backend.dto.ReportDto;
 import com.food.backend.exception.ReportGenerationException;
-import com.food.backend.model.Enums.Category;
-import com.food.backend.model.Enums.OrderStatus;
-import com.food.backend.repository.OrderRepository;
+import com.food.backend.model.Enums.ReportGranularity;
 import com.food.backend.utils.other.DateRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,15 +13,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReportService {
-    private final OrderRepository orderRepository;
+    private final SalesRollupService salesRollupService;
     private final ObjectMapper objectMapper;
 
     public ResponseEntity<byte[]> generateDailyReport() {
@@ -37,58 +31,25 @@ public class ReportService {
     }
 
     private ResponseEntity<byte[]> generateReport(DateRange dateRange, String filename) {
-        ReportDto report = generateReportData(dateRange);
+        ReportDto report = generateReportData(dateRange, null);
         byte[] reportBytes = convertToJsonBytes(report);
         HttpHeaders headers = createDownloadHeaders(filename);
         return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
     }
 
-    private ReportDto generateReportData(DateRange dateRange) {
-        log.info("Generating report for date range: {}", dateRange);
-        log.info("Fetching report data from database" + getCompletedOrdersCount(dateRange).toString());
-        return ReportDto.builder()
-                .totalOrders(getCompletedOrdersCount(dateRange))
-                .totalAmount(getTotalSalesAmount(dateRange))
-                .averageAmount(getAverageSalesAmount(dateRange))
-                .salesByCategory(getCategorySales(dateRange))
-                .build();
-    }
-
-    private Number getCompletedOrdersCount(DateRange dateRange) {
-        return orderRepository.countOrderByOrderTimeBetweenAndStatus(
-                dateRange.start(),
-                dateRange.end(),
-                OrderStatus.PICKED_UP
-        );
-    }
-
-    private Double getTotalSalesAmount(DateRange dateRange) {
-        return orderRepository.sumTotalPriceByOrderTimeBetweenAndStatus(
-                dateRange.start(),
-                dateRange.end(),
-                OrderStatus.PICKED_UP
-        );
+    public ResponseEntity<byte[]> generateReport(DateRange dateRange, ReportGranularity granularity) {
+        ReportDto report = generateReportData(dateRange, granularity);
+        HttpHeaders headers = createDownloadHeaders("report.json");
+        return new ResponseEntity<>(convertToJsonBytes(report), headers, HttpStatus.OK);
     }
 
-    private Double getAverageSalesAmount(DateRange dateRange) {
-        return orderRepository.averageTotalPriceByOrderTimeBetweenAndStatus(
-                dateRange.start(),
-                dateRange.end(),
-                OrderStatus.PICKED_UP
-        );
+    public int rebuildRollups(DateRange dateRange) {
+        return salesRollupService.rebuild(dateRange);
     }
 
-    private Map<String, Number> getCategorySales(DateRange dateRange) {
-        List<Object[]> categorySalesData = orderRepository.countItemsSoldByCategory(OrderStatus.PICKED_UP, dateRange.start(), dateRange.end());
-        Map<String, Number> categorySalesMap = new HashMap<>();
-
-        for (Object[] result : categorySalesData) {
-            Category category = (Category) result[0];
-            Number count = (Number) result[1];
-            categorySalesMap.put(category.name(), count);
-        }
-
-        return categorySalesMap;
+    private ReportDto generateReportData(DateRange dateRange, ReportGranularity granularity) {
+        log.info("Generating report for date range: {}", dateRange);
+        return salesRollupService.summarize(dateRange, granularity);
     }
 
     private byte[] convertToJsonBytes(ReportDto report) {
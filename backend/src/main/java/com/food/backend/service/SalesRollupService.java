@@ -0,0 +1,222 @@
+package com.food.backend.service;
+
+import com.food.backend.dto.ReportBucketDto;
+import com.food.backend.dto.ReportDto;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.ReportGranularity;
+import com.food.backend.model.HourlySalesRollup;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.model.SalesRollupBackfill;
+import com.food.backend.repository.HourlySalesRollupRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.repository.SalesRollupBackfillRepository;
+import com.food.backend.utils.other.DateRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Keeps hourly sales rollups of picked up orders and answers reports from them. Every order is
+ * added to the hour of its order time when it is picked up, and taken out again if it leaves
+ * that status, so a report only reads a handful of rows per hour instead of scanning orders.
+ * <p>
+ * Report ranges are widened to whole hours: an hour is included when it starts inside the range
+ * or contains the range start.
+ * <p>
+ * The first time an instance starts against a database without rollups, it fills them from the
+ * orders picked up before. A marker row keeps this from running again, or on two instances at once.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+    static final String BACKFILL = "hourly-sales";
+    // bounds the orders a backfill holds in memory at once
+    private static final int BACKFILL_CHUNK_DAYS = 30;
+
+    private final HourlySalesRollupRepository hourlySalesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final SalesRollupBackfillRepository salesRollupBackfillRepository;
+    private final TransactionTemplate backfillTransaction;
+
+    public SalesRollupService(HourlySalesRollupRepository hourlySalesRollupRepository,
+                              OrderRepository orderRepository,
+                              SalesRollupBackfillRepository salesRollupBackfillRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.hourlySalesRollupRepository = hourlySalesRollupRepository;
+        this.orderRepository = orderRepository;
+        this.salesRollupBackfillRepository = salesRollupBackfillRepository;
+        this.backfillTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fills the rollups from every order picked up so far, unless that was done before. The marker is
+     * inserted first in the same transaction, so a second instance starting at the same time waits for
+     * it and then skips, and a failed backfill leaves no marker and runs again on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        try {
+            Integer rows = backfillTransaction.execute(status -> {
+                if (salesRollupBackfillRepository.existsById(BACKFILL)) {
+                    return null;
+                }
+                salesRollupBackfillRepository.saveAndFlush(new SalesRollupBackfill(BACKFILL, LocalDateTime.now()));
+                return backfill();
+            });
+            if (rows != null) {
+                log.info("Backfilled {} sales rollup rows from earlier orders", rows);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.info("Sales rollups are being backfilled by another instance");
+        }
+    }
+
+    private int backfill() {
+        Optional<LocalDateTime> firstOrderTime = orderRepository.findFirstOrderTime();
+        Optional<LocalDateTime> lastOrderTime = orderRepository.findLastOrderTime();
+        if (firstOrderTime.isEmpty() || lastOrderTime.isEmpty()) {
+            return 0;
+        }
+        int rows = 0;
+        LocalDateTime chunkStart = firstOrderTime.get().truncatedTo(ChronoUnit.HOURS);
+        while (!chunkStart.isAfter(lastOrderTime.get())) {
+            LocalDateTime chunkEnd = chunkStart.plusDays(BACKFILL_CHUNK_DAYS).minusSeconds(1);
+            rows += rebuild(new DateRange(chunkStart, chunkEnd));
+            chunkStart = chunkStart.plusDays(BACKFILL_CHUNK_DAYS);
+        }
+        return rows;
+    }
+
+    @Transactional
+    public void recordPickedUp(Order order) {
+        apply(order, 1);
+    }
+
+    @Transactional
+    public void revertPickedUp(Order order) {
+        apply(order, -1);
+    }
+
+    private void apply(Order order, int sign) {
+        LocalDateTime bucketStart = order.getOrderTime().truncatedTo(ChronoUnit.HOURS);
+        // rows are always locked in category order, so two pickups in the same hour cannot deadlock
+        Map<String, HourlySalesRollup> rows = new TreeMap<>();
+        HourlySalesRollup total = rows.computeIfAbsent(HourlySalesRollup.ALL_CATEGORIES, c -> new HourlySalesRollup(bucketStart, c));
+        total.setOrderCount(1);
+        total.setSalesAmount(order.getTotalPrice() != null ? order.getTotalPrice() : 0);
+        for (OrderItem item : Optional.ofNullable(order.getOrderItems()).orElse(List.of())) {
+            HourlySalesRollup row = rows.computeIfAbsent(item.getItem().getCategory().name(), c -> new HourlySalesRollup(bucketStart, c));
+            row.setOrderCount(1);
+            row.setItemsSold(row.getItemsSold() + item.getQuantity());
+            row.setSalesAmount(row.getSalesAmount() + item.getTotalPrice());
+            total.setItemsSold(total.getItemsSold() + item.getQuantity());
+        }
+
+        for (HourlySalesRollup row : rows.values()) {
+            if (increment(row, sign) == 0) {
+                hourlySalesRollupRepository.insertIfMissing(bucketStart, row.getCategory());
+                increment(row, sign);
+            }
+        }
+    }
+
+    private int increment(HourlySalesRollup row, int sign) {
+        return hourlySalesRollupRepository.increment(row.getBucketStart(), row.getCategory(),
+                sign * row.getOrderCount(), sign * row.getItemsSold(), sign * row.getSalesAmount());
+    }
+
+    @Transactional(readOnly = true)
+    public ReportDto summarize(DateRange dateRange, ReportGranularity granularity) {
+        LocalDateTime start = dateRange.start().truncatedTo(ChronoUnit.HOURS);
+        long totalOrders = 0;
+        double totalAmount = 0;
+        Map<String, Number> salesByCategory = new HashMap<>();
+        for (Object[] result : hourlySalesRollupRepository.summarizeByCategory(start, dateRange.end())) {
+            String category = (String) result[0];
+            long orders = ((Number) result[1]).longValue();
+            long itemsSold = ((Number) result[2]).longValue();
+            if (HourlySalesRollup.ALL_CATEGORIES.equals(category)) {
+                totalOrders = orders;
+                totalAmount = ((Number) result[3]).doubleValue();
+            } else if (itemsSold != 0) {
+                salesByCategory.put(category, itemsSold);
+            }
+        }
+
+        return ReportDto.builder()
+                .totalOrders(totalOrders)
+                .totalAmount(totalOrders == 0 ? null : totalAmount)
+                .averageAmount(totalOrders == 0 ? null : totalAmount / totalOrders)
+                .salesByCategory(salesByCategory)
+                .series(granularity == null ? null : getSeries(start, dateRange.end(), granularity))
+                .build();
+    }
+
+    private List<ReportBucketDto> getSeries(LocalDateTime start, LocalDateTime end, ReportGranularity granularity) {
+        ChronoUnit unit = granularity == ReportGranularity.DAILY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        Map<LocalDateTime, ReportBucketDto> buckets = new LinkedHashMap<>();
+        for (HourlySalesRollup row : hourlySalesRollupRepository.findOrderTotals(start, end)) {
+            ReportBucketDto bucket = buckets.computeIfAbsent(row.getBucketStart().truncatedTo(unit),
+                    bucketStart -> new ReportBucketDto(bucketStart, 0L, 0.0));
+            bucket.setTotalOrders(bucket.getTotalOrders().longValue() + row.getOrderCount());
+            bucket.setTotalAmount(bucket.getTotalAmount() + row.getSalesAmount());
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    /**
+     * Recomputes the rollups of a range from the orders table, for example after correcting orders
+     * by hand. Pickups that happen while this runs may be counted twice or not at all,
+     * so run it outside opening hours.
+     */
+    @Transactional
+    public int rebuild(DateRange dateRange) {
+        LocalDateTime start = dateRange.start().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = dateRange.end().truncatedTo(ChronoUnit.HOURS).plusHours(1).minusNanos(1);
+        hourlySalesRollupRepository.deleteByBucketStartBetween(start, end);
+
+        Map<LocalDateTime, Map<String, HourlySalesRollup>> rollups = new HashMap<>();
+        for (Object[] result : orderRepository.findOrderTotals(OrderStatus.PICKED_UP, start, end)) {
+            HourlySalesRollup total = getRollup(rollups, (LocalDateTime) result[0], HourlySalesRollup.ALL_CATEGORIES);
+            total.setOrderCount(total.getOrderCount() + 1);
+            total.setSalesAmount(total.getSalesAmount() + (result[1] != null ? ((Number) result[1]).doubleValue() : 0));
+        }
+        Map<Object, Set<String>> categoriesPerOrder = new HashMap<>();
+        for (Object[] result : orderRepository.findItemTotals(OrderStatus.PICKED_UP, start, end)) {
+            LocalDateTime orderTime = (LocalDateTime) result[0];
+            String category = ((Category) result[1]).name();
+            int quantity = ((Number) result[2]).intValue();
+            HourlySalesRollup row = getRollup(rollups, orderTime, category);
+            if (categoriesPerOrder.computeIfAbsent(result[4], _ -> new HashSet<>()).add(category)) {
+                row.setOrderCount(row.getOrderCount() + 1);
+            }
+            row.setItemsSold(row.getItemsSold() + quantity);
+            row.setSalesAmount(row.getSalesAmount() + ((Number) result[3]).doubleValue());
+            HourlySalesRollup total = getRollup(rollups, orderTime, HourlySalesRollup.ALL_CATEGORIES);
+            total.setItemsSold(total.getItemsSold() + quantity);
+        }
+
+        List<HourlySalesRollup> rows = rollups.values().stream().flatMap(byCategory -> byCategory.values().stream()).toList();
+        hourlySalesRollupRepository.saveAll(rows);
+        log.info("Rebuilt {} sales rollup rows from {} to {}", rows.size(), start, end);
+        return rows.size();
+    }
+
+    private static HourlySalesRollup getRollup(Map<LocalDateTime, Map<String, HourlySalesRollup>> rollups,
+                                               LocalDateTime orderTime, String category) {
+        LocalDateTime bucketStart = orderTime.truncatedTo(ChronoUnit.HOURS);
+        return rollups.computeIfAbsent(bucketStart, _ -> new HashMap<>())
+                .computeIfAbsent(category, c -> new HourlySalesRollup(bucketStart, c));
+    }
+}
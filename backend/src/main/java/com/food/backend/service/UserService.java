@@ -1,6 +1,8 @@
 package com.food.backend.service;
 
 import com.food.backend.dto.UserDto;
+import com.food.backend.dto.UserSummaryDto;
+import com.food.backend.model.Role;
 import com.food.backend.model.User;
 import com.food.backend.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -8,20 +10,31 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    public UserService(UserRepository userRepository) {
+    private final AuthenticatedUserCache authenticatedUserCache;
+    public UserService(UserRepository userRepository, AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
-    public List<User> allUsers() {
-        List<User> users = new ArrayList<>();
-        userRepository.findAll().forEach(users::add);
-        return users;
+    public List<UserSummaryDto> allUsers() {
+        Map<Long, UserSummaryDto> users = new LinkedHashMap<>();
+        for (Object[] row : userRepository.findAllWithRoles()) {
+            UserSummaryDto user = users.computeIfAbsent((Long) row[0],
+                    id -> new UserSummaryDto(id, (String) row[1], (Boolean) row[2], EnumSet.noneOf(Role.class)));
+            if (row[3] != null) {
+                user.getRoles().add((Role) row[3]);
+            }
+        }
+        return new ArrayList<>(users.values());
     }
 
     public Optional<User> findUserById(Long id) {
@@ -34,6 +47,7 @@ public class UserService {
     public Optional<User> deleteUserById(Long id) {
         Optional<User> user = userRepository.findById(id);
         userRepository.deleteById(id);
+        authenticatedUserCache.evictUser(id);
         return user;
     }
     public Optional<User> updateUserById(Long id, UserDto userDto) {
@@ -45,6 +59,7 @@ public class UserService {
         userToUpdate.setUsername(userDto.getUserName());
         userToUpdate.setRoles(userDto.getRoles());
         userRepository.save(userToUpdate);
+        authenticatedUserCache.evictUser(userToUpdate.getId());
     }
 
     public static Boolean hasRoles(UserDto userDto) {
@@ -1,6 +1,10 @@
 package com.food.backend.utils.classes;
 
+import com.food.backend.utils.other.SerializedResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 public class ResponseUtil {
@@ -18,4 +22,59 @@ public class ResponseUtil {
         ApiResponse<T> response = new ApiResponse<>(null, message, HttpStatus.BAD_REQUEST.value());
         return ResponseEntity.badRequest().body(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends a stored JSON body, gzip-compressed when the client accepts it, or a 304 without a body
+     * when the client already has the content. Clients must revalidate before reusing a copy.
+     */
+    public static ResponseEntity<byte[]> serializedJsonResponse(SerializedResponse response, String ifNoneMatch,
+                                                                String acceptEncoding) {
+        boolean gzip = response.hasGzipBody() && acceptsGzip(acceptEncoding);
+        String etag = gzip ? response.gzipEtag() : response.etag();
+        if (ifNoneMatch != null && matchesAny(ifNoneMatch, response)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? response.gzipBody() : response.body());
+    }
+
+    /**
+     * Either representation matches, since both carry the same content.
+     */
+    private static boolean matchesAny(String ifNoneMatch, SerializedResponse response) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(response.etag()) || trimmed.equals(response.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package com.food.backend.utils.other;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change versions are the wall clock in microseconds, strictly increasing within an instance.
+ * They are taken while a change is written rather than when it commits, and instance clocks
+ * differ slightly, so a version only counts as settled once it is older than a settle window
+ * that covers both. No change with a version at or below a settled version commits later.
+ */
+public final class ChangeVersion {
+    private static final AtomicLong lastIssued = new AtomicLong();
+
+    private ChangeVersion() {
+    }
+
+    public static long next() {
+        long now = currentMicros();
+        return lastIssued.updateAndGet(previous -> Math.max(previous + 1, now));
+    }
+
+    /**
+     * @return the highest version that can no longer be followed by a late commit
+     */
+    public static long settled(Duration settleWindow) {
+        return currentMicros() - settleWindow.toNanos() / 1_000;
+    }
+
+    private static long currentMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,20 @@
+package com.food.backend.utils.other;
+
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Optional criteria of the order listing. A null or empty criterion matches every order.
+ */
+public record OrderFilter(Set<OrderStatus> statuses, OrderType orderType, Long preparedById,
+                          LocalDateTime from, LocalDateTime to) {
+
+    public OrderFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.food.backend.utils.other;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once and sent as is, with a strong ETag derived from its content.
+ * Bodies of at least {@link #GZIP_MIN_SIZE} bytes also keep a gzip-compressed copy, which is a
+ * separate representation with its own ETag.
+ */
+public record SerializedResponse(byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+    public static final int GZIP_MIN_SIZE = 1024;
+
+    public static SerializedResponse of(byte[] body) {
+        String tag = contentTag(body);
+        if (body.length < GZIP_MIN_SIZE) {
+            return new SerializedResponse(body, "\"" + tag + "\"", null, null);
+        }
+        return new SerializedResponse(body, "\"" + tag + "\"", gzip(body), "\"" + tag + "-gzip\"");
+    }
+
+    public boolean hasGzipBody() {
+        return gzipBody != null;
+    }
+
+    /**
+     * Same content gives the same tag on every instance, so revalidation survives restarts and
+     * load balancing.
+     */
+    private static String contentTag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.food.backend.config;
+
+import com.food.backend.model.Role;
+import com.food.backend.model.User;
+import com.food.backend.service.AuthenticatedUserCache;
+import com.food.backend.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET_KEY = "c2VjcmV0LWtleS1mb3Itand0LWZpbHRlci10ZXN0cy1vbmx5LTEyMzQ1Njc4OTA=";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private JwtService jwtService;
+    private AuthenticatedUserCache authenticatedUserCache;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtService = new JwtService(SECRET_KEY, 3_600_000);
+        authenticatedUserCache = new AuthenticatedUserCache(60_000, 100);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, authenticatedUserCache);
+        user = new User("cook", "secret");
+        user.setId(7L);
+        user.setEnabled(true);
+        user.setRoles(Set.of(Role.ROLE_EMPLOYEE));
+        when(userDetailsService.loadUserByUsername("cook")).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldLoadTheUserOncePerToken() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken(user);
+
+        // Act
+        MockHttpServletResponse first = filter(token);
+        MockHttpServletResponse second = filter(token);
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        verify(userDetailsService, times(1)).loadUserByUsername("cook");
+    }
+
+    @Test
+    void doFilter_ShouldLoadTheUserAgainAfterItChanged() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken(user);
+        filter(token);
+
+        // Act
+        authenticatedUserCache.evictUser(user.getId());
+        filter(token);
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("cook");
+    }
+
+    @Test
+    void doFilter_ExpiredToken_ShouldReturnUnauthorized() throws Exception {
+        // Arrange
+        String token = new JwtService(SECRET_KEY, -1_000).generateToken(user);
+
+        // Act
+        MockHttpServletResponse response = filter(token);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Token has expired"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_ForeignSignature_ShouldReturnUnauthorized() throws Exception {
+        // Arrange
+        String token = new JwtService("b3RoZXIta2V5LWZvci1qd3QtZmlsdGVyLXRlc3RzLW9ubHktMTIzNDU2Nzg5MA==", 3_600_000)
+                .generateToken(user);
+
+        // Act
+        MockHttpServletResponse response = filter(token);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Token is not valid"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (chain.getRequest() != null) {
+            assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        }
+        return response;
+    }
+}
@@ -1,6 +1,7 @@
 package com.food.backend.controllers;
 
 import com.food.backend.controller.EventController;
+import com.food.backend.dto.boarddtos.OrderBoardSnapshotDto;
 import com.food.backend.service.LiveOrderBoard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -108,4 +109,18 @@ class EventControllerTest {
         assertThrows(RuntimeException.class, () -> eventController.handleMessage());
         verify(liveOrderBoard, times(1)).getOrderBoardState();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getSnapshot_ShouldReturnBoardSnapshot() {
+        // Arrange
+        OrderBoardSnapshotDto snapshot = new OrderBoardSnapshotDto(7, new TreeSet<>(Set.of("1")), Set.of("2"));
+        when(liveOrderBoard.getSnapshot()).thenReturn(snapshot);
+
+        // Act
+        OrderBoardSnapshotDto result = eventController.getSnapshot();
+
+        // Assert
+        assertSame(snapshot, result);
+        verify(liveOrderBoard, times(1)).getSnapshot();
+    }
+}
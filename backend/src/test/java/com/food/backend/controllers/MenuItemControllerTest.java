@@ -0,0 +1,112 @@
+package com.food.backend.controllers;
+
+import com.food.backend.controller.MenuItemController;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.service.MenuItemService;
+import com.food.backend.utils.other.SerializedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MenuItemControllerTest {
+
+    @Mock
+    private MenuItemService menuItemService;
+
+    private MenuItemController menuItemController;
+    private SerializedResponse menu;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        menuItemController = new MenuItemController(menuItemService);
+        menu = SerializedResponse.of(("[" + "{\"name\":\"Shoyu\"},".repeat(100) + "{\"name\":\"Miso\"}]")
+                .getBytes(StandardCharsets.UTF_8));
+        when(menuItemService.findAllSerialized()).thenReturn(menu);
+    }
+
+    @Test
+    void getMenuItems_ShouldSendStoredBodyWithETag() {
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItems(null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(menu.body(), response.getBody());
+        assertEquals(menu.etag(), response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getMenuItems_MatchingETag_ShouldReturnNotModifiedWithoutBody() {
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItems("\"other\", " + menu.etag(), null);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(menu.etag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void getMenuItems_StaleETag_ShouldSendBody() {
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItems("\"stale\"", null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(menu.body(), response.getBody());
+    }
+
+    @Test
+    void getMenuItems_AcceptsGzip_ShouldSendCompressedBody() throws Exception {
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItems(null, "br, gzip;q=0.8");
+
+        // Assert
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(menu.gzipEtag(), response.getHeaders().getETag());
+        assertNotEquals(menu.etag(), menu.gzipEtag());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertArrayEquals(menu.body(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void getMenuItems_GzipRefused_ShouldSendPlainBody() {
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItems(null, "gzip;q=0, identity");
+
+        // Assert
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(menu.body(), response.getBody());
+    }
+
+    @Test
+    void getMenuItemsByCategory_ShouldSendTheCategoryBody() {
+        // Arrange
+        SerializedResponse ramen = SerializedResponse.of("[]".getBytes(StandardCharsets.UTF_8));
+        when(menuItemService.findByCategorySerialized(Category.RAMEN)).thenReturn(ramen);
+
+        // Act
+        ResponseEntity<byte[]> response = menuItemController.getMenuItemsByCategory(Category.RAMEN, null, "gzip");
+
+        // Assert
+        // too small to be worth compressing
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(ramen.body(), response.getBody());
+        verify(menuItemService, times(1)).findByCategorySerialized(Category.RAMEN);
+    }
+}
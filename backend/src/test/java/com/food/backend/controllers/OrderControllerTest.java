@@ -3,6 +3,7 @@ package com.food.backend.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.backend.dto.orderdtos.CreateOrderDto;
 import com.food.backend.dto.orderdtos.CreateOrderItemDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
 import com.food.backend.dto.orderdtos.UpdateOrderStatusDto;
 import com.food.backend.dto.orderdtos.UpdatePreparedByDto;
 import com.food.backend.exception.OrderNotFoundException;
@@ -49,6 +50,7 @@ class OrderControllerTest {
     private ObjectMapper objectMapper;
 
     private Order testOrder;
+    private OrderViewDto testOrderView;
     private User testUser;
     private CreateOrderDto createOrderDto;
     private static final String BASE_URL = "/api/orders";
@@ -64,6 +66,8 @@ class OrderControllerTest {
         testOrder.setOrderType(OrderType.DINE_IN);
         testOrder.setStatus(OrderStatus.IN_PREPARATION);
         testOrder.setOrderTime(LocalDateTime.now());
+        testOrderView = new OrderViewDto(1L, OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null,
+                testOrder.getOrderTime(), null, null, null, null);
 
         createOrderDto = new CreateOrderDto();
         createOrderDto.setOrderType(OrderType.DINE_IN);
@@ -106,7 +110,7 @@ class OrderControllerTest {
     @Test
     @WithMockUser
     void getOrderById_Success() throws Exception {
-        when(orderService.getOrderById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(testOrderView));
 
         mockMvc.perform(get(BASE_URL + "/1"))
                 .andExpect(status().isOk())
@@ -128,7 +132,7 @@ class OrderControllerTest {
     @Test
     @WithMockUser
     void getAllOrders_Success() throws Exception {
-        when(orderService.getAllOrdersWithItems()).thenReturn(Collections.singletonList(testOrder));
+        when(orderService.getAllOrdersWithItems()).thenReturn(Collections.singletonList(testOrderView));
 
         mockMvc.perform(get(BASE_URL))
                 .andExpect(status().isOk())
@@ -180,7 +184,7 @@ class OrderControllerTest {
     @WithMockUser
     void getOrdersByStatus_Success() throws Exception {
         when(orderService.getOrdersByStatus(OrderStatus.IN_PREPARATION))
-                .thenReturn(Collections.singletonList(testOrder));
+                .thenReturn(Collections.singletonList(testOrderView));
 
         mockMvc.perform(get(BASE_URL + "/status/IN_PREPARATION"))
                 .andExpect(status().isOk())
@@ -193,7 +197,7 @@ class OrderControllerTest {
     void getOrdersByPreparedBy_Success() throws Exception {
         when(userService.findUserById(1L)).thenReturn(Optional.of(testUser));
         when(orderService.getOrdersByPreparedBy(testUser))
-                .thenReturn(Collections.singletonList(testOrder));
+                .thenReturn(Collections.singletonList(testOrderView));
 
         mockMvc.perform(get(BASE_URL + "/preparedBy/1"))
                 .andExpect(status().isOk())
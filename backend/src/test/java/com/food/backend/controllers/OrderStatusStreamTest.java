@@ -0,0 +1,119 @@
+package com.food.backend.controllers;
+
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the whole application against an in-memory database, with the same properties as the
+ * query count tests so the context is shared.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:endpoint-query-count;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "security.jwt.secret-key=c2VjcmV0LWtleS1mb3ItcXVlcnktY291bnQtdGVzdHMtb25seS0xMjM0NTY3ODkw",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=secret",
+        "email.outbox.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class OrderStatusStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setName("Tantanmen " + System.nanoTime());
+        menuItem.setPrice(11.0);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/tantanmen.jpg");
+        menuItem = menuItemsRepository.save(menuItem);
+
+        order = new Order();
+        order.setEmail("stream@example.com");
+        order.setOrderType(OrderType.TAKE_OUT);
+        order.setStatus(OrderStatus.IN_PREPARATION);
+        order.setOrderTime(LocalDateTime.now());
+        order.setBoardCode("71");
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setItem(menuItem);
+        item.setQuantity(1);
+        item.setTotalPrice(menuItem.getPrice());
+        order.setOrderItems(List.of(item));
+        order.setTotalPrice(menuItem.getPrice());
+        order = orderRepository.save(order);
+    }
+
+    @Test
+    @WithMockUser(roles = "EMPLOYEE")
+    void statusStream_ShouldSendCurrentStatusThenEveryChange() throws Exception {
+        // Arrange
+        MvcResult stream = mockMvc.perform(get("/api/orders/" + order.getOrderId() + "/status/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        mockMvc.perform(put("/api/orders/" + order.getOrderId() + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderStatus\":\"READY_FOR_PICKUP\"}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        String events = stream.getResponse().getContentAsString();
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, stream.getResponse().getContentType());
+        int current = events.indexOf("\"status\":\"IN_PREPARATION\"");
+        int changed = events.indexOf("\"status\":\"READY_FOR_PICKUP\"");
+        assertTrue(current >= 0 && changed > current, events);
+        assertTrue(events.contains("event:status"), events);
+    }
+
+    @Test
+    void statusStream_ShouldBePublic() throws Exception {
+        mockMvc.perform(get("/api/orders/" + order.getOrderId() + "/status/stream"))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void statusStream_UnknownOrder_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/orders/987654321/status/stream"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -2,6 +2,7 @@ package com.food.backend.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.backend.dto.UserDto;
+import com.food.backend.dto.UserSummaryDto;
 import com.food.backend.model.User;
 import com.food.backend.model.Role;
 import com.food.backend.service.UserService;
@@ -37,6 +38,7 @@ class UserControllerTest {
     private ObjectMapper objectMapper;
 
     private User testUser;
+    private UserSummaryDto testUserSummary;
     private UserDto testUserDto;
 
     @BeforeEach
@@ -48,6 +50,7 @@ class UserControllerTest {
         testUser.setId(1L);
         testUser.setUsername("testUser");
         testUser.setRoles(roles);
+        testUserSummary = new UserSummaryDto(1L, "testUser", true, roles);
 
         testUserDto = new UserDto();
         testUserDto.setUserName("testUser");
@@ -135,7 +138,7 @@ class UserControllerTest {
     @Test
     @WithMockUser(roles = "MANAGER")
     void allUsers_ShouldReturnListOfUsers() throws Exception {
-        when(userService.allUsers()).thenReturn(Collections.singletonList(testUser));
+        when(userService.allUsers()).thenReturn(Collections.singletonList(testUserSummary));
 
         mockMvc.perform(get("/users/"))
                 .andExpect(status().isOk())
@@ -146,7 +149,7 @@ class UserControllerTest {
     @Test
     @WithMockUser
     void allUsers_ShouldReturnPermissionErrorOfListOfUsers() throws Exception {
-        when(userService.allUsers()).thenReturn(Collections.singletonList(testUser));
+        when(userService.allUsers()).thenReturn(Collections.singletonList(testUserSummary));
 
         mockMvc.perform(get("/users/"))
                 .andExpect(status().isForbidden());
@@ -0,0 +1,197 @@
+package com.food.backend.querycount;
+
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.model.Role;
+import com.food.backend.model.User;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.repository.UserRepository;
+import com.food.backend.service.MenuItemService;
+import com.food.backend.utils.other.ChangeVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exact SQL statement counts per request, including rendering the response with open-in-view
+ * disabled. Runs the whole application against an in-memory database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:endpoint-query-count;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "security.jwt.secret-key=c2VjcmV0LWtleS1mb3ItcXVlcnktY291bnQtdGVzdHMtb25seS0xMjM0NTY3ODkw",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=secret",
+        "email.outbox.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "MANAGER")
+class EndpointQueryCountTest {
+
+    private static final int ORDERS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter counter;
+    private User cook;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManagerFactory);
+        MenuItem menuItem = new MenuItem();
+        menuItem.setName("Shoyu " + System.nanoTime());
+        menuItem.setPrice(9.0);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/shoyu.jpg");
+        menuItem = menuItemsRepository.save(menuItem);
+
+        cook = new User("cook" + System.nanoTime(), "secret");
+        cook.setEnabled(true);
+        cook.setRoles(Set.of(Role.ROLE_EMPLOYEE, Role.ROLE_MANAGER));
+        cook = userRepository.save(cook);
+
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderRepository.save(createOrder(menuItem, cook, "9" + i)));
+        }
+    }
+
+    @Test
+    void orderReads() throws Exception {
+        Long orderId = orders.getFirst().getOrderId();
+
+        counter.assertStatements(2, "GET /api/orders",
+                () -> mockMvc.perform(get("/api/orders")).andExpect(status().isOk()));
+        counter.assertStatements(2, "GET /api/orders/page",
+                () -> mockMvc.perform(get("/api/orders/page").param("limit", "2")).andExpect(status().isOk()));
+        counter.assertStatements(2, "GET /api/orders/{id}",
+                () -> mockMvc.perform(get("/api/orders/" + orderId)).andExpect(status().isOk()));
+        counter.assertStatements(1, "GET /api/orders/{id}/status",
+                () -> mockMvc.perform(get("/api/orders/" + orderId + "/status")).andExpect(status().isOk()));
+        counter.assertStatements(2, "GET /api/orders/status/{status}",
+                () -> mockMvc.perform(get("/api/orders/status/CANCELLED")).andExpect(status().isOk()));
+        // the changed orders and the deletions, nothing to send
+        counter.assertStatements(2, "GET /api/orders/changes (idle)",
+                () -> mockMvc.perform(get("/api/orders/changes").param("since", Long.toString(ChangeVersion.next())))
+                        .andExpect(status().isNotModified()));
+        // the preparer is looked up first
+        counter.assertStatements(3, "GET /api/orders/preparedBy/{userId}",
+                () -> mockMvc.perform(get("/api/orders/preparedBy/" + cook.getId())).andExpect(status().isOk()));
+    }
+
+    @Test
+    void orderWrites_ShouldRenderTheOrderWithoutLazyLoads() throws Exception {
+        Long orderId = orders.get(1).getOrderId();
+        User waiter = new User("waiter" + System.nanoTime(), "secret");
+        waiter.setEnabled(true);
+        waiter.setRoles(Set.of(Role.ROLE_EMPLOYEE));
+        String waiterName = userRepository.save(waiter).getUsername();
+
+        // the order with its graph, then the update
+        counter.assertStatements(2, "PUT /api/orders/{id}/status",
+                () -> mockMvc.perform(put("/api/orders/" + orderId + "/status")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"orderStatus\":\"READY_FOR_PICKUP\"}"))
+                        .andExpect(status().isOk()));
+        // the order, the user, then the update
+        counter.assertStatements(3, "PATCH /api/orders/{id}/preparedBy",
+                () -> mockMvc.perform(patch("/api/orders/" + orderId + "/preparedBy")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"userName\":\"" + waiterName + "\"}"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void userAndMenuReads() throws Exception {
+        counter.assertStatements(1, "GET /users/",
+                () -> mockMvc.perform(get("/users/")).andExpect(status().isOk()));
+        counter.assertStatements(1, "GET /users/{id}",
+                () -> mockMvc.perform(get("/users/" + cook.getId())).andExpect(status().isOk()));
+    }
+
+    @Test
+    void menuReads_ShouldBeServedFromTheCatalog() throws Exception {
+        // items saved through the repository only show up after a refresh
+        menuItemService.refreshCatalog();
+        Long menuItemId = menuItemsRepository.findAll().iterator().next().getId();
+
+        counter.assertStatements(0, "GET /api/menu/",
+                () -> mockMvc.perform(get("/api/menu/")).andExpect(status().isOk()));
+        counter.assertStatements(0, "GET /api/menu/available",
+                () -> mockMvc.perform(get("/api/menu/available")).andExpect(status().isOk()));
+        counter.assertStatements(0, "GET /api/menu/category/{category}",
+                () -> mockMvc.perform(get("/api/menu/category/RAMEN")).andExpect(status().isOk()));
+        counter.assertStatements(0, "GET /api/menu/{id}",
+                () -> mockMvc.perform(get("/api/menu/" + menuItemId)).andExpect(status().isOk()));
+
+        String etag = mockMvc.perform(get("/api/menu/")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        counter.assertStatements(0, "GET /api/menu/ revalidation",
+                () -> mockMvc.perform(get("/api/menu/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(content().bytes(new byte[0])));
+    }
+
+    private static Order createOrder(MenuItem menuItem, User preparedBy, String boardCode) {
+        Order order = new Order();
+        order.setEmail("count@example.com");
+        order.setOrderType(OrderType.DINE_IN);
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setOrderTime(LocalDateTime.now());
+        order.setBoardCode(boardCode);
+        order.setPreparedBy(preparedBy);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setItem(menuItem);
+            item.setQuantity(1);
+            item.setTotalPrice(menuItem.getPrice());
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        order.setTotalPrice(menuItem.getPrice() * items.size());
+        return order;
+    }
+}
@@ -0,0 +1,155 @@
+package com.food.backend.querycount;
+
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.model.Role;
+import com.food.backend.model.User;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.repository.UserRepository;
+import com.food.backend.utils.other.OrderFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exact SQL statement counts of the repository methods behind the read endpoints. Every call
+ * runs in its own transaction, the same way it does behind a request with open-in-view disabled.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryQueryCountTest {
+
+    private static final int ORDERS = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter counter;
+    private User cook;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManagerFactory);
+        MenuItem menuItem = new MenuItem();
+        menuItem.setName("Miso " + System.nanoTime());
+        menuItem.setPrice(8.0);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/miso.jpg");
+        menuItem = menuItemsRepository.save(menuItem);
+
+        cook = new User("cook" + System.nanoTime(), "secret");
+        cook.setEnabled(true);
+        cook.setRoles(Set.of(Role.ROLE_EMPLOYEE, Role.ROLE_MANAGER));
+        cook = userRepository.save(cook);
+
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderRepository.save(createOrder(menuItem, cook)));
+        }
+    }
+
+    @Test
+    void orderRepository_findById_ShouldNotLoadAssociations() throws Exception {
+        counter.assertStatements(1, "findById", () -> orderRepository.findById(orders.getFirst().getOrderId()));
+    }
+
+    @Test
+    void orderRepository_findAll_ShouldNotSelectPerOrder() throws Exception {
+        counter.assertStatements(1, "findAll", () -> orderRepository.findAll());
+    }
+
+    @Test
+    void orderRepository_findWithItemsByOrderId_ShouldLoadTheWholeGraphInOneStatement() throws Exception {
+        Order[] loaded = new Order[1];
+        counter.assertStatements(1, "findWithItemsByOrderId",
+                () -> loaded[0] = orderRepository.findWithItemsByOrderId(orders.getFirst().getOrderId()).orElseThrow());
+
+        // outside of any session, so a missing attribute of the graph would throw here
+        counter.assertStatements(0, "reading the graph", () -> {
+            assertEquals(2, loaded[0].getOrderItems().size());
+            assertNotNull(loaded[0].getOrderItems().getFirst().getItem().getName());
+            assertEquals(cook.getUsername(), loaded[0].getPreparedBy().getUsername());
+        });
+    }
+
+    @Test
+    void orderRepository_readModels_ShouldRunOneStatementEach() throws Exception {
+        Long orderId = orders.getFirst().getOrderId();
+        List<Long> orderIds = orders.stream().map(Order::getOrderId).toList();
+        OrderFilter byCook = new OrderFilter(null, null, cook.getId(), null, null);
+
+        counter.assertStatements(1, "findOrderViewById", () -> orderRepository.findOrderViewById(orderId));
+        counter.assertStatements(1, "findOrderViews", () -> assertEquals(ORDERS, orderRepository.findOrderViews(byCook).size()));
+        counter.assertStatements(1, "findOrderViews page", () -> orderRepository.findOrderViews(byCook, null, 2));
+        counter.assertStatements(1, "findItemViewsByOrderIdIn",
+                () -> assertEquals(ORDERS * 2, orderRepository.findItemViewsByOrderIdIn(orderIds).size()));
+        counter.assertStatements(1, "findStatusById", () -> orderRepository.findStatusById(orderId));
+        counter.assertStatements(1, "findStatusEventById", () -> orderRepository.findStatusEventById(orderId));
+    }
+
+    @Test
+    void userRepository_ShouldLoadRolesWithTheUser() throws Exception {
+        User[] loaded = new User[2];
+        counter.assertStatements(1, "findByUsername", () -> loaded[0] = userRepository.findByUsername(cook.getUsername()).orElseThrow());
+        counter.assertStatements(1, "findById", () -> loaded[1] = userRepository.findById(cook.getId()).orElseThrow());
+        counter.assertStatements(1, "findAllWithRoles", () -> userRepository.findAllWithRoles());
+
+        counter.assertStatements(0, "reading the authorities", () -> {
+            assertEquals(2, loaded[0].getAuthorities().size());
+            assertEquals(2, loaded[1].getAuthorities().size());
+        });
+    }
+
+    @Test
+    void menuItemsRepository_findAll_ShouldRunOneStatement() throws Exception {
+        counter.assertStatements(1, "findAll", () -> menuItemsRepository.findAll());
+    }
+
+    private static Order createOrder(MenuItem menuItem, User preparedBy) {
+        Order order = new Order();
+        order.setEmail("count@example.com");
+        order.setOrderType(OrderType.DINE_IN);
+        order.setStatus(OrderStatus.IN_PREPARATION);
+        order.setOrderTime(LocalDateTime.now());
+        order.setPreparedBy(preparedBy);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setItem(menuItem);
+            item.setQuantity(1);
+            item.setTotalPrice(menuItem.getPrice());
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        order.setTotalPrice(menuItem.getPrice() * items.size());
+        return order;
+    }
+}
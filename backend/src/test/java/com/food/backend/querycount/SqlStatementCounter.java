@@ -0,0 +1,37 @@
+package com.food.backend.querycount;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs, so a lazy association
+ * that turns into one select per row fails a test instead of showing up in production.
+ */
+public class SqlStatementCounter {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public long count(Action action) throws Exception {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    public void assertStatements(long expected, String description, Action action) throws Exception {
+        long actual = count(action);
+        assertEquals(expected, actual, description + " ran " + actual + " SQL statements, expected " + expected);
+    }
+}
@@ -0,0 +1,117 @@
+package com.food.backend.services;
+
+import com.food.backend.model.User;
+import com.food.backend.service.AuthenticatedUserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatedUserCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T12:00:00Z"));
+    private AuthenticatedUserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticatedUserCache(60_000, 2, clock);
+    }
+
+    @Test
+    void get_ShouldReturnUserUntilTheTtlEnds() {
+        // Arrange
+        User user = createUser(1L);
+        cache.put("token", user, clock.instant().plus(Duration.ofHours(8)));
+
+        // Act & Assert
+        assertSame(user, cache.get("token"));
+        clock.advance(Duration.ofSeconds(59));
+        assertSame(user, cache.get("token"));
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void get_ShouldNotOutliveTheToken() {
+        // Arrange
+        cache.put("token", createUser(1L), clock.instant().plusSeconds(10));
+
+        // Act
+        clock.advance(Duration.ofSeconds(10));
+
+        // Assert
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_ShouldEvictTheLeastRecentlyUsedTokenWhenFull() {
+        // Arrange
+        cache.put("first", createUser(1L), null);
+        cache.put("second", createUser(2L), null);
+        cache.get("first");
+
+        // Act
+        cache.put("third", createUser(3L), null);
+
+        // Assert
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+    }
+
+    @Test
+    void evictUser_ShouldRemoveEveryTokenOfTheUser() {
+        // Arrange
+        cache = new AuthenticatedUserCache(60_000, 10, clock);
+        cache.put("phone", createUser(1L), null);
+        cache.put("laptop", createUser(1L), null);
+        cache.put("other", createUser(2L), null);
+
+        // Act
+        cache.evictUser(1L);
+
+        // Assert
+        assertNull(cache.get("phone"));
+        assertNull(cache.get("laptop"));
+        assertNotNull(cache.get("other"));
+    }
+
+    private static User createUser(Long id) {
+        User user = new User("user" + id, "secret");
+        user.setId(id);
+        return user;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.food.backend.services;
+
+import com.food.backend.model.BoardCodeCounter;
+import com.food.backend.repository.BoardCodeCounterRepository;
+import com.food.backend.service.BoardCodeAllocator;
+import com.food.backend.service.BoardCodeCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs two application contexts against one in-memory database, the way two backend
+ * instances behind a load balancer share one Postgres.
+ */
+class BoardCodeAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    private ConfigurableApplicationContext firstInstance;
+    private ConfigurableApplicationContext secondInstance;
+
+    @BeforeEach
+    void setUp() {
+        String databaseUrl = "jdbc:h2:mem:board-codes-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        firstInstance = startInstance(databaseUrl);
+        secondInstance = startInstance(databaseUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        secondInstance.close();
+        firstInstance.close();
+    }
+
+    @Test
+    void nextNumber_ShouldBeUniqueAcrossInstances() throws Exception {
+        // Arrange
+        List<BoardCodeAllocator> allocators = List.of(
+                firstInstance.getBean(BoardCodeAllocator.class),
+                secondInstance.getBean(BoardCodeAllocator.class)
+        );
+        int threadsPerInstance = 4;
+        int numbersPerThread = 250;
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(allocators.size() * threadsPerInstance);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (BoardCodeAllocator allocator : allocators) {
+            for (int t = 0; t < threadsPerInstance; t++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < numbersPerThread; i++) {
+                            long number = allocator.nextNumber();
+                            if (!numbers.add(number)) {
+                                throw new AssertionError("Number " + number + " handed out twice");
+                            }
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(errors.isEmpty(), () -> "Errors: " + errors);
+        int allocations = allocators.size() * threadsPerInstance * numbersPerThread;
+        assertEquals(allocations, numbers.size());
+        // one database round trip per block; per instance at most one partly used block and one reserved ahead
+        BoardCodeCounter counter = firstInstance.getBean(BoardCodeCounterRepository.class).findAll().getFirst();
+        assertTrue(counter.getNextValue() <= allocations + 2 * allocators.size() * BLOCK_SIZE,
+                "Reserved " + counter.getNextValue() + " numbers for " + allocations + " allocations");
+    }
+
+    @Test
+    void nextNumber_ShouldContinueWhereTheOtherInstanceStopped() {
+        // Arrange
+        BoardCodeAllocator first = firstInstance.getBean(BoardCodeAllocator.class);
+        BoardCodeAllocator second = secondInstance.getBean(BoardCodeAllocator.class);
+
+        // Act
+        long fromFirst = first.nextNumber();
+        long fromSecond = second.nextNumber();
+        long nextFromFirst = first.nextNumber();
+
+        // Assert
+        assertEquals(0, fromFirst);
+        assertEquals(BLOCK_SIZE, fromSecond);
+        assertEquals(1, nextFromFirst);
+    }
+
+    @Test
+    void nextNumber_ShouldReserveBlocksOffTheCallingThread() {
+        // Arrange
+        BoardCodeCounterService counterService = mock(BoardCodeCounterService.class);
+        AtomicLong counter = new AtomicLong();
+        Set<String> reservingThreads = ConcurrentHashMap.newKeySet();
+        when(counterService.reserveBlock(4)).thenAnswer(invocation -> {
+            reservingThreads.add(Thread.currentThread().getName());
+            return counter.getAndAdd(4);
+        });
+        BoardCodeAllocator allocator = new BoardCodeAllocator(counterService, 4);
+        allocator.reserveFirstBlock();
+
+        // Act
+        List<Long> numbers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            numbers.add(allocator.nextNumber());
+        }
+        allocator.shutdown();
+
+        // Assert
+        assertEquals(LongStream.range(0, 20).boxed().toList(), numbers);
+        assertEquals(Set.of("board-code-reserver"), reservingThreads);
+    }
+
+    private static ConfigurableApplicationContext startInstance(String databaseUrl) {
+        return new SpringApplicationBuilder(BoardCodeInstance.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + databaseUrl,
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--order-board.code-block-size=" + BLOCK_SIZE
+                );
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = BoardCodeCounter.class)
+    @EnableJpaRepositories(basePackageClasses = BoardCodeCounterRepository.class)
+    @Import({BoardCodeCounterService.class, BoardCodeAllocator.class})
+    static class BoardCodeInstance {
+    }
+}
@@ -0,0 +1,98 @@
+package com.food.backend.services;
+
+import com.food.backend.model.OutboxEmail;
+import com.food.backend.service.EmailOutboxDispatcher;
+import com.food.backend.service.EmailOutboxService;
+import com.food.backend.service.EmailService;
+import com.food.backend.utils.other.CircuitBreaker;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    private static final int FAILURE_THRESHOLD = 2;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    private GreenMail smtpServer;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        smtpServer = new GreenMail(new ServerSetup(0, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getSmtp().getPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", 1000);
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", 1000);
+
+        dispatcher = new EmailOutboxDispatcher(emailOutboxService, new EmailService(mailSender), 2,
+                10, FAILURE_THRESHOLD, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        smtpServer.stop();
+    }
+
+    @Test
+    void dispatchDueEmails_DeliversClaimedEmailsAndMarksThemSent() throws Exception {
+        when(emailOutboxService.claimDueEmails(anyInt()))
+                .thenReturn(List.of(createEmail(1L), createEmail(2L)));
+
+        dispatcher.dispatchDueEmails();
+
+        assertTrue(smtpServer.waitForIncomingEmail(5000, 2));
+        Set<String> subjects = new HashSet<>();
+        for (MimeMessage message : smtpServer.getReceivedMessages()) {
+            subjects.add(message.getSubject());
+        }
+        assertEquals(Set.of("Order 1", "Order 2"), subjects);
+        verify(emailOutboxService, timeout(5000)).markSent(1L);
+        verify(emailOutboxService, timeout(5000)).markSent(2L);
+        verify(emailOutboxService, never()).markFailed(anyLong(), any());
+    }
+
+    @Test
+    void dispatchDueEmails_ServerDown_RetriesLaterAndOpensCircuit() {
+        smtpServer.stop();
+        when(emailOutboxService.claimDueEmails(anyInt()))
+                .thenReturn(List.of(createEmail(1L), createEmail(2L)));
+
+        dispatcher.dispatchDueEmails();
+
+        verify(emailOutboxService, timeout(5000)).markFailed(eq(1L), any());
+        verify(emailOutboxService, timeout(5000)).markFailed(eq(2L), any());
+        assertEquals(CircuitBreaker.State.OPEN, dispatcher.getCircuitState());
+
+        clearInvocations(emailOutboxService);
+        dispatcher.dispatchDueEmails();
+        verify(emailOutboxService, never()).claimDueEmails(anyInt());
+    }
+
+    private static OutboxEmail createEmail(Long id) {
+        OutboxEmail email = new OutboxEmail("customer" + id + "@example.com", "Order " + id, "<p>Thank you</p>");
+        email.setId(id);
+        return email;
+    }
+}
@@ -0,0 +1,69 @@
+package com.food.backend.services;
+
+import com.food.backend.model.Enums.OutboxStatus;
+import com.food.backend.model.OutboxEmail;
+import com.food.backend.repository.OutboxEmailRepository;
+import com.food.backend.service.EmailOutboxService;
+import com.food.backend.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxServiceTest {
+
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        emailOutboxService = new EmailOutboxService(outboxEmailRepository, emailService, 3, 1000, 5000, 60_000);
+    }
+
+    @Test
+    void backoffFor_GrowsExponentiallyUpToMax() {
+        assertEquals(Duration.ofSeconds(1), emailOutboxService.backoffFor(1));
+        assertEquals(Duration.ofSeconds(2), emailOutboxService.backoffFor(2));
+        assertEquals(Duration.ofSeconds(4), emailOutboxService.backoffFor(3));
+        assertEquals(Duration.ofSeconds(5), emailOutboxService.backoffFor(4));
+        assertEquals(Duration.ofSeconds(5), emailOutboxService.backoffFor(100));
+    }
+
+    @Test
+    void markFailed_ReschedulesWithBackoff() {
+        OutboxEmail email = new OutboxEmail("customer@example.com", "subject", "body");
+        when(outboxEmailRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        emailOutboxService.markFailed(1L, "Connection refused");
+
+        assertEquals(OutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertEquals("Connection refused", email.getLastError());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void markFailed_GivesUpAfterMaxAttempts() {
+        OutboxEmail email = new OutboxEmail("customer@example.com", "subject", "body");
+        email.setAttempts(2);
+        when(outboxEmailRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        emailOutboxService.markFailed(1L, "Connection refused");
+
+        assertEquals(OutboxStatus.FAILED, email.getStatus());
+        assertEquals(3, email.getAttempts());
+    }
+}
@@ -1,16 +1,36 @@
 package com.food.backend.services;
 
+import com.food.backend.dto.boarddtos.OrderBoardEventDto;
+import com.food.backend.dto.boarddtos.OrderBoardSnapshotDto;
+import com.food.backend.model.Enums.OrderBoardEventType;
 import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.service.BoardCodeAllocator;
+import com.food.backend.service.BoardCodeCounterService;
 import com.food.backend.service.LiveOrderBoard;
+import com.food.backend.service.OrderBoardPublisher;
 import com.food.backend.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +43,11 @@ class LiveOrderBoardTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
-    @InjectMocks
+    @Mock
+    private BoardCodeCounterService boardCodeCounterService;
+
+    private OrderBoardPublisher orderBoardPublisher;
+
     private LiveOrderBoard liveOrderBoard;
 
     @BeforeEach
@@ -32,6 +56,11 @@ class LiveOrderBoardTest {
         // Simulate behavior of OrderService
         when(orderService.getOrdersByStatus(OrderStatus.IN_PREPARATION)).thenReturn(List.of());
         when(orderService.getOrdersByStatus(OrderStatus.READY_FOR_PICKUP)).thenReturn(List.of());
+        AtomicLong counter = new AtomicLong();
+        when(boardCodeCounterService.reserveBlock(anyInt())).thenAnswer(invocation -> counter.getAndAdd(invocation.<Integer>getArgument(0)));
+        orderBoardPublisher = new OrderBoardPublisher(messagingTemplate, new SimpleMeterRegistry(), 100);
+        liveOrderBoard = new LiveOrderBoard(orderService, messagingTemplate, orderBoardPublisher,
+                new BoardCodeAllocator(boardCodeCounterService, 10));
     }
 
     @Test
@@ -68,4 +97,133 @@ class LiveOrderBoardTest {
         // Assert
         verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/orderBoard"), anyMap());
     }
+
+    @Test
+    void testConcurrentTransitions_NoLostCodesOrCorruptedBroadcasts() throws Exception {
+        int threads = 8;
+        int cyclesPerThread = 250;
+        ObjectMapper objectMapper = new ObjectMapper();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicInteger maxPayloadSize = new AtomicInteger();
+        List<OrderBoardEventDto> events = new ArrayList<>(); // appended under the publisher's flush lock
+        long startSequence = liveOrderBoard.getSnapshot().getSequence();
+        AtomicInteger broadcasts = new AtomicInteger();
+        // Serialize every broadcast the way the STOMP message converter does
+        doAnswer(invocation -> {
+            List<OrderBoardEventDto> batch = invocation.getArgument(1);
+            objectMapper.writeValueAsString(batch);
+            for (OrderBoardEventDto event : batch) {
+                maxPayloadSize.accumulateAndGet(objectMapper.writeValueAsString(event).length(), Math::max);
+            }
+            events.addAll(batch);
+            broadcasts.incrementAndGet();
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq(OrderBoardPublisher.EVENTS_TOPIC), anyList());
+        Set<String> activeCodes = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < cyclesPerThread; i++) {
+                        String code = liveOrderBoard.generateOrderBoardCode();
+                        if (!activeCodes.add(code)) {
+                            throw new AssertionError("Code " + code + " handed out twice while active");
+                        }
+                        assertTrue(liveOrderBoard.getLiveOrderBoardCodes().contains(code));
+                        liveOrderBoard.moveOrderCodeToReady(code);
+                        assertTrue(liveOrderBoard.getReadyOrderBoardCodes().contains(code));
+                        activeCodes.remove(code);
+                        liveOrderBoard.removeOrderCode(code);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        while (!executor.awaitTermination(5, TimeUnit.MILLISECONDS)) {
+            orderBoardPublisher.flush();
+        }
+        orderBoardPublisher.flush();
+
+        assertTrue(errors.isEmpty(), () -> "Errors: " + errors);
+        assertTrue(liveOrderBoard.getLiveOrderBoardCodes().isEmpty());
+        assertTrue(liveOrderBoard.getReadyOrderBoardCodes().isEmpty());
+        // Every transition arrives once, in order, and replaying them ends with the empty board
+        assertEquals(threads * cyclesPerThread * 3, events.size());
+        Set<String> live = new TreeSet<>();
+        Set<String> ready = new LinkedHashSet<>();
+        long expectedSequence = startSequence;
+        for (OrderBoardEventDto event : events) {
+            assertEquals(++expectedSequence, event.getSequence());
+            apply(event, live, ready);
+        }
+        assertTrue(live.isEmpty());
+        assertTrue(ready.isEmpty());
+        assertTrue(maxPayloadSize.get() < 100);
+        assertTrue(broadcasts.get() < events.size());
+    }
+
+    @Test
+    void testTransitionsPublishDeltaEvents() {
+        long sequence = liveOrderBoard.getSnapshot().getSequence();
+        String orderCode = liveOrderBoard.generateOrderBoardCode();
+        liveOrderBoard.moveOrderCodeToReady(orderCode);
+        liveOrderBoard.moveOrderCodeToReady(orderCode);
+        liveOrderBoard.removeOrderCode(orderCode);
+        orderBoardPublisher.flush();
+
+        List<OrderBoardEventDto> events = captureBroadcastEvents();
+        assertEquals(List.of(OrderBoardEventType.ADDED, OrderBoardEventType.MOVED_TO_READY, OrderBoardEventType.REMOVED),
+                events.stream().map(OrderBoardEventDto::getType).toList());
+        assertEquals(List.of(sequence + 1, sequence + 2, sequence + 3),
+                events.stream().map(OrderBoardEventDto::getSequence).toList());
+        assertTrue(events.stream().allMatch(event -> orderCode.equals(event.getCode())));
+        // Only the startup broadcast carries the full board
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/orderBoard"), anyMap());
+    }
+
+    @Test
+    void testSnapshotCarriesLatestSequence() {
+        String first = liveOrderBoard.generateOrderBoardCode();
+        String second = liveOrderBoard.generateOrderBoardCode();
+        liveOrderBoard.moveOrderCodeToReady(first);
+
+        OrderBoardSnapshotDto snapshot = liveOrderBoard.getSnapshot();
+        orderBoardPublisher.flush();
+
+        List<OrderBoardEventDto> events = captureBroadcastEvents();
+        assertEquals(events.getLast().getSequence(), snapshot.getSequence());
+        assertEquals(Set.of(second), snapshot.getLiveOrderBoardCodes());
+        assertEquals(Set.of(first), snapshot.getLiveOrderBoardReadyCodes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderBoardEventDto> captureBroadcastEvents() {
+        ArgumentCaptor<List<OrderBoardEventDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(OrderBoardPublisher.EVENTS_TOPIC), captor.capture());
+        return captor.getValue();
+    }
+
+    private static void apply(OrderBoardEventDto event, Set<String> live, Set<String> ready) {
+        switch (event.getType()) {
+            case ADDED -> live.add(event.getCode());
+            case MOVED_TO_READY -> {
+                live.remove(event.getCode());
+                ready.add(event.getCode());
+            }
+            case MOVED_TO_LIVE -> {
+                ready.remove(event.getCode());
+                live.add(event.getCode());
+            }
+            case REMOVED -> {
+                live.remove(event.getCode());
+                ready.remove(event.getCode());
+            }
+        }
+    }
 }
@@ -0,0 +1,183 @@
+package com.food.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.MenuItem;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.service.MenuItemService;
+import com.food.backend.utils.other.SerializedResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class MenuItemServiceTest {
+
+    @Mock
+    private MenuItemsRepository menuItemsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private MenuItemService menuItemService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        menuItemService = new MenuItemService(menuItemsRepository, transactionManager, meterRegistry, objectMapper);
+    }
+
+    @Test
+    void catalogReads_LoadTheMenuOnce() {
+        // Arrange
+        MenuItem unavailable = createMenuItem(2L, false);
+        unavailable.setCategory(Category.UDON_NOODLES);
+        when(menuItemsRepository.findAll()).thenReturn(List.of(createMenuItem(1L, true), unavailable));
+
+        // Act
+        List<MenuItem> all = menuItemService.findAll();
+        List<MenuItem> available = menuItemService.findByAvailable(true);
+        List<MenuItem> udon = menuItemService.findByCategory(Category.UDON_NOODLES);
+        List<MenuItem> riceNoodles = menuItemService.findByCategory(Category.RICE_NOODLES);
+        MenuItem byName = menuItemService.findByNameIgnoreCase("ITEM 2").orElseThrow();
+        MenuItem byId = menuItemService.findById(1L).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L, 2L), all.stream().map(MenuItem::getId).toList());
+        assertEquals(List.of(1L), available.stream().map(MenuItem::getId).toList());
+        assertEquals(List.of(unavailable), udon);
+        assertTrue(riceNoodles.isEmpty());
+        assertSame(unavailable, byName);
+        assertEquals(1L, byId.getId());
+        assertTrue(menuItemService.findById(3L).isEmpty());
+        verify(menuItemsRepository, times(1)).findAll();
+        assertEquals(1, meterRegistry.get("menu.catalog.lookups").tag("result", "miss").counter().count());
+        assertEquals(6, meterRegistry.get("menu.catalog.lookups").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("menu.catalog.items").gauge().value());
+    }
+
+    @Test
+    void concurrentFirstReads_LoadTheMenuOnce() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        when(menuItemsRepository.findAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            Thread.sleep(100);
+            return List.of(createMenuItem(1L, true));
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<List<MenuItem>>> reads = new ArrayList<>();
+        reads.add(readers.submit(menuItemService::findAll));
+        loading.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            reads.add(readers.submit(menuItemService::findAll));
+        }
+        for (Future<List<MenuItem>> read : reads) {
+            assertEquals(1, read.get(5, TimeUnit.SECONDS).size());
+        }
+        readers.shutdown();
+
+        // Assert
+        verify(menuItemsRepository, times(1)).findAll();
+        assertEquals(1, meterRegistry.get("menu.catalog.rebuild").timer().count());
+    }
+
+    @Test
+    void serializedViews_MatchTheCatalog() throws Exception {
+        // Arrange
+        when(menuItemsRepository.findAll()).thenReturn(List.of(createMenuItem(1L, true), createMenuItem(2L, false)));
+
+        // Act
+        SerializedResponse all = menuItemService.findAllSerialized();
+        SerializedResponse available = menuItemService.findAvailableSerialized();
+        SerializedResponse riceNoodles = menuItemService.findByCategorySerialized(Category.RICE_NOODLES);
+
+        // Assert
+        assertArrayEquals(objectMapper.writeValueAsBytes(menuItemService.findAll()), all.body());
+        assertArrayEquals(objectMapper.writeValueAsBytes(menuItemService.findByAvailable(true)), available.body());
+        assertEquals("[]", new String(riceNoodles.body(), StandardCharsets.UTF_8));
+        assertNotEquals(all.etag(), available.etag());
+        verify(menuItemsRepository, times(1)).findAll();
+    }
+
+    @Test
+    void changeAvailability_RebuildsTheCatalog() {
+        // Arrange
+        MenuItem stored = createMenuItem(1L, true);
+        MenuItem changed = createMenuItem(1L, false);
+        when(menuItemsRepository.findAll()).thenReturn(List.of(stored)).thenReturn(List.of(changed));
+        when(menuItemsRepository.findById(1L)).thenReturn(Optional.of(createMenuItem(1L, true)));
+        when(menuItemsRepository.save(any(MenuItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        assertEquals(1, menuItemService.findByAvailable(true).size());
+        String etagBefore = menuItemService.findAllSerialized().etag();
+
+        // Act
+        menuItemService.changeAvailability(1L);
+
+        // Assert
+        assertTrue(menuItemService.findByAvailable(true).isEmpty());
+        assertEquals(List.of(changed), menuItemService.findByAvailable(false));
+        verify(menuItemsRepository, times(2)).findAll();
+        assertNotEquals(etagBefore, menuItemService.findAllSerialized().etag());
+        assertEquals(2, meterRegistry.get("menu.catalog.rebuild").timer().count());
+    }
+
+    @Test
+    void findAvailableByIds_ReturnsItemsKeyedById() {
+        when(menuItemsRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(createMenuItem(1L, true), createMenuItem(2L, true)));
+
+        Map<Long, MenuItem> menuItems = menuItemService.findAvailableByIds(Set.of(1L, 2L));
+
+        assertEquals(Set.of(1L, 2L), menuItems.keySet());
+        verify(menuItemsRepository, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    void findAvailableByIds_UnknownId_Throws() {
+        when(menuItemsRepository.findAllById(anyCollection())).thenReturn(List.of(createMenuItem(1L, true)));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> menuItemService.findAvailableByIds(Set.of(1L, 3L)));
+        assertTrue(exception.getMessage().contains("3"));
+    }
+
+    @Test
+    void findAvailableByIds_UnavailableItem_Throws() {
+        when(menuItemsRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(createMenuItem(1L, true), createMenuItem(2L, false)));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> menuItemService.findAvailableByIds(Set.of(1L, 2L)));
+        assertTrue(exception.getMessage().contains("Item 2"));
+    }
+
+    private static MenuItem createMenuItem(Long id, boolean available) {
+        return new MenuItem(id, "Item " + id, null, 10.0, available, Category.RAMEN, "http://example.com/" + id + ".jpg");
+    }
+}
@@ -0,0 +1,113 @@
+package com.food.backend.services;
+
+import com.food.backend.dto.boarddtos.OrderBoardEventDto;
+import com.food.backend.model.Enums.OrderBoardEventType;
+import com.food.backend.service.OrderBoardPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderBoardPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderBoardPublisher orderBoardPublisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        orderBoardPublisher = new OrderBoardPublisher(messagingTemplate, meterRegistry, 100);
+        orderBoardPublisher.reset(0);
+    }
+
+    @Test
+    void flush_ShouldCoalesceBurstIntoOneBroadcast() {
+        // Arrange
+        for (long sequence = 1; sequence <= 50; sequence++) {
+            orderBoardPublisher.submit(event(sequence));
+        }
+
+        // Act
+        orderBoardPublisher.flush();
+        orderBoardPublisher.flush();
+
+        // Assert
+        List<OrderBoardEventDto> batch = captureSingleBroadcast();
+        assertEquals(50, batch.size());
+        assertEquals(1, batch.getFirst().getSequence());
+        assertEquals(50, batch.getLast().getSequence());
+        assertEquals(50, meterRegistry.get("orderboard.updates").counter().count());
+        assertEquals(49, meterRegistry.get("orderboard.updates.coalesced").counter().count());
+        assertEquals(1, meterRegistry.get("orderboard.broadcasts").counter().count());
+        assertEquals(1, meterRegistry.get("orderboard.flush.latency").timer().count());
+    }
+
+    @Test
+    void flush_ShouldHoldBackEventsAfterAGap() {
+        // Arrange
+        orderBoardPublisher.submit(event(1));
+        orderBoardPublisher.submit(event(3));
+
+        // Act
+        orderBoardPublisher.flush();
+
+        // Assert
+        assertEquals(List.of(1L), captureSingleBroadcast().stream().map(OrderBoardEventDto::getSequence).toList());
+
+        // Act
+        clearInvocations(messagingTemplate);
+        orderBoardPublisher.submit(event(2));
+        orderBoardPublisher.flush();
+
+        // Assert
+        assertEquals(List.of(2L, 3L), captureSingleBroadcast().stream().map(OrderBoardEventDto::getSequence).toList());
+    }
+
+    @Test
+    void flush_ShouldNotBroadcastWhenNothingChanged() {
+        // Act
+        orderBoardPublisher.flush();
+
+        // Assert
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(0, meterRegistry.get("orderboard.broadcasts").counter().count());
+    }
+
+    @Test
+    void reset_ShouldDropEventsAtOrBelowSequence() {
+        // Arrange
+        orderBoardPublisher.submit(event(1));
+        orderBoardPublisher.submit(event(2));
+
+        // Act
+        orderBoardPublisher.reset(1);
+        orderBoardPublisher.flush();
+
+        // Assert
+        assertEquals(List.of(2L), captureSingleBroadcast().stream().map(OrderBoardEventDto::getSequence).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderBoardEventDto> captureSingleBroadcast() {
+        ArgumentCaptor<List<OrderBoardEventDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(OrderBoardPublisher.EVENTS_TOPIC), captor.capture());
+        return captor.getValue();
+    }
+
+    private static OrderBoardEventDto event(long sequence) {
+        return new OrderBoardEventDto(sequence, OrderBoardEventType.ADDED, Long.toString(sequence));
+    }
+}
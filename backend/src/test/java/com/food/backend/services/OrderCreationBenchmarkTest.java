@@ -0,0 +1,152 @@
+package com.food.backend.services;
+
+import com.food.backend.dto.orderdtos.CreateOrderDto;
+import com.food.backend.dto.orderdtos.CreateOrderItemDto;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.service.EmailOutboxService;
+import com.food.backend.service.EmailService;
+import com.food.backend.service.LiveOrderBoard;
+import com.food.backend.service.MenuItemService;
+import com.food.backend.service.OrderService;
+import com.food.backend.service.OrderChangePublisher;
+import com.food.backend.service.OrderStatusPublisher;
+import com.food.backend.service.SalesRollupService;
+import com.food.backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bounds the JDBC statements per order of {@link OrderService#createOrder} against an in-memory
+ * database, and logs its latency at debug level. Each order is committed in its own transaction,
+ * the same way a request to POST /api/orders is.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderService.class, MenuItemService.class, EmailOutboxService.class, EmailService.class,
+        SalesRollupService.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCreationBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(OrderCreationBenchmarkTest.class);
+
+    private static final int MENU_SIZE = 15;
+    private static final int WARMUP_ORDERS = 50;
+    private static final int MEASURED_ORDERS = 200;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private LiveOrderBoard liveOrderBoard;
+
+    @MockBean
+    private OrderStatusPublisher orderStatusPublisher;
+
+    @MockBean
+    private OrderChangePublisher orderChangePublisher;
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @MockBean
+    private UserService userService;
+
+    private List<Long> menuItemIds;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        when(liveOrderBoard.generateOrderBoardCode()).thenReturn("1");
+        menuItemIds = new ArrayList<>();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            menuItemIds.add(menuItemsRepository.save(createMenuItem("Bench item " + i + " " + System.nanoTime())).getId());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createOrder_LargeOrder_ShouldUseAtMostFiveStatements() {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            orderService.createOrder(createLargeOrder());
+        }
+
+        statistics.clear();
+        long[] latencies = new long[MEASURED_ORDERS];
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            CreateOrderDto dto = createLargeOrder();
+            long start = System.nanoTime();
+            orderService.createOrder(dto);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        double statementsPerOrder = (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS;
+        Arrays.sort(latencies);
+        double p50Millis = latencies[MEASURED_ORDERS / 2] / 1_000_000.0;
+        double p99Millis = latencies[(int) Math.ceil(MEASURED_ORDERS * 0.99) - 1] / 1_000_000.0;
+        log.debug("createOrder with {} items: {} statements/order, p50 {} ms, p99 {} ms",
+                MENU_SIZE, statementsPerOrder, p50Millis, p99Millis);
+
+        // order + items + outbox email
+        assertEquals(MEASURED_ORDERS, statistics.getEntityInsertCount() / (MENU_SIZE + 2));
+        // one bulk menu lookup, the order and its items as two batched inserts, one outbox insert
+        assertTrue(statementsPerOrder <= 5, "Statements per order: " + statementsPerOrder);
+        verifyNoInteractions(javaMailSender);
+    }
+
+    private CreateOrderDto createLargeOrder() {
+        CreateOrderDto dto = new CreateOrderDto();
+        dto.setEmail("bench@example.com");
+        dto.setOrderType(OrderType.TAKE_OUT);
+        List<CreateOrderItemDto> items = new ArrayList<>();
+        for (Long id : menuItemIds) {
+            CreateOrderItemDto item = new CreateOrderItemDto();
+            item.setMenuItemId(id);
+            item.setQuantity(2);
+            items.add(item);
+        }
+        dto.setOrderItems(items);
+        return dto;
+    }
+
+    private static MenuItem createMenuItem(String name) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setName(name);
+        menuItem.setPrice(9.5);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/ramen.jpg");
+        return menuItem;
+    }
+}
@@ -0,0 +1,167 @@
+package com.food.backend.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.ExportFormat;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.service.OrderExportService;
+import com.food.backend.utils.other.DateRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every test works in its own year, since orders are committed outside a test transaction.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({OrderExportService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportServiceTest {
+
+    private static final int SYNTHETIC_ORDERS = 5_000;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() {
+        menuItem = new MenuItem();
+        menuItem.setName("Tonkotsu, \"extra\" spicy " + System.nanoTime());
+        menuItem.setPrice(12.5);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/ramen.jpg");
+        menuItem = menuItemsRepository.save(menuItem);
+    }
+
+    @Test
+    void exportOrders_ShouldWriteEscapedCsvRowPerItem() throws Exception {
+        // Arrange
+        Order order = saveOrders(LocalDateTime.of(2041, 2, 3, 12, 0), 1, 2).getFirst();
+        saveOrders(LocalDateTime.of(2041, 2, 5, 12, 0), 1, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = orderExportService.exportOrders(new DateRange(
+                LocalDateTime.of(2041, 2, 3, 0, 0), LocalDateTime.of(2041, 2, 3, 23, 59)), ExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("order_id,order_time,status"));
+        assertTrue(lines[1].startsWith(order.getOrderId() + ",2041-02-03T12:00,PICKED_UP,TAKE_OUT,"));
+        assertTrue(lines[1].contains(",\"" + menuItem.getName().replace("\"", "\"\"") + "\",RAMEN,2,25.0"));
+    }
+
+    @Test
+    void exportOrders_ShouldWriteJsonObjectPerLine() throws Exception {
+        // Arrange
+        Order order = saveOrders(LocalDateTime.of(2042, 8, 1, 9, 30), 1, 3).getFirst();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        orderExportService.exportOrders(new DateRange(
+                LocalDateTime.of(2042, 8, 1, 0, 0), LocalDateTime.of(2042, 8, 1, 23, 59)), ExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals(order.getOrderId().longValue(), row.get("orderId").asLong());
+            assertEquals(menuItem.getName(), row.get("menuItemName").asText());
+            assertEquals("RAMEN", row.get("category").asText());
+        }
+    }
+
+    @Test
+    void exportOrders_SyntheticDataset_ShouldWriteEveryRow() throws Exception {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2043, 1, 1, 0, 0);
+        for (int batch = 0; batch < SYNTHETIC_ORDERS / 500; batch++) {
+            saveOrders(start.plusDays(batch), 500, ITEMS_PER_ORDER);
+        }
+        DateRange year = new DateRange(start, start.plusYears(1).minusSeconds(1));
+        CountingOutputStream out = new CountingOutputStream();
+
+        // Act
+        long rows = orderExportService.exportOrders(year, ExportFormat.CSV, out);
+
+        // Assert
+        assertEquals((long) SYNTHETIC_ORDERS * ITEMS_PER_ORDER, rows);
+        assertTrue(out.bytes > 0);
+    }
+
+    private List<Order> saveOrders(LocalDateTime orderTime, int count, int itemsPerOrder) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setEmail("export@example.com");
+            order.setOrderType(OrderType.TAKE_OUT);
+            order.setStatus(OrderStatus.PICKED_UP);
+            order.setOrderTime(orderTime);
+            order.setBoardCode(Integer.toString(i % 100));
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < itemsPerOrder; j++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setItem(menuItem);
+                item.setQuantity(2);
+                item.setTotalPrice(menuItem.getPrice() * 2);
+                items.add(item);
+            }
+            order.setOrderItems(items);
+            order.setTotalPrice(menuItem.getPrice() * 2 * itemsPerOrder);
+            orders.add(order);
+        }
+        return orderRepository.saveAll(orders);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.food.backend.services;
+
+import com.food.backend.dto.orderdtos.OrderChangesDto;
+import com.food.backend.dto.orderdtos.OrderItemViewDto;
+import com.food.backend.dto.orderdtos.OrderPageDto;
+import com.food.backend.dto.orderdtos.OrderViewDto;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.model.OrderDeletion;
+import com.food.backend.model.Role;
+import com.food.backend.model.User;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderDeletionRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.repository.UserRepository;
+import com.food.backend.service.EmailOutboxService;
+import com.food.backend.service.LiveOrderBoard;
+import com.food.backend.service.MenuItemService;
+import com.food.backend.service.OrderService;
+import com.food.backend.service.OrderChangePublisher;
+import com.food.backend.service.OrderStatusPublisher;
+import com.food.backend.service.SalesRollupService;
+import com.food.backend.service.UserService;
+import com.food.backend.utils.other.ChangeVersion;
+import com.food.backend.utils.other.OrderFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Every test works in its own year, since orders are committed outside a test transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "order-changes.settle-ms=0"
+})
+@Import(OrderService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderListingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDeletionRepository orderDeletionRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private MenuItemService menuItemService;
+
+    @MockBean
+    private LiveOrderBoard liveOrderBoard;
+
+    @MockBean
+    private OrderStatusPublisher orderStatusPublisher;
+
+    @MockBean
+    private OrderChangePublisher orderChangePublisher;
+
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private SalesRollupService salesRollupService;
+
+    private MenuItem menuItem;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        menuItem = new MenuItem();
+        menuItem.setName("Gyoza " + System.nanoTime());
+        menuItem.setPrice(6.0);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(Category.RAMEN);
+        menuItem.setPhotoUrl("http://example.com/gyoza.jpg");
+        menuItem = menuItemsRepository.save(menuItem);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getOrdersPage_ShouldWalkAllOrdersNewestFirstWithoutGapsOrDuplicates() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2051, 3, 1, 12, 0);
+        List<Order> saved = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            // pairs of orders share an order time, so the order id has to break ties
+            saved.add(saveOrder(start.plusMinutes(i / 2), OrderStatus.PICKED_UP, OrderType.TAKE_OUT, null, 2));
+        }
+        OrderFilter year = new OrderFilter(null, null, null, start, start.plusYears(1));
+
+        // Act
+        List<Long> listed = new ArrayList<>();
+        List<Integer> statementsPerPage = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            OrderPageDto page = orderService.getOrdersPage(year, cursor, 5);
+            statementsPerPage.add((int) statistics.getPrepareStatementCount());
+            page.getOrders().forEach(order -> {
+                assertEquals(2, order.getOrderItems().size());
+                listed.add(order.getOrderId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        List<Long> expected = saved.stream()
+                .sorted((a, b) -> a.getOrderTime().equals(b.getOrderTime())
+                        ? b.getOrderId().compareTo(a.getOrderId())
+                        : b.getOrderTime().compareTo(a.getOrderTime()))
+                .map(Order::getOrderId)
+                .toList();
+        assertEquals(expected, listed);
+        assertEquals(5, statementsPerPage.size());
+        // the keyset query for the orders of the page and one query for their items
+        statementsPerPage.forEach(statements -> assertEquals(2, statements));
+    }
+
+    @Test
+    void getOrdersPage_ShouldApplyFilters() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2052, 5, 1, 12, 0);
+        User cook = new User("cook" + System.nanoTime(), "secret");
+        cook.setEnabled(true);
+        cook.setRoles(Set.of(Role.ROLE_EMPLOYEE));
+        cook = userRepository.save(cook);
+        Order match = saveOrder(start, OrderStatus.IN_PREPARATION, OrderType.DINE_IN, cook, 1);
+        saveOrder(start.plusMinutes(1), OrderStatus.READY_FOR_PICKUP, OrderType.DINE_IN, cook, 1);
+        saveOrder(start.plusMinutes(2), OrderStatus.IN_PREPARATION, OrderType.TAKE_OUT, cook, 1);
+        saveOrder(start.plusMinutes(3), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        saveOrder(start.plusDays(2), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, cook, 1);
+        OrderFilter filter = new OrderFilter(Set.of(OrderStatus.IN_PREPARATION), OrderType.DINE_IN, cook.getId(),
+                start, start.plusDays(1));
+
+        // Act
+        OrderPageDto page = orderService.getOrdersPage(filter, null, 10);
+
+        // Assert
+        assertEquals(List.of(match.getOrderId()), page.getOrders().stream().map(OrderViewDto::getOrderId).toList());
+        assertEquals(cook.getUsername(), page.getOrders().getFirst().getPreparedBy().getUsername());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getOrdersByStatus_ShouldReadViewsInTwoStatements() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2053, 7, 1, 12, 0);
+        User cook = new User("chef" + System.nanoTime(), "secret");
+        cook.setEnabled(true);
+        cook.setRoles(Set.of(Role.ROLE_EMPLOYEE, Role.ROLE_MANAGER));
+        cook = userRepository.save(cook);
+        for (int i = 0; i < 20; i++) {
+            saveOrder(start.plusMinutes(i), OrderStatus.CANCELLED, OrderType.DINE_IN, cook, 3);
+        }
+
+        // Act
+        statistics.clear();
+        List<OrderViewDto> views = orderService.getOrdersByStatus(OrderStatus.CANCELLED);
+
+        // Assert
+        assertEquals(20, views.size());
+        assertEquals(3, views.getFirst().getOrderItems().size());
+        assertEquals(cook.getUsername(), views.getFirst().getPreparedBy().getUsername());
+        // the orders and the items of all of them
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrderChanges_ShouldReturnOnlyOrdersChangedSinceTheVersion() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2054, 9, 1, 12, 0);
+        Order unchanged = saveOrder(start, OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        Order updated = saveOrder(start.plusMinutes(1), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        Order deleted = saveOrder(start.plusMinutes(2), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        long since = orderService.getOrderChanges(0).orElseThrow().getVersion();
+
+        // Act
+        orderService.updateOrderStatus(updated.getOrderId(), OrderStatus.READY_FOR_PICKUP);
+        orderService.deleteOrder(deleted.getOrderId());
+        Order created = saveOrder(start.plusMinutes(3), OrderStatus.IN_PREPARATION, OrderType.TAKE_OUT, null, 2);
+        OrderChangesDto changes = orderService.getOrderChanges(since).orElseThrow();
+
+        // Assert
+        List<Long> changedIds = changes.getOrders().stream().map(OrderViewDto::getOrderId).toList();
+        assertEquals(List.of(created.getOrderId(), updated.getOrderId()), changedIds);
+        assertFalse(changedIds.contains(unchanged.getOrderId()));
+        assertEquals(OrderStatus.READY_FOR_PICKUP, changes.getOrders().get(1).getStatus());
+        assertEquals(2, changes.getOrders().getFirst().getOrderItems().size());
+        assertEquals(List.of(deleted.getOrderId()), changes.getDeletedOrderIds());
+        assertTrue(changes.getVersion() > since);
+        verify(orderChangePublisher).publishAfterCommit(updated.getOrderId());
+        verify(orderChangePublisher).publishAfterCommit(deleted.getOrderId());
+    }
+
+    @Test
+    void getOrderChanges_NothingChanged_ShouldBeEmptyAfterTwoStatements() {
+        // Arrange
+        saveOrder(LocalDateTime.of(2055, 1, 1, 12, 0), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        long since = orderService.getOrderChanges(0).orElseThrow().getVersion();
+
+        // Act
+        statistics.clear();
+        Optional<OrderChangesDto> changes = orderService.getOrderChanges(since);
+
+        // Assert
+        assertTrue(changes.isEmpty());
+        // the changed orders and the deletions
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrderChanges(-1));
+    }
+
+    @Test
+    void getOrderChanges_OlderThanTheDeletionRetention_ShouldReturnASnapshot() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2055, 3, 1, 12, 0);
+        Order kept = saveOrder(start, OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        Order deleted = saveOrder(start.plusMinutes(1), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 1);
+        orderService.deleteOrder(deleted.getOrderId());
+
+        // Act
+        OrderChangesDto changes = orderService.getOrderChanges(1).orElseThrow();
+
+        // Assert
+        List<Long> orderIds = changes.getOrders().stream().map(OrderViewDto::getOrderId).toList();
+        assertTrue(changes.isSnapshot());
+        assertTrue(orderIds.contains(kept.getOrderId()));
+        assertFalse(orderIds.contains(deleted.getOrderId()));
+        assertTrue(changes.getDeletedOrderIds().isEmpty());
+    }
+
+    @Test
+    void purgeOrderDeletions_ShouldOnlyForgetDeletionsOlderThanTheRetention() {
+        // Arrange
+        orderDeletionRepository.save(new OrderDeletion(9_000_001L, 1));
+        orderDeletionRepository.save(new OrderDeletion(9_000_002L, ChangeVersion.next()));
+
+        // Act
+        orderService.purgeOrderDeletions();
+
+        // Assert
+        assertFalse(orderDeletionRepository.existsById(9_000_001L));
+        assertTrue(orderDeletionRepository.existsById(9_000_002L));
+    }
+
+    @Test
+    void getItemsByOrderIds_ShouldReturnTheItemsOfEveryOrderInOneStatement() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2056, 3, 1, 12, 0);
+        Order first = saveOrder(start, OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 2);
+        Order second = saveOrder(start.plusMinutes(1), OrderStatus.IN_PREPARATION, OrderType.TAKE_OUT, null, 3);
+        Order empty = saveOrder(start.plusMinutes(2), OrderStatus.IN_PREPARATION, OrderType.DINE_IN, null, 0);
+        long missingOrderId = Long.MAX_VALUE;
+
+        // Act
+        statistics.clear();
+        Map<Long, List<OrderItemViewDto>> items = orderService.getItemsByOrderIds(
+                List.of(second.getOrderId(), first.getOrderId(), empty.getOrderId(), missingOrderId));
+
+        // Assert
+        assertEquals(List.of(second.getOrderId(), first.getOrderId(), empty.getOrderId(), missingOrderId),
+                List.copyOf(items.keySet()));
+        assertEquals(3, items.get(second.getOrderId()).size());
+        assertEquals(2, items.get(first.getOrderId()).size());
+        assertEquals(menuItem.getName(), items.get(first.getOrderId()).getFirst().getItem().getName());
+        assertTrue(items.get(empty.getOrderId()).isEmpty());
+        assertTrue(items.get(missingOrderId).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getItemsByOrderIds_TooManyOrders_ShouldThrow() {
+        List<Long> orderIds = LongStream.rangeClosed(1, OrderService.MAX_PAGE_SIZE + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getItemsByOrderIds(orderIds));
+    }
+
+    @Test
+    void getOrdersPage_ShouldRejectInvalidCursorAndLimit() {
+        OrderFilter filter = new OrderFilter(null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersPage(filter, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersPage(filter, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersPage(filter, null, OrderService.MAX_PAGE_SIZE + 1));
+    }
+
+    private Order saveOrder(LocalDateTime orderTime, OrderStatus status, OrderType type, User preparedBy, int items) {
+        Order order = new Order();
+        order.setEmail("listing@example.com");
+        order.setOrderType(type);
+        order.setStatus(status);
+        order.setOrderTime(orderTime);
+        order.setPreparedBy(preparedBy);
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setItem(menuItem);
+            item.setQuantity(1);
+            item.setTotalPrice(menuItem.getPrice());
+            orderItems.add(item);
+        }
+        order.setOrderItems(orderItems);
+        order.setTotalPrice(menuItem.getPrice() * items);
+        return orderRepository.save(order);
+    }
+}
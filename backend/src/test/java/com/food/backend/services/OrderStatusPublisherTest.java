@@ -0,0 +1,197 @@
+package com.food.backend.services;
+
+import com.food.backend.dto.orderdtos.OrderStatusEventDto;
+import com.food.backend.exception.OrderNotFoundException;
+import com.food.backend.exception.TooManyStreamsException;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Order;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.service.OrderStatusPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderStatusPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final BlockingQueue<OrderStatusEventDto> sent = new LinkedBlockingQueue<>();
+    private OrderStatusPublisher orderStatusPublisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        orderStatusPublisher = new OrderStatusPublisher(messagingTemplate, orderRepository, meterRegistry, 60_000, 2, 3, 4) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMs) {
+                return new RecordingEmitter(timeoutMs);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderStatusPublisher.shutdown();
+    }
+
+    @Test
+    void publishAfterCommit_WithoutTransaction_ShouldSendToTheOrderTopic() {
+        // Act
+        orderStatusPublisher.publishAfterCommit(createOrder(5L, OrderStatus.READY_FOR_PICKUP, 7L));
+
+        // Assert
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/orders/5"), event.capture());
+        OrderStatusEventDto published = (OrderStatusEventDto) event.getValue();
+        assertEquals(5L, published.getOrderId());
+        assertEquals(OrderStatus.READY_FOR_PICKUP, published.getStatus());
+        assertEquals(7L, published.getVersion());
+    }
+
+    @Test
+    void openStream_PublishRacingTheFirstStatus_ShouldEndOnTheNewerStatus() throws Exception {
+        // Arrange
+        when(orderRepository.findStatusEventById(5L)).thenAnswer(invocation -> {
+            // the status was read, then a change commits and is sent before the read status is
+            OrderStatusEventDto stale = new OrderStatusEventDto(5L, OrderStatus.IN_PREPARATION, 1L);
+            orderStatusPublisher.publishAfterCommit(createOrder(5L, OrderStatus.READY_FOR_PICKUP, 2L));
+            assertEquals(OrderStatus.READY_FOR_PICKUP, sent.poll(5, TimeUnit.SECONDS).getStatus());
+            return Optional.of(stale);
+        });
+
+        // Act
+        orderStatusPublisher.openStream(5L);
+
+        // Assert
+        assertTrue(sent.isEmpty(), () -> "Stale status sent after the newer one: " + sent);
+    }
+
+    @Test
+    void publishAfterCommit_ChangesOvertakingEachOther_ShouldNeverSendAnOlderStatus() throws Exception {
+        // Arrange
+        when(orderRepository.findStatusEventById(5L))
+                .thenReturn(Optional.of(new OrderStatusEventDto(5L, OrderStatus.IN_PREPARATION, 1L)));
+        orderStatusPublisher.openStream(5L);
+        assertEquals(1L, sent.poll(5, TimeUnit.SECONDS).getVersion());
+
+        // Act
+        orderStatusPublisher.publishAfterCommit(createOrder(5L, OrderStatus.PICKED_UP, 3L));
+        orderStatusPublisher.publishAfterCommit(createOrder(5L, OrderStatus.READY_FOR_PICKUP, 2L));
+
+        // Assert
+        OrderStatusEventDto first = sent.poll(5, TimeUnit.SECONDS);
+        OrderStatusEventDto second = sent.poll(200, TimeUnit.MILLISECONDS);
+        assertNotNull(first);
+        OrderStatusEventDto last = second != null ? second : first;
+        assertEquals(OrderStatus.PICKED_UP, last.getStatus());
+        assertTrue(second == null || second.getVersion() > first.getVersion());
+    }
+
+    @Test
+    void openStream_ShouldRegisterTheStream() {
+        // Arrange
+        when(orderRepository.findStatusEventById(5L))
+                .thenReturn(Optional.of(new OrderStatusEventDto(5L, OrderStatus.IN_PREPARATION, 1L)));
+
+        // Act
+        orderStatusPublisher.openStream(5L);
+        orderStatusPublisher.openStream(5L);
+
+        // Assert
+        assertEquals(2, meterRegistry.get("orders.status.streams").gauge().value());
+    }
+
+    @Test
+    void openStream_UnknownOrder_ShouldThrowAndKeepNoStream() {
+        // Arrange
+        when(orderRepository.findStatusEventById(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(OrderNotFoundException.class, () -> orderStatusPublisher.openStream(404L));
+        assertEquals(0, meterRegistry.get("orders.status.streams").gauge().value());
+    }
+
+    @Test
+    void openStream_OverTheOrderLimit_ShouldThrowAndKeepTheOpenStreams() {
+        // Arrange
+        when(orderRepository.findStatusEventById(5L))
+                .thenReturn(Optional.of(new OrderStatusEventDto(5L, OrderStatus.IN_PREPARATION, 1L)));
+        orderStatusPublisher.openStream(5L);
+        orderStatusPublisher.openStream(5L);
+
+        // Act
+        TooManyStreamsException exception = assertThrows(TooManyStreamsException.class,
+                () -> orderStatusPublisher.openStream(5L));
+
+        // Assert
+        assertTrue(exception.isPerOrder());
+        assertEquals(2, meterRegistry.get("orders.status.streams").gauge().value());
+    }
+
+    @Test
+    void openStream_OverTheInstanceLimit_ShouldThrow() {
+        // Arrange
+        when(orderRepository.findStatusEventById(any()))
+                .thenAnswer(invocation -> Optional.of(new OrderStatusEventDto(invocation.getArgument(0), OrderStatus.IN_PREPARATION, 1L)));
+        orderStatusPublisher.openStream(5L);
+        orderStatusPublisher.openStream(6L);
+        orderStatusPublisher.openStream(7L);
+
+        // Act
+        TooManyStreamsException exception = assertThrows(TooManyStreamsException.class,
+                () -> orderStatusPublisher.openStream(8L));
+
+        // Assert
+        assertFalse(exception.isPerOrder());
+        assertEquals(3, meterRegistry.get("orders.status.streams").gauge().value());
+    }
+
+    private static Order createOrder(Long orderId, OrderStatus status, Long changeVersion) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStatus(status);
+        order.setChangeVersion(changeVersion);
+        return order;
+    }
+
+    /**
+     * Records the status events sent to it instead of writing them to a response.
+     */
+    private final class RecordingEmitter extends SseEmitter {
+        private RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            List<Object> data = builder.build().stream().map(DataWithMediaType::getData).toList();
+            data.stream()
+                    .filter(OrderStatusEventDto.class::isInstance)
+                    .map(OrderStatusEventDto.class::cast)
+                    .forEach(sent::add);
+        }
+    }
+}
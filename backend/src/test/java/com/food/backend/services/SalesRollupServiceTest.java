@@ -0,0 +1,236 @@
+package com.food.backend.services;
+
+import com.food.backend.dto.ReportBucketDto;
+import com.food.backend.dto.ReportDto;
+import com.food.backend.model.Enums.Category;
+import com.food.backend.model.Enums.OrderStatus;
+import com.food.backend.model.Enums.OrderType;
+import com.food.backend.model.Enums.ReportGranularity;
+import com.food.backend.model.MenuItem;
+import com.food.backend.model.Order;
+import com.food.backend.model.OrderItem;
+import com.food.backend.repository.MenuItemsRepository;
+import com.food.backend.repository.OrderRepository;
+import com.food.backend.repository.SalesRollupBackfillRepository;
+import com.food.backend.service.SalesRollupService;
+import com.food.backend.utils.other.DateRange;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every test works in its own year, since the rollup rows it writes are committed. H2 runs in PostgreSQL
+ * mode for the native insert of missing rows.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:sales-rollups;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(SalesRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupServiceTest {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private SalesRollupBackfillRepository salesRollupBackfillRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MenuItem ramen;
+    private MenuItem udon;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        ramen = menuItemsRepository.save(createMenuItem("Ramen " + System.nanoTime(), Category.RAMEN, 10.0));
+        udon = menuItemsRepository.save(createMenuItem("Udon " + System.nanoTime(), Category.UDON_NOODLES, 8.0));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void summarize_ShouldMatchPickedUpOrdersInOneQuery() {
+        // Arrange
+        pickUp(createOrder(LocalDateTime.of(2031, 3, 1, 12, 15), Map.of(ramen, 2)));
+        pickUp(createOrder(LocalDateTime.of(2031, 3, 1, 12, 45), Map.of(ramen, 1, udon, 3)));
+        pickUp(createOrder(LocalDateTime.of(2031, 3, 2, 9, 5), Map.of(udon, 1)));
+        createOrder(LocalDateTime.of(2031, 3, 1, 13, 0), Map.of(ramen, 5));
+        statistics.clear();
+
+        // Act
+        ReportDto report = salesRollupService.summarize(new DateRange(
+                LocalDateTime.of(2031, 3, 1, 0, 0), LocalDateTime.of(2031, 3, 2, 23, 59, 59)), null);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3L, report.getTotalOrders());
+        assertEquals(20.0 + 34.0 + 8.0, report.getTotalAmount(), 0.001);
+        assertEquals(62.0 / 3, report.getAverageAmount(), 0.001);
+        assertEquals(Map.of("RAMEN", 3L, "UDON_NOODLES", 4L), report.getSalesByCategory());
+        assertNull(report.getSeries());
+    }
+
+    @Test
+    void summarize_ShouldReturnHourlyAndDailySeries() {
+        // Arrange
+        pickUp(createOrder(LocalDateTime.of(2032, 5, 1, 11, 10), Map.of(ramen, 1)));
+        pickUp(createOrder(LocalDateTime.of(2032, 5, 1, 12, 20), Map.of(ramen, 1)));
+        pickUp(createOrder(LocalDateTime.of(2032, 5, 2, 18, 0), Map.of(udon, 2)));
+        DateRange range = new DateRange(LocalDateTime.of(2032, 5, 1, 0, 0), LocalDateTime.of(2032, 5, 2, 23, 59, 59));
+
+        // Act
+        List<ReportBucketDto> hourly = salesRollupService.summarize(range, ReportGranularity.HOURLY).getSeries();
+        List<ReportBucketDto> daily = salesRollupService.summarize(range, ReportGranularity.DAILY).getSeries();
+
+        // Assert
+        assertEquals(List.of(LocalDateTime.of(2032, 5, 1, 11, 0), LocalDateTime.of(2032, 5, 1, 12, 0), LocalDateTime.of(2032, 5, 2, 18, 0)),
+                hourly.stream().map(ReportBucketDto::getBucketStart).toList());
+        assertEquals(2, daily.size());
+        assertEquals(LocalDateTime.of(2032, 5, 1, 0, 0), daily.getFirst().getBucketStart());
+        assertEquals(2L, daily.getFirst().getTotalOrders());
+        assertEquals(20.0, daily.getFirst().getTotalAmount(), 0.001);
+        assertEquals(16.0, daily.getLast().getTotalAmount(), 0.001);
+    }
+
+    @Test
+    void revertPickedUp_ShouldRemoveOrderFromRollups() {
+        // Arrange
+        Order kept = createOrder(LocalDateTime.of(2033, 1, 10, 10, 0), Map.of(ramen, 1));
+        Order reverted = createOrder(LocalDateTime.of(2033, 1, 10, 10, 30), Map.of(udon, 2));
+        pickUp(kept);
+        pickUp(reverted);
+
+        // Act
+        reverted.setStatus(OrderStatus.IN_PREPARATION);
+        orderRepository.saveAndFlush(reverted);
+        salesRollupService.revertPickedUp(reverted);
+
+        // Assert
+        ReportDto report = salesRollupService.summarize(new DateRange(
+                LocalDateTime.of(2033, 1, 10, 0, 0), LocalDateTime.of(2033, 1, 10, 23, 59, 59)), null);
+        assertEquals(1L, report.getTotalOrders());
+        assertEquals(10.0, report.getTotalAmount(), 0.001);
+        assertEquals(Map.of("RAMEN", 1L), report.getSalesByCategory());
+    }
+
+    @Test
+    void rebuild_ShouldMatchIncrementalRollups() {
+        // Arrange
+        pickUp(createOrder(LocalDateTime.of(2034, 7, 4, 12, 15), Map.of(ramen, 2, udon, 1)));
+        pickUp(createOrder(LocalDateTime.of(2034, 7, 4, 19, 45), Map.of(udon, 3)));
+        DateRange range = new DateRange(LocalDateTime.of(2034, 7, 4, 0, 0), LocalDateTime.of(2034, 7, 4, 23, 59, 59));
+        ReportDto incremental = salesRollupService.summarize(range, ReportGranularity.HOURLY);
+
+        // Act
+        salesRollupService.rebuild(range);
+        ReportDto rebuilt = salesRollupService.summarize(range, ReportGranularity.HOURLY);
+
+        // Assert
+        assertEquals(incremental, rebuilt);
+        assertEquals(2L, rebuilt.getTotalOrders());
+    }
+
+    @Test
+    void revertPickedUp_OrderNeverCounted_ShouldNotGoBelowZero() {
+        // Arrange
+        Order counted = createOrder(LocalDateTime.of(2035, 2, 3, 10, 0), Map.of(ramen, 1));
+        Order neverCounted = createOrder(LocalDateTime.of(2035, 2, 3, 11, 0), Map.of(ramen, 2, udon, 1));
+        pickUp(counted);
+
+        // Act
+        salesRollupService.revertPickedUp(neverCounted);
+
+        // Assert
+        DateRange day = new DateRange(LocalDateTime.of(2035, 2, 3, 0, 0), LocalDateTime.of(2035, 2, 3, 23, 59, 59));
+        ReportDto report = salesRollupService.summarize(day, ReportGranularity.HOURLY);
+        assertEquals(1L, report.getTotalOrders());
+        assertEquals(10.0, report.getTotalAmount(), 0.001);
+        assertEquals(1L, report.getSalesByCategory().get("RAMEN"));
+        assertEquals(0L, report.getSalesByCategory().getOrDefault("UDON_NOODLES", 0L));
+    }
+
+    @Test
+    void backfillOnce_ShouldCountEarlierPickupsOnlyTheFirstTime() {
+        // Arrange
+        salesRollupBackfillRepository.deleteAll();
+        DateRange day = new DateRange(LocalDateTime.of(2036, 6, 1, 0, 0), LocalDateTime.of(2036, 6, 1, 23, 59, 59));
+        Order earlier = createOrder(LocalDateTime.of(2036, 6, 1, 12, 0), Map.of(ramen, 1));
+        earlier.setStatus(OrderStatus.PICKED_UP);
+        orderRepository.saveAndFlush(earlier);
+
+        // Act
+        salesRollupService.backfillOnce();
+        ReportDto backfilled = salesRollupService.summarize(day, null);
+        Order later = createOrder(LocalDateTime.of(2036, 6, 1, 13, 0), Map.of(udon, 1));
+        later.setStatus(OrderStatus.PICKED_UP);
+        orderRepository.saveAndFlush(later);
+        salesRollupService.backfillOnce();
+
+        // Assert
+        assertEquals(1L, backfilled.getTotalOrders());
+        assertEquals(1L, salesRollupService.summarize(day, null).getTotalOrders());
+        assertTrue(salesRollupBackfillRepository.existsById("hourly-sales"));
+    }
+
+    private void pickUp(Order order) {
+        order.setStatus(OrderStatus.PICKED_UP);
+        orderRepository.saveAndFlush(order);
+        salesRollupService.recordPickedUp(order);
+    }
+
+    private Order createOrder(LocalDateTime orderTime, Map<MenuItem, Integer> items) {
+        Order order = new Order();
+        order.setEmail("report@example.com");
+        order.setOrderType(OrderType.TAKE_OUT);
+        order.setStatus(OrderStatus.IN_PREPARATION);
+        order.setOrderTime(orderTime);
+        List<OrderItem> orderItems = new ArrayList<>();
+        double total = 0;
+        for (Map.Entry<MenuItem, Integer> entry : items.entrySet()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setItem(entry.getKey());
+            orderItem.setQuantity(entry.getValue());
+            orderItem.setTotalPrice(entry.getKey().getPrice() * entry.getValue());
+            orderItems.add(orderItem);
+            total += orderItem.getTotalPrice();
+        }
+        order.setOrderItems(orderItems);
+        order.setTotalPrice(total);
+        return orderRepository.saveAndFlush(order);
+    }
+
+    private static MenuItem createMenuItem(String name, Category category, double price) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setName(name);
+        menuItem.setPrice(price);
+        menuItem.setAvailable(true);
+        menuItem.setCategory(category);
+        menuItem.setPhotoUrl("http://example.com/item.jpg");
+        return menuItem;
+    }
+}
@@ -13,6 +13,7 @@ import sample.test.dto.UpdateUserDto;
 import sample.test.model.Role;
 import sample.test.model.User;
 import sample.test.service.UserService;
+import sample.test.utils.HttpUtils;
 
 
 import java.net.URL;
@@ -93,15 +94,19 @@ public class EditUserViewController implements Initializable {
      */
     public void setUser(Integer userId) {
         this.userId = userId;
-        setLabels();
-        setUserRole();
+        HttpUtils.onFxThread(UserService.getInstance().getUserById(userId), loadedUser -> {
+            if (loadedUser != null) {
+                user = loadedUser;
+                setLabels();
+                setUserRole();
+            }
+        });
     }
 
     /**
      * Sets the labels for the user to be edited.
      */
     private void setLabels() {
-        user = UserService.getInstance().getUserById(userId);
         usernameTextField.setText(user.getUsername());
     }
 
@@ -127,7 +132,9 @@ public class EditUserViewController implements Initializable {
         Role roleEnum = Role.valueOf(roleChoiceBox.getValue());
         updateUserDto.setRoles(Collections.singleton(roleEnum));
 
-        boolean success = UserService.getInstance().updateUser(userId, updateUserDto);
+        HttpUtils.onFxThread(UserService.getInstance().updateUser(userId, updateUserDto), success -> {
+            if (!success) System.out.println("Failed to update user.");
+        });
     }
 
 
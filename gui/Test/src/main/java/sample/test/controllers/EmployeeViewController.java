@@ -9,6 +9,7 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 import sample.test.dto.NotificationRequestDto;
@@ -17,6 +18,7 @@ import sample.test.helpers.ColumnDefinition;
 import sample.test.model.*;
 import sample.test.model.MenuItem;
 import sample.test.service.MenuItemService;
+import sample.test.service.OrderFeed;
 import sample.test.service.OrderService;
 import sample.test.service.UserService;
 import sample.test.utils.HttpUtils;
@@ -26,13 +28,13 @@ import sample.test.utils.WindowUtils;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import static sample.test.utils.NotificationUtils.sendNotification;
 
@@ -96,18 +98,17 @@ public class EmployeeViewController implements Initializable {
     private Long selectedMenuItemId;
     private ReportDownloader reportDownloader;
     private Long selectedOrderId;
-    private ScheduledExecutorService scheduler;
+    private OrderFeed orderFeed;
 
 
     /**
-     * Initializes the employee view by setting up the polling timeline, displaying the user name,
+     * Initializes the employee view by following the order changes, displaying the user name,
      * and setting the manager view if the user has manager roles.
      * It also hides buttons if the user does not have manager roles, initializes the menu and order tables,
      * and hides the dish and order panes.
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        setupPolling();
         userNameLabel.setText(UserService.getInstance().getUsername());
         showPane(ordersPane);
         setupValidationListeners();
@@ -119,24 +120,18 @@ public class EmployeeViewController implements Initializable {
         } else {
             hideButtonsIfNotManager();
         }
-        try {
-            TableUtils.initTable(menuTableView, MenuItemService.getMenuItems(), this::setMenuItemPane,
-                    Arrays.asList(new ColumnDefinition<>("ID", "id"),
-                            new ColumnDefinition<>("Name", "name"),
-                            new ColumnDefinition<>("Price", "price")), null);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        try {
-            TableUtils.initTable(ordersTableView, OrderService.getOrders(), this::setOrderPane,
-                    Arrays.asList(new ColumnDefinition<>("ID", "orderId"),
-                            new ColumnDefinition<>("Board Code", "boardCode"),
-                            new ColumnDefinition<>("Order Time", "orderTime"),
-                            new ColumnDefinition<>("Status", "status")), null);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        TableUtils.initTable(menuTableView, new ArrayList<>(), this::setMenuItemPane,
+                Arrays.asList(new ColumnDefinition<>("ID", "id"),
+                        new ColumnDefinition<>("Name", "name"),
+                        new ColumnDefinition<>("Price", "price")), null);
+        refreshTable(menuTableView, MenuItemService.getMenuItems(), MenuItem::getId);
+
+        TableUtils.initTable(ordersTableView, new ArrayList<>(), this::setOrderPane,
+                Arrays.asList(new ColumnDefinition<>("ID", "orderId"),
+                        new ColumnDefinition<>("Board Code", "boardCode"),
+                        new ColumnDefinition<>("Order Time", "orderTime"),
+                        new ColumnDefinition<>("Status", "status")), null);
+        setupOrderFeed();
         dishPane.setVisible(false);
         orderPane.setVisible(false);
     }
@@ -146,31 +141,46 @@ public class EmployeeViewController implements Initializable {
      * Sets the manager view by initializing the user table with user data.
      */
     private void setManagerView() {
-        TableUtils.initTable(userTableView, UserService.getInstance().getUsers(), this::setUserPane,
+        TableUtils.initTable(userTableView, new ArrayList<>(), this::setUserPane,
                 Arrays.asList(new ColumnDefinition<>("ID", "id"),
                         new ColumnDefinition<>("Username", "username"),
                         new ColumnDefinition<>("Roles", "roles")), null);
-
+        refreshTable(userTableView, UserService.getInstance().getUsers(), User::getId);
 
     }
 
     /**
-     * Sets up the polling timeline to refresh the orders table every 2 seconds.
+     * Loads the orders table and keeps it up to date with the order changes pushed by the backend.
      */
-    private void setupPolling() {
-        scheduler = Executors.newScheduledThreadPool(1);
+    private void setupOrderFeed() {
+        ordersTableView.addEventFilter(ScrollEvent.SCROLL, _ -> prefetchVisibleOrderItems());
+        orderFeed = new OrderFeed(changes -> Platform.runLater(() -> applyOrderChanges(changes)));
+        orderFeed.start();
+    }
 
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                var orders = OrderService.getOrders();
+    /**
+     * Applies the order changes to the orders table in place, replacing changed orders, adding new ones
+     * and removing deleted ones. A snapshot replaces the whole table.
+     */
+    private void applyOrderChanges(OrderChanges changes) {
+        if (changes.isSnapshot()) {
+            TableUtils.updateTable(ordersTableView, changes.getOrders(), Order::getOrderId);
+        } else {
+            TableUtils.applyChanges(ordersTableView, changes.getOrders(), changes.getDeletedOrderIds(), Order::getOrderId);
+        }
+        prefetchVisibleOrderItems();
+    }
 
-                Platform.runLater(() -> refreshView(ordersTableView, orderPane, orders));
-            } catch (IOException e) {
-                Platform.runLater(() -> {
-                    throw new RuntimeException(e);
-                });
-            }
-        }, 0, 2, TimeUnit.SECONDS);
+    /**
+     * Fetches the items of the orders in preparation the table shows in the background, so they are shown as soon as
+     * an order is selected.
+     */
+    private void prefetchVisibleOrderItems() {
+        List<Long> orderIds = TableUtils.getVisibleItems(ordersTableView).stream()
+                .filter(order -> OrderStatus.IN_PREPARATION.name().equals(order.getStatus()))
+                .map(Order::getOrderId)
+                .toList();
+        OrderService.prefetchOrderItems(orderIds);
     }
 
     /**
@@ -249,11 +259,12 @@ public class EmployeeViewController implements Initializable {
             totalAmountTextField.setText(selectedOrder.getTotalPrice().toString());
             orderStatusChoiceBox.setItems(FXCollections.observableArrayList(OrderStatus.values()));
             orderStatusChoiceBox.setValue(OrderService.convertOrderStatus(selectedOrder.getStatus()));
-            selectedOrderId = selectedOrder.getOrderId();
+            Long orderId = selectedOrder.getOrderId();
+            selectedOrderId = orderId;
 
             orderItemsTableView.getColumns().clear();
 
-            TableUtils.initTable(orderItemsTableView, OrderService.getOrderItems(selectedOrderId), null,
+            TableUtils.initTable(orderItemsTableView, new ArrayList<>(), null,
                     Arrays.asList(new ColumnDefinition<>("Item", "item.name"),
                             new ColumnDefinition<>("Quantity", "quantity"),
                             new ColumnDefinition<>("Total Price", "totalPrice")),
@@ -264,6 +275,12 @@ public class EmployeeViewController implements Initializable {
                             return new SimpleStringProperty(menuItem != null ? menuItem.getName() : "Unknown Item");
                         });
                     });
+            HttpUtils.onFxThread(OrderService.getOrderItems(orderId), items -> {
+                // another order may have been selected in the meantime
+                if (Objects.equals(selectedOrderId, orderId)) {
+                    TableUtils.populateTable(orderItemsTableView, items);
+                }
+            });
         } else {
             orderBoardCodeTextField.setText("");
             orderTypeTextField.setText("");
@@ -279,29 +296,31 @@ public class EmployeeViewController implements Initializable {
      */
     public void handleUserActions(ActionEvent event) throws IOException {
         if (event.getSource() == userDeleteButton) {
-            deleteEntity(selectedUserId, UserService::deleteUser, userTableView, employeePane, UserService.getInstance().getUsers());
-            refreshView(userTableView, employeePane, UserService.getInstance().getUsers());
+            deleteEntity(selectedUserId, UserService::deleteUser,
+                    () -> refreshTable(userTableView, UserService.getInstance().getUsers(), User::getId));
             employeePane.setVisible(false);
         } else if (event.getSource() == userEditButton) {
-            loadEditForm("edit-user-view.fxml", selectedUserId, userTableView, employeePane, UserService.getInstance().getUsers());
-            refreshView(userTableView, employeePane, UserService.getInstance().getUsers());
+            loadEditForm("edit-user-view.fxml", selectedUserId);
+            refreshTable(userTableView, UserService.getInstance().getUsers(), User::getId);
             employeePane.setVisible(false);
         } else if (event.getSource() == userAddButton) {
-            loadAddForm("register-view.fxml", userTableView, employeePane, UserService.getInstance().getUsers());
-            refreshView(userTableView, employeePane, UserService.getInstance().getUsers());
+            loadAddForm("register-view.fxml");
+            refreshTable(userTableView, UserService.getInstance().getUsers(), User::getId);
+            employeePane.setVisible(true);
         }
     }
 
     /**
      * Handles the menu item actions based on the button clicked.
      */
-    public void changeOrderStatusButtonOnAction(ActionEvent event) throws IOException {
+    public void changeOrderStatusButtonOnAction(ActionEvent event) {
         if (orderStatusChoiceBox.getValue() != null) {
             OrderStatus newStatus = orderStatusChoiceBox.getValue();
             UpdateOrderStatusDto updateOrderStatusDto = new UpdateOrderStatusDto(OrderService.convertOrderStatus(newStatus.toString()));
-            boolean success = OrderService.changeOrderStatus(selectedOrderId, updateOrderStatusDto);
-            if (success) System.out.println("Order status updated successfully.");
-            refreshView(ordersTableView, orderPane, OrderService.getOrders());
+            HttpUtils.onFxThread(OrderService.changeOrderStatus(selectedOrderId, updateOrderStatusDto), success -> {
+                if (success) System.out.println("Order status updated successfully.");
+                orderFeed.refresh();
+            });
             orderPane.setVisible(false);
         } else {
             System.out.println("No order status selected.");
@@ -316,16 +335,17 @@ public class EmployeeViewController implements Initializable {
             toggleMenuItemAvailability();
             dishPane.setVisible(false);
         } else if (event.getSource() == menuItemDeleteButton) {
-            deleteEntity(selectedMenuItemId, MenuItemService::deleteMenuItem, menuTableView, dishPane, MenuItemService.getMenuItems());
-            refreshView(menuTableView, dishPane, MenuItemService.getMenuItems());
+            deleteEntity(selectedMenuItemId, MenuItemService::deleteMenuItem,
+                    () -> refreshTable(menuTableView, MenuItemService.getMenuItems(), MenuItem::getId));
             dishPane.setVisible(false);
         } else if (event.getSource() == menuItemEditButton) {
-            loadEditForm("menu-item-form-view.fxml", selectedMenuItemId, menuTableView, dishPane, MenuItemService.getMenuItems());
-            refreshView(menuTableView, dishPane, MenuItemService.getMenuItems());
+            loadEditForm("menu-item-form-view.fxml", selectedMenuItemId);
+            refreshTable(menuTableView, MenuItemService.getMenuItems(), MenuItem::getId);
             dishPane.setVisible(false);
         } else if (event.getSource() == menuItemAddButton) {
-            loadAddForm("menu-item-form-view.fxml", menuTableView, dishPane, MenuItemService.getMenuItems());
-            refreshView(menuTableView, dishPane, MenuItemService.getMenuItems());
+            loadAddForm("menu-item-form-view.fxml");
+            refreshTable(menuTableView, MenuItemService.getMenuItems(), MenuItem::getId);
+            dishPane.setVisible(true);
         }
 
     }
@@ -333,10 +353,9 @@ public class EmployeeViewController implements Initializable {
     /**
      * Handles the order actions based on the button clicked.
      */
-    public void handleOrderActions(ActionEvent event) throws IOException {
+    public void handleOrderActions(ActionEvent event) {
         if (event.getSource() == deleteOrderButton) {
-            deleteEntity(selectedOrderId, OrderService::deleteOrder, ordersTableView, orderPane, OrderService.getOrders());
-            refreshView(ordersTableView, orderPane, OrderService.getOrders());
+            deleteEntity(selectedOrderId, OrderService::deleteOrder, orderFeed::refresh);
             selectedOrderId = null;
             setOrderPane(null);
         } else if (event.getSource() == changeOrderStatusButton) {
@@ -373,9 +392,7 @@ public class EmployeeViewController implements Initializable {
         String image = notificationImageField.getText();
 
         NotificationRequestDto notificationRequestDto = new NotificationRequestDto(title, body, image);
-        try {
-            String response = sendNotification("News", notificationRequestDto);
-
+        HttpUtils.onFxThread(sendNotification("News", notificationRequestDto), response -> {
             showAlert(Alert.AlertType.INFORMATION, "Success", "Notification sent successfully:\n" + response);
 
             notificationTitleField.clear();
@@ -389,10 +406,7 @@ public class EmployeeViewController implements Initializable {
                     )
             );
             timeline.play();
-
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to send notification:\n" + e.getMessage());
-        }
+        }, error -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to send notification:\n" + error.getMessage()));
 
 
     }
@@ -478,12 +492,11 @@ public class EmployeeViewController implements Initializable {
         });
     }
     /**
-     * Handles the daily and weekly report actions based on the button clicked.
+     * Opens the edit form for the entity with the id and waits until it is closed.
      */
-    private <T, V> void loadEditForm(String fxml, T id, TableView<V> tableView, AnchorPane pane, List<V> items) throws IOException {
+    private <T> void loadEditForm(String fxml, T id) throws IOException {
         if (id != null) {
             loadViewAndPassData(fxml, id);
-            refreshView(tableView, pane, items);
         } else {
             System.out.println("No entity selected.");
         }
@@ -500,61 +513,67 @@ public class EmployeeViewController implements Initializable {
                         ((EditUserViewController) controller).setUser((Integer) id);
                     } else if (controller instanceof MenuItemFormViewController) {
                         assert id instanceof Long;
-                        try {
-                            ((MenuItemFormViewController) controller).setMenuItem((Long) id);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
+                        ((MenuItemFormViewController) controller).setMenuItem((Long) id);
                     }
                 });
     }
 
     /**
-     * Loads the add form based on the fxml, table view, pane, and items.
+     * Opens the add form based on the fxml and waits until it is closed.
      */
-    private <T> void loadAddForm(String fxml, TableView<T> tableView, AnchorPane pane, List<T> items) throws IOException {
+    private void loadAddForm(String fxml) throws IOException {
         WindowUtils.loadView(fxml, "Add " + (fxml.contains("user") ? "User" : "Menu Item"), true,
                 staffPane.getScene().getWindow(), true);
-        refreshView(tableView, pane, items);
     }
 
     /**
-     * Deletes the entity based on the id, delete function, table view, pane, and items.
+     * Deletes the entity based on the id and runs the action once it is deleted.
      */
-    private <T, V> void deleteEntity(T id, PredicateWithIOException<T> deleteFunction, TableView<V> tableView, AnchorPane pane, List<V> items) throws IOException {
-        if (id != null && deleteFunction.test(id)) {
-            refreshView(tableView, pane, items);
-        } else {
+    private <T> void deleteEntity(T id, Function<T, CompletableFuture<Boolean>> deleteFunction, Runnable onDeleted) {
+        if (id == null) {
             System.out.println("Failed to delete entity or no entity selected.");
+            return;
         }
+        HttpUtils.onFxThread(deleteFunction.apply(id), success -> {
+            if (success) {
+                onDeleted.run();
+            } else {
+                System.out.println("Failed to delete entity or no entity selected.");
+            }
+        });
     }
 
     /**
      * Sets the menu item availability based on the selected menu item id.
      */
-    private void toggleMenuItemAvailability() throws IOException {
+    private void toggleMenuItemAvailability() {
         if (selectedMenuItemId != null) {
-            boolean success =  MenuItemService.setMenuItemAvailability(selectedMenuItemId);
-            if (success) System.out.println("Menu item availability updated successfully.");
-            refreshView(menuTableView, dishPane, MenuItemService.getMenuItems());
+            HttpUtils.onFxThread(MenuItemService.setMenuItemAvailability(selectedMenuItemId), success -> {
+                if (success) System.out.println("Menu item availability updated successfully.");
+                refreshTable(menuTableView, MenuItemService.getMenuItems(), MenuItem::getId);
+            });
         } else {
             System.out.println("No menu item selected.");
         }
     }
 
     /**
-     * Refreshes the view based on the table view, pane, and items.
+     * Updates the rows of the table that changed once the items are loaded, keeping the current ones if
+     * loading fails.
      */
-    private <T> void refreshView(TableView<T> tableView, AnchorPane pane, List<T> items) {
-        TableUtils.populateTable(tableView, items);
-        pane.setVisible(true);
+    private <T> void refreshTable(TableView<T> tableView, CompletableFuture<List<T>> items, Function<T, ?> idFunction) {
+        HttpUtils.onFxThread(items, loaded -> {
+            if (loaded != null) {
+                TableUtils.updateTable(tableView, loaded, idFunction);
+            }
+        });
     }
     /**
-     * Stops polling when it's no longer needed.
+     * Stops following the order changes when they're no longer needed.
      */
-    private void stopPolling() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
+    private void stopOrderFeed() {
+        if (orderFeed != null) {
+            orderFeed.stop();
         }
     }
 
@@ -562,7 +581,7 @@ public class EmployeeViewController implements Initializable {
      * Handles the daily and weekly report actions based on the button clicked.
      */
     public void closeButtonOnAction() {
-        stopPolling();
+        stopOrderFeed();
         ((Stage) closeButton.getScene().getWindow()).close();
     }
 
@@ -577,6 +596,8 @@ public class EmployeeViewController implements Initializable {
      * Handles the daily and weekly report actions based on the button clicked.
      */
     public void signOutButtonOnAction() throws IOException {
+        stopOrderFeed();
+        UserService.resetInstance();
         HttpUtils.reloadApp();
     }
 
@@ -96,16 +96,13 @@ public class LoginViewController implements Initializable {
         String password = enterPasswordField.getText();
         String loginUrl = "http://localhost:8080/auth/login";
 
-        try {
-            String jsonInputString = String.format("{\"username\":\"%s\", \"password\":\"%s\"}", username, password);
-
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(loginUrl, "POST", null, jsonInputString);
-            HttpUtils.checkIfResponseWasUnauthorized(response);
-            handleLoginResponse(response);
+        String jsonInputString = String.format("{\"username\":\"%s\", \"password\":\"%s\"}", username, password);
 
-        } catch (Exception e) {
-            loginMessageLabel.setText("Error occurred. Check your connection.");
-        }
+        HttpUtils.onFxThread(HttpUtils.sendHttpRequestAsync(loginUrl, "POST", null, jsonInputString), response -> {
+            if (!HttpUtils.checkIfTokenExpired(response.body())) {
+                handleLoginResponse(response);
+            }
+        }, error -> loginMessageLabel.setText("Error occurred. Check your connection."));
     }
 
     /**
@@ -11,8 +11,8 @@ import sample.test.dto.MenuItemDto;
 import sample.test.model.Category;
 import sample.test.model.MenuItem;
 import sample.test.service.MenuItemService;
+import sample.test.utils.HttpUtils;
 
-import java.io.IOException;
 import java.net.URL;
 import java.util.Objects;
 import java.util.ResourceBundle;
@@ -76,13 +76,16 @@ public class MenuItemFormViewController implements Initializable {
      * The method then populates the form fields with the menu item details and changes the button text to "Edit Item".
      *
      * @param menuItemId The ID of the menu item to be edited.
-     * @throws IOException If an I/O error occurs when retrieving the menu item details.
      */
-    public void setMenuItem(Long menuItemId) throws IOException {
+    public void setMenuItem(Long menuItemId) {
         this.menuItemId = menuItemId;
-        menuItem = MenuItemService.getMenuItemById(menuItemId);
-        populateFields();
         setButtonText("Edit Item");
+        HttpUtils.onFxThread(MenuItemService.getMenuItemById(menuItemId), loadedMenuItem -> {
+            if (loadedMenuItem != null) {
+                menuItem = loadedMenuItem;
+                populateFields();
+            }
+        });
     }
 
     /**
@@ -148,9 +151,8 @@ public class MenuItemFormViewController implements Initializable {
      * It displays a success message if the operation is successful or an error message if it fails.
      *
      * @param event The action event that occurs when the add item button is clicked.
-     * @throws IOException If an I/O error occurs when adding or updating the menu item.
      */
-    public void addItemButtonOnAction(ActionEvent event) throws IOException {
+    public void addItemButtonOnAction(ActionEvent event) {
         if (areFieldsValid()) {
             if (menuItemId == null) {
                 addMenuItem();
@@ -162,24 +164,22 @@ public class MenuItemFormViewController implements Initializable {
 
     /**
      * Edits the menu item.
-     *
-     * @throws IOException If an I/O error occurs when editing the menu item.
      */
-    private void editMenuItem() throws IOException {
+    private void editMenuItem() {
         MenuItemDto menuItemDto = createMenuItemDto();
-        boolean success = MenuItemService.updateMenuItem(menuItemDto, menuItemId);
-        displayResultMessage(success, "updated");
+        HttpUtils.onFxThread(MenuItemService.updateMenuItem(menuItemDto, menuItemId),
+                success -> displayResultMessage(success, "updated"),
+                error -> displayResultMessage(false, "updated"));
     }
 
     /**
      * Adds the menu item.
-     *
-     * @throws IOException If an I/O error occurs when adding the menu item.
      */
-    private void addMenuItem() throws IOException {
+    private void addMenuItem() {
         MenuItemDto menuItemDto = createMenuItemDto();
-        boolean success = MenuItemService.addMenuItem(menuItemDto);
-        displayResultMessage(success, "added");
+        HttpUtils.onFxThread(MenuItemService.addMenuItem(menuItemDto),
+                success -> displayResultMessage(success, "added"),
+                error -> displayResultMessage(false, "added"));
     }
 
     /**
@@ -1,6 +1,5 @@
 package sample.test.controllers;
 
-import com.google.gson.Gson;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -14,15 +13,12 @@ import sample.test.service.JwtTokenService;
 import sample.test.service.UserService;
 import sample.test.utils.HttpUtils;
 
-import java.io.IOException;
-import java.net.URI;
 import java.net.URL;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class responsible for handling user registration in the application.
@@ -118,9 +114,11 @@ public class RegisterViewController implements Initializable {
 
             if (jwtToken != null && !jwtToken.isBlank()) {
                 if (isUserManager()) {
-                    HttpResponse<String> response = sendRegistrationRequest(registerUserDto, jwtToken);
-                    HttpUtils.checkIfResponseWasUnauthorized(response);
-                    handleRegistrationResponse(response);
+                    HttpUtils.onFxThread(sendRegistrationRequest(registerUserDto, jwtToken), response -> {
+                        if (!HttpUtils.checkIfTokenExpired(response.body())) {
+                            handleRegistrationResponse(response);
+                        }
+                    }, error -> registrationMessageLabel.setText("Error occurred during registration."));
                 } else {
                     registrationMessageLabel.setText("Only managers can register a new user.");
                 }
@@ -158,34 +156,23 @@ public class RegisterViewController implements Initializable {
      *
      * @param registerUserDto The RegisterUserDto object containing the user input (username and password).
      * @param jwtToken        The JWT token used for authorization.
-     * @return the HttpResponse object containing the response from the server.
-     * @throws IOException          if an I/O error occurs.
-     * @throws InterruptedException if the operation is interrupted.
+     * @return the HttpResponse object containing the response from the server, completed on a background thread.
      */
-    private HttpResponse<String> sendRegistrationRequest(RegisterUserDto registerUserDto, String jwtToken) throws IOException, InterruptedException {
-        Gson gson = new Gson();
-        String jsonBody = gson.toJson(registerUserDto);
-
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("http://localhost:8080/auth/signup"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + jwtToken)
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    private CompletableFuture<HttpResponse<String>> sendRegistrationRequest(RegisterUserDto registerUserDto, String jwtToken) {
+        String jsonBody = HttpUtils.toJson(registerUserDto);
+        return HttpUtils.sendHttpRequestAsync("http://localhost:8080/auth/signup", "POST", jwtToken, jsonBody);
     }
 
     /**
      * Handles the registration response from the server.
-     * Displays a success message if the registration was successful.
+     * Displays a success message and adds the user to the cached users if the registration was successful.
      * Displays an error message if the registration failed.
      *
      * @param response The HttpResponse object containing the response from the server.
      */
     private void handleRegistrationResponse(HttpResponse<String> response) {
         if (isRegistrationSuccessful(response)) {
+            UserService.getInstance().userChanged(response.body());
             registrationMessageLabel.setText("User registered successfully.");
         } else {
             handleRegistrationFailure(response);
@@ -0,0 +1,20 @@
+package sample.test.helpers;
+
+/**
+ * Status code, decoded body and ETag of a JSON response. The body is null unless the request succeeded,
+ * the ETag is null if the server sent none.
+ */
+public record JsonResponse<T>(int statusCode, T body, String eTag) {
+
+    public JsonResponse(int statusCode, T body) {
+        this(statusCode, body, null);
+    }
+
+    public boolean isOk() {
+        return statusCode == 200;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+}
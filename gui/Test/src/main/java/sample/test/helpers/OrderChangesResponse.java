@@ -0,0 +1,11 @@
+package sample.test.helpers;
+
+import lombok.Getter;
+import lombok.Setter;
+import sample.test.model.OrderChanges;
+
+@Setter
+@Getter
+public class OrderChangesResponse {
+    private OrderChanges data;
+}
@@ -0,0 +1,14 @@
+package sample.test.helpers;
+
+import lombok.Getter;
+import lombok.Setter;
+import sample.test.model.OrderItem;
+
+import java.util.List;
+import java.util.Map;
+
+@Setter
+@Getter
+public class OrderItemsResponse {
+    private Map<Long, List<OrderItem>> data;
+}
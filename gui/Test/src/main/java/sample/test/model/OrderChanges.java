@@ -0,0 +1,18 @@
+package sample.test.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderChanges {
+    private long version;
+    private boolean snapshot;
+    private List<Order> orders;
+    private List<Long> deletedOrderIds;
+}
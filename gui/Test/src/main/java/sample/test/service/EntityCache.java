@@ -0,0 +1,160 @@
+package sample.test.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Local copy of a collection of entities from the backend, keyed by id.
+ * <p>
+ * The copy is served as it is while it is younger than the time to live. After that the next read
+ * revalidates it with the loader, which gets the ETag of the copy so it can send a conditional request;
+ * a loader answering that nothing changed renews the copy without transferring it again, and a loader
+ * answering with the changes since the copy only transfers those. Reads made while the copy is loaded
+ * share the request.
+ * <p>
+ * Changes this client makes are applied to the copy as soon as the backend accepts them. Each one
+ * bumps the version of the copy, and a load started before a change is not allowed to overwrite it,
+ * since the backend may have answered it before the change was made; the copy is kept and revalidated
+ * on the next read instead.
+ *
+ * @param <K> the type of the ids
+ * @param <T> the type of the entities
+ */
+class EntityCache<K, T> {
+
+    /**
+     * Result of a load: every entity, the entities changed and removed since the copy with the given ETag,
+     * or nothing if that copy is still current.
+     */
+    record Snapshot<K, T>(List<T> items, Collection<K> removedIds, boolean incremental, String eTag) {
+
+        static <K, T> Snapshot<K, T> of(List<T> items, String eTag) {
+            return new Snapshot<>(items, List.of(), false, eTag);
+        }
+
+        static <K, T> Snapshot<K, T> changes(List<T> changedItems, Collection<K> removedIds, String eTag) {
+            return new Snapshot<>(changedItems, removedIds, true, eTag);
+        }
+
+        static <K, T> Snapshot<K, T> notModified(String eTag) {
+            return new Snapshot<>(List.of(), List.of(), true, eTag);
+        }
+    }
+
+    interface Loader<K, T> {
+        /**
+         * Loads the entities, conditionally if the ETag is not null.
+         *
+         * @return the snapshot, or null if loading failed
+         */
+        CompletableFuture<Snapshot<K, T>> load(String eTag);
+    }
+
+    private final long timeToLiveNanos;
+    private final Function<T, K> idFunction;
+    private final Loader<K, T> loader;
+    private final LongSupplier clock;
+
+    private final Map<K, T> items = new LinkedHashMap<>();
+    private boolean loaded;
+    private long loadedAt;
+    private String eTag;
+    private long version;
+    private CompletableFuture<List<T>> pendingLoad;
+
+    EntityCache(Duration timeToLive, Function<T, K> idFunction, Loader<K, T> loader) {
+        this(timeToLive, idFunction, loader, System::nanoTime);
+    }
+
+    EntityCache(Duration timeToLive, Function<T, K> idFunction, Loader<K, T> loader, LongSupplier clock) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.idFunction = idFunction;
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns every entity, from the copy while it is fresh and from the loader otherwise.
+     *
+     * @return the entities, the stale copy if loading failed, or null if there is no copy to fall back on
+     */
+    synchronized CompletableFuture<List<T>> getAll() {
+        if (isFresh()) {
+            return CompletableFuture.completedFuture(List.copyOf(items.values()));
+        }
+        if (pendingLoad != null) {
+            return pendingLoad;
+        }
+        long loadVersion = version;
+        CompletableFuture<List<T>> load = loader.load(loaded ? eTag : null)
+                .exceptionally(e -> {
+                    System.out.println("Failed to load: " + e.getMessage());
+                    return null;
+                })
+                .thenApply(snapshot -> loadCompleted(snapshot, loadVersion));
+        if (!load.isDone()) {
+            pendingLoad = load;
+        }
+        return load;
+    }
+
+    /**
+     * @return the entity with the id if the copy is fresh and holds it, null otherwise
+     */
+    synchronized T get(K id) {
+        return isFresh() ? items.get(id) : null;
+    }
+
+    /**
+     * Adds the entity to the copy, or replaces the one with the same id.
+     */
+    synchronized void put(T item) {
+        items.put(idFunction.apply(item), item);
+        version++;
+    }
+
+    synchronized void remove(K id) {
+        items.remove(id);
+        version++;
+    }
+
+    /**
+     * Makes the next read revalidate the copy, for changes the copy cannot follow locally.
+     */
+    synchronized void invalidate() {
+        loadedAt = clock.getAsLong() - timeToLiveNanos;
+        version++;
+    }
+
+    private boolean isFresh() {
+        return loaded && clock.getAsLong() - loadedAt < timeToLiveNanos;
+    }
+
+    private synchronized List<T> loadCompleted(Snapshot<K, T> snapshot, long loadVersion) {
+        pendingLoad = null;
+        if (snapshot == null) {
+            return loaded ? List.copyOf(items.values()) : null;
+        }
+        boolean changedWhileLoading = version != loadVersion;
+        if (changedWhileLoading && loaded) {
+            // keep the local copy and its ETag, so the next read revalidates it and gets these changes again
+            return List.copyOf(items.values());
+        }
+        if (!snapshot.incremental()) {
+            items.clear();
+        }
+        snapshot.items().forEach(item -> items.put(idFunction.apply(item), item));
+        snapshot.removedIds().forEach(items::remove);
+        loaded = true;
+        // a first load that raced a change is used, but only until the next read
+        loadedAt = changedWhileLoading ? clock.getAsLong() - timeToLiveNanos : clock.getAsLong();
+        eTag = snapshot.eTag();
+        return List.copyOf(items.values());
+    }
+}
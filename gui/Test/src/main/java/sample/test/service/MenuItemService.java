@@ -1,16 +1,17 @@
 package sample.test.service;
 
-import com.google.gson.Gson;
 import sample.test.dto.MenuItemDto;
+import sample.test.helpers.JsonResponse;
 import sample.test.helpers.MenuItemResponse;
 import sample.test.model.Category;
 import sample.test.model.MenuItem;
 import sample.test.utils.HttpUtils;
 
-import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -19,6 +20,11 @@ import java.util.function.Function;
  * This class interacts with the backend API to perform CRUD operations on menu items. It provides methods to
  * retrieve, add, update, delete, and set the availability of menu items. The service utilizes Gson for JSON
  * serialization and deserialization, and handles HTTP requests through utility methods in the HttpUtils class.
+ * Every request is sent asynchronously, so the methods return futures that complete on a background thread.
+ * <p>
+ * The menu is kept in a local cache for {@link #CACHE_TIME_TO_LIVE}. Changes made through this class are applied to
+ * the cache once the backend accepts them, and an expired cache is revalidated with the ETag of the menu, so the
+ * menu is only transferred again when it changed.
  * <p>
  * Key responsibilities include:
  * - Sending HTTP requests to the backend API for menu item operations.
@@ -32,43 +38,63 @@ import java.util.function.Function;
 public class MenuItemService {
 
     private static final String BASE_URL = "http://localhost:8080/api/menu/";
-    private static final Gson gson = new Gson();
+    private static final Duration CACHE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private static final EntityCache<Long, MenuItem> cache =
+            new EntityCache<>(CACHE_TIME_TO_LIVE, MenuItem::getId, MenuItemService::loadMenuItems);
 
     /**
      * Sends an HTTP request to the specified URL with the given method and request body.
      * <p>
-     * This method uses the JwtTokenService to retrieve the JWT token for authentication. If the token is
-     * successfully retrieved, the request is sent using the HttpUtils class. If an exception occurs, an error
-     * message is printed and null is returned.
+     * This method uses the JwtTokenService to retrieve the JWT token for authentication and sends the request
+     * without blocking the caller.
      *
      * @param url         the URL to send the request to
      * @param method      the HTTP method to use (GET, POST, PUT, DELETE, PATCH)
      * @param requestBody the request body to send with the request
-     * @return the HTTP response received from the server, or null if an exception occurs
+     * @return the HTTP response received from the server
      */
-    private static HttpResponse<String> sendHttpRequest(String url, String method, String requestBody) {
-        try {
-            String token = JwtTokenService.getInstance().getJwtToken();
-            return HttpUtils.sendHttpRequest(url, method, token, requestBody);
-        } catch (Exception e) {
-            System.out.println("Failed to send " + method + " request to " + url);
-            return null;
-        }
+    private static CompletableFuture<HttpResponse<String>> sendHttpRequest(String url, String method, String requestBody) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendHttpRequestAsync(url, method, token, requestBody);
+    }
+
+    /**
+     * Sends a GET request and decodes the JSON response into the given type.
+     *
+     * @param url          the URL to send the request to
+     * @param responseType the class to decode a successful response into
+     * @return the status code and decoded body of the response
+     */
+    private static <R> CompletableFuture<JsonResponse<R>> sendJsonRequest(String url, Class<R> responseType) {
+        return sendJsonRequest(url, responseType, null);
     }
 
     /**
-     * Handles the response received from an HTTP request, checking for authorization and a successful status code.
+     * Sends a GET request, conditional if the ETag is not null, and decodes the JSON response into the given type.
+     *
+     * @param url          the URL to send the request to
+     * @param responseType the class to decode a successful response into
+     * @param eTag         the ETag of the copy the client has, or null
+     * @return the status code, decoded body and ETag of the response
+     */
+    private static <R> CompletableFuture<JsonResponse<R>> sendJsonRequest(String url, Class<R> responseType, String eTag) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendJsonRequestAsync(url, "GET", token, null, responseType, eTag);
+    }
+
+    /**
+     * Handles the response received from an HTTP request, checking for an expired token and a successful status code.
      * <p>
-     * If the response is unauthorized, the method throws an IOException. If the response status code matches the
+     * If the token has expired, the user is sent back to the login view. If the response status code matches the
      * success code, the method returns true. Otherwise, an error message is printed and false is returned.
      *
      * @param response    the HTTP response received from the server
      * @param successCode the expected success status code
      * @return true if the response is successful, false otherwise
-     * @throws IOException if the response is unauthorized
      */
-    private static boolean handleResponse(HttpResponse<String> response, int successCode) throws IOException {
-        HttpUtils.checkIfResponseWasUnauthorized(response);
+    private static boolean handleResponse(HttpResponse<String> response, int successCode) {
+        HttpUtils.checkIfTokenExpired(response.body());
         if (response.statusCode() == successCode) {
             return true;
         } else {
@@ -79,21 +105,45 @@ public class MenuItemService {
     }
 
     /**
-     * Handles the response received from a GET request, checking for authorization and a successful status code.
+     * Handles the response to a request changing a menu item, and applies the menu item the backend returned to the
+     * cache. If the menu item cannot be read from the response, the cache is revalidated on the next read instead.
+     *
+     * @param response the HTTP response received from the server
+     * @param parser   the function reading the changed menu item from the response body
+     * @return true if the response is successful, false otherwise
+     */
+    private static boolean handleChangeResponse(HttpResponse<String> response, Function<String, MenuItem> parser) {
+        if (!handleResponse(response, 200)) {
+            return false;
+        }
+        MenuItem menuItem;
+        try {
+            menuItem = parser.apply(response.body());
+        } catch (RuntimeException e) {
+            menuItem = null;
+        }
+        if (menuItem != null && menuItem.getId() != null) {
+            cache.put(menuItem);
+        } else {
+            cache.invalidate();
+        }
+        return true;
+    }
+
+    /**
+     * Handles the response received from a GET request, checking for a successful status code.
      * <p>
-     * If the response is unauthorized, the method throws an IOException. If the response status code matches the
-     * success code, the response body is converted to a Java object using the provided converter function. Otherwise,
-     * an error message is printed and null is returned.
+     * If the response status code is 200, the decoded response body is converted using the provided converter
+     * function. Otherwise, an error message is printed and null is returned.
      *
-     * @param response  the HTTP response received from the server
-     * @param converter the function to convert the response body to a Java object
+     * @param response  the decoded response received from the server
+     * @param converter the function to convert the response body
+     * @param <R>       the type the response body was decoded into
      * @param <T>       the type of object to convert the response body to
      * @return the Java object converted from the response body, or null if the response is unsuccessful
-     * @throws IOException if the response is unauthorized
      */
-    private static <T> T handleGetResponse(HttpResponse<String> response, Function<String, T> converter) throws IOException {
-        HttpUtils.checkIfResponseWasUnauthorized(response);
-        if (response.statusCode() == 200) {
+    private static <R, T> T handleGetResponse(JsonResponse<R> response, Function<R, T> converter) {
+        if (response.isOk()) {
             return converter.apply(response.body());
         } else {
             System.out.println("Error: " + response.statusCode() + " for GET request.");
@@ -102,99 +152,121 @@ public class MenuItemService {
     }
 
     /**
-     * Retrieves all menu items from the backend API.
+     * Retrieves all menu items, from the cache while it is fresh and from the backend API otherwise.
      * <p>
-     * This method sends a GET request to the API to retrieve all menu items. If the request is successful, the
-     * response body is converted to a list of MenuItem objects and returned. If an exception occurs, an error message
-     * is printed and null is returned.
+     * If the cache expired, a GET request is sent with the ETag of the cached menu, and the backend only sends the
+     * menu again if it changed. If the request is rejected, an error message is printed and the cached menu is
+     * returned, or null if there is none.
      *
-     * @return a list of all menu items retrieved from the API, or null if an exception occurs
+     * @return a list of all menu items
      */
-    public static List<MenuItem> getMenuItems() throws IOException {
-        HttpResponse<String> response = sendHttpRequest(BASE_URL, "GET", null);
-        return handleGetResponse(response, body -> {
-            MenuItem[] menuItemsArray = gson.fromJson(body, MenuItem[].class);
-            return Arrays.asList(menuItemsArray);
-        });
+    public static CompletableFuture<List<MenuItem>> getMenuItems() {
+        return cache.getAll();
     }
 
     /**
-     * Retrieves a menu item by its ID from the backend API.
+     * Retrieves a menu item by its ID, from the cache while it is fresh and from the backend API otherwise.
      * <p>
      * This method sends a GET request to the API to retrieve a menu item by its ID. If the request is successful, the
-     * response body is converted to a MenuItem object and returned. If an exception occurs, an error message is printed
-     * and null is returned.
+     * response body is decoded into a MenuItem object. If the request is rejected, an error message is printed
+     * and the menu item is null.
      *
      * @param id the ID of the menu item to retrieve
-     * @return the menu item retrieved from the API, or null if an exception occurs
+     * @return the menu item
      */
-    public static MenuItem getMenuItemById(Long id) throws IOException {
-        HttpResponse<String> response = sendHttpRequest(BASE_URL + id, "GET", null);
-        return handleGetResponse(response, body -> {
-            MenuItemResponse menuItemResponse = gson.fromJson(body, MenuItemResponse.class);
-            return menuItemResponse.getData();
-        });
+    public static CompletableFuture<MenuItem> getMenuItemById(Long id) {
+        MenuItem cached = cache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return sendJsonRequest(BASE_URL + id, MenuItemResponse.class)
+                .thenApply(response -> handleGetResponse(response, MenuItemResponse::getData));
+    }
+
+    /**
+     * Loads the menu for the cache, conditionally if the ETag of the cached menu is known.
+     *
+     * @param eTag the ETag of the cached menu, or null
+     * @return the menu, a snapshot without items if the cached menu is current, or null if the request was rejected
+     */
+    private static CompletableFuture<EntityCache.Snapshot<Long, MenuItem>> loadMenuItems(String eTag) {
+        return sendJsonRequest(BASE_URL, MenuItem[].class, eTag)
+                .thenApply(response -> {
+                    if (response.isNotModified()) {
+                        return EntityCache.Snapshot.<Long, MenuItem>notModified(response.eTag() != null ? response.eTag() : eTag);
+                    }
+                    List<MenuItem> menuItems = handleGetResponse(response, Arrays::asList);
+                    return menuItems != null ? EntityCache.Snapshot.of(menuItems, response.eTag()) : null;
+                });
     }
 
     /**
      * Adds a new menu item to the backend API.
      * <p>
      * This method sends a POST request to the API to add a new menu item. The request body contains the details of
-     * the menu item to add. If the request is successful, the method returns true. If an exception occurs, an error
-     * message is printed and false is returned.
+     * the menu item to add. If the request is successful, the future completes with true. If it is rejected, an
+     * error message is printed and the future completes with false.
      *
      * @param menuItemDto the details of the menu item to add
      * @return true if the menu item is added successfully, false otherwise
      */
-    public static boolean addMenuItem(MenuItemDto menuItemDto) throws IOException {
-        String requestBody = gson.toJson(menuItemDto);
-        HttpResponse<String> response = sendHttpRequest(BASE_URL, "POST", requestBody);
-        return handleResponse(response, 200);
+    public static CompletableFuture<Boolean> addMenuItem(MenuItemDto menuItemDto) {
+        String requestBody = HttpUtils.toJson(menuItemDto);
+        return sendHttpRequest(BASE_URL, "POST", requestBody)
+                .thenApply(response -> handleChangeResponse(response, body -> HttpUtils.parseJsonResponse(body, MenuItem.class)));
     }
 
     /**
      * Updates an existing menu item in the backend API.
      * <p>
      * This method sends a PUT request to the API to update an existing menu item. The request body contains the
-     * details of the menu item to update. If the request is successful, the method returns true. If an exception
-     * occurs, an error message is printed and false is returned.
+     * details of the menu item to update. If the request is successful, the future completes with true. If it is
+     * rejected, an error message is printed and the future completes with false.
      *
      * @param menuItemDto the details of the menu item to update
      * @param id          the ID of the menu item to update
      * @return true if the menu item is updated successfully, false otherwise
      */
-    public static boolean updateMenuItem(MenuItemDto menuItemDto, Long id) throws IOException {
-        String requestBody = gson.toJson(menuItemDto);
-        HttpResponse<String> response = sendHttpRequest(BASE_URL + id, "PUT", requestBody);
-        return handleResponse(response, 200);
+    public static CompletableFuture<Boolean> updateMenuItem(MenuItemDto menuItemDto, Long id) {
+        String requestBody = HttpUtils.toJson(menuItemDto);
+        return sendHttpRequest(BASE_URL + id, "PUT", requestBody)
+                .thenApply(response -> handleChangeResponse(response, body -> HttpUtils.parseJsonResponse(body, MenuItem.class)));
     }
 
     /**
      * Sets the availability of a menu item in the backend API.
      * <p>
      * This method sends a PATCH request to the API to set the availability of a menu item. If the request is
-     * successful, the method returns true. If an exception occurs, an error message is printed and false is returned.
+     * successful, the future completes with true. If it is rejected, an error message is printed and the future
+     * completes with false.
      *
      * @param id the ID of the menu item to set the availability of
      * @return true if the availability is set successfully, false otherwise
      */
-    public static boolean setMenuItemAvailability(Long id) throws IOException {
-        HttpResponse<String> response = sendHttpRequest(BASE_URL + "availability/" + id, "PATCH", null);
-        return handleResponse(response, 200);
+    public static CompletableFuture<Boolean> setMenuItemAvailability(Long id) {
+        return sendHttpRequest(BASE_URL + "availability/" + id, "PATCH", null)
+                .thenApply(response -> handleChangeResponse(response,
+                        body -> HttpUtils.parseJsonResponse(body, MenuItemResponse.class).getData()));
     }
 
     /**
      * Deletes a menu item from the backend API.
      * <p>
      * This method sends a DELETE request to the API to delete a menu item by its ID. If the request is successful,
-     * the method returns true. If an exception occurs, an error message is printed and false is returned.
+     * the future completes with true. If it is rejected, an error message is printed and the future completes with
+     * false.
      *
      * @param id the ID of the menu item to delete
      * @return true if the menu item is deleted successfully, false otherwise
      */
-    public static boolean deleteMenuItem(Long id) throws IOException {
-        HttpResponse<String> response = sendHttpRequest(BASE_URL + id, "DELETE", null);
-        return handleResponse(response, 200);
+    public static CompletableFuture<Boolean> deleteMenuItem(Long id) {
+        return sendHttpRequest(BASE_URL + id, "DELETE", null).thenApply(response -> {
+            boolean deleted = handleResponse(response, 200);
+            if (deleted) {
+                cache.remove(id);
+            }
+            return deleted;
+        });
     }
 
     /**
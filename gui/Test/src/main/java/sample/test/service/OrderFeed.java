@@ -0,0 +1,206 @@
+package sample.test.service;
+
+import sample.test.model.OrderChanges;
+import sample.test.utils.StompClient;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a copy of the order list up to date with as few requests as possible.
+ * <p>
+ * While the WebSocket connection to the backend is open, the order list is only fetched when the
+ * backend signals that an order changed, and then only the orders changed since the last fetch.
+ * The signal is sent once the change committed. A fetch that returned changes is followed by one
+ * more after the backend's settle window, which catches any change whose signal was lost. While the
+ * connection is down, the changes are polled instead, backing off exponentially from 2 seconds to a
+ * minute while nothing changes, and the connection is retried on every poll.
+ * <p>
+ * Changes are passed to the consumer on a background thread, the first ones holding every order.
+ */
+public class OrderFeed {
+
+    private static final URI WEB_SOCKET_URI = URI.create("ws://localhost:8080/ws");
+    private static final String ORDER_CHANGES_TOPIC = "/topic/orderChanges";
+    // order-changes.settle-ms of the backend
+    private static final long SETTLE_MS = 5_000;
+    private static final long MIN_POLL_DELAY_MS = 2_000;
+    private static final long MAX_POLL_DELAY_MS = 60_000;
+
+    private final Consumer<OrderChanges> changesConsumer;
+    private final StompClient stompClient = new StompClient();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // only used on the executor thread
+    private long version;
+    private long pollDelayMs = MIN_POLL_DELAY_MS;
+    private ScheduledFuture<?> poll;
+    private ScheduledFuture<?> followUp;
+    private boolean syncPending;
+
+    private volatile WebSocket webSocket;
+    private volatile boolean connecting;
+
+    public OrderFeed(Consumer<OrderChanges> changesConsumer) {
+        this.changesConsumer = changesConsumer;
+    }
+
+    /**
+     * Fetches every order and starts following the changes.
+     */
+    public void start() {
+        executor.execute(() -> {
+            sync();
+            connect();
+        });
+    }
+
+    /**
+     * Fetches the changes now, for example right after this client changed an order.
+     */
+    public void refresh() {
+        requestSync();
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+        StompClient.disconnect(webSocket);
+    }
+
+    private void connect() {
+        if (connecting || (webSocket != null && !webSocket.isInputClosed()) || executor.isShutdown()) {
+            return;
+        }
+        connecting = true;
+        stompClient.connect(WEB_SOCKET_URI, List.of(ORDER_CHANGES_TOPIC), new StompClient.Listener() {
+            @Override
+            public void onConnected() {
+                execute(OrderFeed.this::onConnected);
+            }
+
+            @Override
+            public void onMessage(String destination, String body) {
+                requestSync();
+            }
+
+            @Override
+            public void onClosed(Throwable error) {
+                execute(() -> onDisconnected(error));
+            }
+        }).whenComplete((openedWebSocket, error) -> {
+            connecting = false;
+            if (error != null) {
+                execute(() -> onDisconnected(error));
+            } else {
+                webSocket = openedWebSocket;
+            }
+        });
+    }
+
+    private void onConnected() {
+        System.out.println("Following order changes over WebSocket");
+        if (poll != null) {
+            poll.cancel(false);
+            poll = null;
+        }
+        pollDelayMs = MIN_POLL_DELAY_MS;
+        // catch up on whatever changed while the connection was down
+        sync();
+    }
+
+    private void onDisconnected(Throwable error) {
+        webSocket = null;
+        if (poll == null) {
+            System.out.println("Order change events unavailable, polling instead"
+                    + (error != null ? ": " + error.getMessage() : ""));
+            schedulePoll();
+        }
+    }
+
+    private void schedulePoll() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        poll = executor.schedule(() -> {
+            boolean changed = sync();
+            pollDelayMs = changed ? MIN_POLL_DELAY_MS : Math.min(pollDelayMs * 2, MAX_POLL_DELAY_MS);
+            connect();
+            schedulePoll();
+        }, pollDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Change signals arrive in bursts, so a burst is answered with one fetch.
+     */
+    private void requestSync() {
+        execute(() -> {
+            if (!syncPending) {
+                syncPending = true;
+                execute(() -> {
+                    syncPending = false;
+                    sync();
+                });
+            }
+        });
+    }
+
+    /**
+     * @return true if anything changed
+     */
+    private boolean sync() {
+        try {
+            OrderChanges changes = OrderService.getOrderChanges(version).join();
+            if (changes == null) {
+                return false;
+            }
+            version = changes.getVersion();
+            changesConsumer.accept(changes);
+            scheduleFollowUp();
+            return true;
+        } catch (CompletionException e) {
+            System.out.println("Failed to fetch order changes: " + e.getCause().getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            System.out.println("Failed to fetch order changes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fetches once more when the settle window of the last changes has passed, unless other changes
+     * come first and move it.
+     */
+    private void scheduleFollowUp() {
+        if (followUp != null) {
+            followUp.cancel(false);
+        }
+        try {
+            followUp = executor.schedule(() -> {
+                followUp = null;
+                sync();
+            }, SETTLE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the feed was stopped
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the feed was stopped
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package sample.test.service;
 
-import com.google.gson.Gson;
 import sample.test.dto.UpdateOrderStatusDto;
-import sample.test.helpers.OrderResponse;
-import sample.test.helpers.OrdersResponse;
+import sample.test.helpers.JsonResponse;
+import sample.test.helpers.OrderChangesResponse;
+import sample.test.helpers.OrderItemsResponse;
 import sample.test.model.Order;
+import sample.test.model.OrderChanges;
 import sample.test.model.OrderItem;
 import sample.test.model.OrderStatus;
 import sample.test.utils.HttpUtils;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing orders in the application.
@@ -21,7 +29,15 @@ import java.util.function.Function;
  * This class interacts with the backend API to perform various operations related to orders, including
  * retrieving orders, getting order items, changing order status, and deleting orders. It handles HTTP
  * requests and responses using utility methods from the HttpUtils class, and utilizes Gson for JSON
- * serialization and deserialization.
+ * serialization and deserialization. Every request is sent asynchronously and completes on a background
+ * thread, so callers on the FX application thread hand the results back with HttpUtils.onFxThread.
+ * <p>
+ * The order list itself is not kept here: the staff view holds it and keeps it current with
+ * {@link #getOrderChanges(long)}, which only transfers the orders changed since the version it last saw.
+ * <p>
+ * The items of orders are cached, since they are shown one order at a time. They are taken from the
+ * orders the change feed returns, and otherwise fetched for many orders in one request, ahead of time with
+ * {@link #prefetchOrderItems(Collection)} or when they are first asked for.
  * <p>
  * Key responsibilities include:
  * - Sending HTTP requests to the backend API for order operations.
@@ -35,20 +51,24 @@ import java.util.function.Function;
 public class OrderService {
 
     private static final String BASE_URL = "http://localhost:8080/api/orders";
-    private static final Gson gson = new Gson();
 
-    private static HttpResponse<String> sendHttpRequest(String url, String method, String requestBody) {
-        try {
-            String token = JwtTokenService.getInstance().getJwtToken();
-            return HttpUtils.sendHttpRequest(url, method, token, requestBody);
-        } catch (Exception e) {
-            System.out.println("Failed to send " + method + " request to " + url);
-            return null;
-        }
+    private static final int MAX_ORDERS_PER_ITEMS_REQUEST = 200;
+
+    // completed for items already known, pending while they are fetched
+    private static final Map<Long, CompletableFuture<List<OrderItem>>> orderItems = new ConcurrentHashMap<>();
+
+    private static CompletableFuture<HttpResponse<String>> sendHttpRequest(String url, String method, String requestBody) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendHttpRequestAsync(url, method, token, requestBody);
+    }
+
+    private static <R> CompletableFuture<JsonResponse<R>> sendJsonRequest(String url, Class<R> responseType) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendJsonRequestAsync(url, "GET", token, null, responseType);
     }
 
-    private static boolean handleResponse(HttpResponse<String> response) throws IOException {
-        HttpUtils.checkIfResponseWasUnauthorized(response);
+    private static boolean handleResponse(HttpResponse<String> response) {
+        HttpUtils.checkIfTokenExpired(response.body());
         if (response.statusCode() == 200) {
             return true;
         } else {
@@ -58,49 +78,107 @@ public class OrderService {
         }
     }
 
-    private static <T> T handleGetResponse(HttpResponse<String> response, Function<String, T> converter) throws IOException {
-        HttpUtils.checkIfResponseWasUnauthorized(response);
-        if (response.statusCode() == 200) {
-            return converter.apply(response.body());
-        } else {
-            System.out.println("Error: " + response.statusCode() + " for GET request.");
-            return null;
-        }
+    /**
+     * Fetches the orders created, updated or deleted since a version returned by an earlier call.
+     * Version 0 returns every order.
+     *
+     * @return the changes, or null if nothing changed since the version; completes exceptionally
+     * with an IOException if the request was rejected
+     */
+    public static CompletableFuture<OrderChanges> getOrderChanges(long since) {
+        return sendJsonRequest(BASE_URL + "/changes?since=" + since, OrderChangesResponse.class)
+                .thenApply(response -> {
+                    if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                        return null;
+                    }
+                    if (!response.isOk()) {
+                        throw new CompletionException(new IOException("Error: " + response.statusCode() + " for order changes request."));
+                    }
+                    OrderChanges changes = response.body().getData();
+                    cacheOrderItems(changes);
+                    return changes;
+                });
     }
 
-    public static List<Order> getOrders() throws IOException {
-        HttpResponse<String> response = sendHttpRequest(BASE_URL, "GET", null);
-        return handleGetResponse(response, body -> HttpUtils.parseJsonResponse(body, OrdersResponse.class).getData());
+    /**
+     * Keeps the items of the changed orders, which the change feed sends along, and forgets those of deleted orders.
+     */
+    private static void cacheOrderItems(OrderChanges changes) {
+        for (Order order : changes.getOrders()) {
+            if (order.getOrderItems() != null) {
+                orderItems.put(order.getOrderId(), CompletableFuture.completedFuture(order.getOrderItems()));
+            }
+        }
+        changes.getDeletedOrderIds().forEach(orderItems::remove);
     }
 
-    public static List<OrderItem> getOrderItems(Long orderId) {
-        String url = BASE_URL + "/" + orderId;
-        HttpResponse<String> response = sendHttpRequest(url, "GET", null);
-
-        if (response != null && response.body() != null) {
-            OrderResponse orderResponse = HttpUtils.parseJsonResponse(response.body(), OrderResponse.class);
+    /**
+     * Returns the items of the order, from the cache if they are known or being fetched.
+     *
+     * @return the items, or an empty list if they could not be fetched
+     */
+    public static CompletableFuture<List<OrderItem>> getOrderItems(Long orderId) {
+        return prefetchOrderItems(List.of(orderId)).get(orderId);
+    }
 
-            if (orderResponse != null && orderResponse.getData() != null) {
-                Order order = orderResponse.getData();
-                return order.getOrderItems() != null ? order.getOrderItems() : new ArrayList<>();
-            }
+    /**
+     * Fetches the items of the orders that are not cached yet, with one request per
+     * {@value #MAX_ORDERS_PER_ITEMS_REQUEST} orders, so they are at hand when the orders are selected.
+     *
+     * @return the items of each order, an empty list for orders whose items could not be fetched
+     */
+    public static Map<Long, CompletableFuture<List<OrderItem>>> prefetchOrderItems(Collection<Long> orderIds) {
+        Map<Long, CompletableFuture<List<OrderItem>>> requested = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            CompletableFuture<List<OrderItem>> items = orderItems.computeIfAbsent(orderId, id -> {
+                missing.add(id);
+                return new CompletableFuture<>();
+            });
+            requested.put(orderId, items);
+        }
+        for (int from = 0; from < missing.size(); from += MAX_ORDERS_PER_ITEMS_REQUEST) {
+            fetchOrderItems(missing.subList(from, Math.min(from + MAX_ORDERS_PER_ITEMS_REQUEST, missing.size())), requested);
         }
+        return requested;
+    }
 
-        return new ArrayList<>();
+    private static void fetchOrderItems(List<Long> orderIds, Map<Long, CompletableFuture<List<OrderItem>>> pending) {
+        String ids = orderIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        sendJsonRequest(BASE_URL + "/items?ids=" + ids, OrderItemsResponse.class).whenComplete((response, error) -> {
+            Map<Long, List<OrderItem>> fetched = error == null && response.isOk() ? response.body().getData() : null;
+            if (fetched == null) {
+                System.out.println("Failed to load the items of orders " + ids);
+            }
+            for (Long orderId : orderIds) {
+                CompletableFuture<List<OrderItem>> items = pending.get(orderId);
+                if (fetched != null) {
+                    items.complete(fetched.getOrDefault(orderId, new ArrayList<>()));
+                } else {
+                    // fetched again the next time they are asked for
+                    orderItems.remove(orderId, items);
+                    items.complete(new ArrayList<>());
+                }
+            }
+        });
     }
 
 
-    public static boolean changeOrderStatus(Long orderId, UpdateOrderStatusDto updateOrderStatusDto) throws IOException {
+    public static CompletableFuture<Boolean> changeOrderStatus(Long orderId, UpdateOrderStatusDto updateOrderStatusDto) {
         String url = BASE_URL + "/" + orderId + "/status";
-        String requestBody = gson.toJson(updateOrderStatusDto);
-        HttpResponse<String> response = sendHttpRequest(url, "PUT", requestBody);
-        return handleResponse(response);
+        String requestBody = HttpUtils.toJson(updateOrderStatusDto);
+        return sendHttpRequest(url, "PUT", requestBody).thenApply(OrderService::handleResponse);
     }
 
-    public static boolean deleteOrder(Long orderId) throws IOException {
+    public static CompletableFuture<Boolean> deleteOrder(Long orderId) {
         String url = BASE_URL + "/" + orderId;
-        HttpResponse<String> response = sendHttpRequest(url, "DELETE", null);
-        return handleResponse(response);
+        return sendHttpRequest(url, "DELETE", null).thenApply(response -> {
+            boolean deleted = handleResponse(response);
+            if (deleted) {
+                orderItems.remove(orderId);
+            }
+            return deleted;
+        });
     }
 
     public static OrderStatus  convertOrderStatus(String status) {
@@ -1,17 +1,20 @@
 package sample.test.service;
 
-import com.google.gson.Gson;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import sample.test.dto.UpdateUserDto;
+import sample.test.helpers.JsonResponse;
 import sample.test.model.User;
 import sample.test.utils.HttpUtils;
 import sample.test.helpers.UsersResponse;
 import sample.test.helpers.UserResponse;
 
-import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Singleton service class responsible for handling operations related to the user management in the application.
@@ -19,7 +22,12 @@ import java.util.List;
  * with the backend API. It also stores the current logged-in user's username and roles.
  * <p>
  * The class integrates with external services such as the JwtTokenService for authorization tokens
- * and HttpUtils for sending HTTP requests to the backend API. JSON responses are parsed using Gson.
+ * and HttpUtils for sending HTTP requests to the backend API. JSON responses are parsed using Gson. Requests are
+ * sent asynchronously, so the methods return futures that complete on a background thread.
+ * <p>
+ * The users are kept in a local cache for {@link #CACHE_TIME_TO_LIVE}, which changes made through this class are
+ * applied to once the backend accepts them. The cache belongs to the instance, so it is dropped with the signed in
+ * user when the instance is reset.
  * <p>
  * It includes methods to:
  * - Get a list of users.
@@ -34,9 +42,14 @@ import java.util.List;
 @Getter
 @NoArgsConstructor
 public class UserService {
+    private static final String BASE_URL = "http://localhost:8080/users/";
+    private static final Duration CACHE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
     private static UserService instance;
     private String username;
     private List<String> userRoles;
+    @Getter(AccessLevel.NONE)
+    private final EntityCache<Integer, User> cache = new EntityCache<>(CACHE_TIME_TO_LIVE, User::getId, UserService::loadUsers);
 
     /**
      * Private constructor to prevent instantiation of the class from outside.
@@ -56,99 +69,113 @@ public class UserService {
     }
 
     /**
-     * Method to fetch the list of users from the backend API.
+     * Method to fetch the list of users, from the cache while it is fresh and from the backend API otherwise.
      *
-     * @return List of User objects.
+     * @return List of User objects, the cached users if the request failed, or null if there are none.
      */
-    public List<User> getUsers() {
-        try {
-            String url = "http://localhost:8080/users/";
-            String token = JwtTokenService.getInstance().getJwtToken();
-
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(url, "GET", token, null);
-            String responseBody = response.body();
-
-            HttpUtils.checkIfResponseWasUnauthorized(response);
-
-            UsersResponse usersResponse = HttpUtils.parseJsonResponse(responseBody, UsersResponse.class);
-            return usersResponse.getData();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+    public CompletableFuture<List<User>> getUsers() {
+        return cache.getAll();
     }
 
     /**
-     * Method to fetch user details by user ID from the backend API.
+     * Method to fetch user details by user ID, from the cache while it is fresh and from the backend API otherwise.
      *
      * @param userId - Integer value representing the user ID.
-     * @return User object.
+     * @return User object, or null if the request failed.
      */
-    public User getUserById(Integer userId) {
-        try {
-            String url = "http://localhost:8080/users/" + userId;
-            String token = JwtTokenService.getInstance().getJwtToken();
-
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(url, "GET", token, null);
-            String responseBody = response.body();
-            HttpUtils.checkIfResponseWasUnauthorized(response);
-
-            UserResponse userResponse = HttpUtils.parseJsonResponse(responseBody, UserResponse.class);
-            return userResponse.getData();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    public CompletableFuture<User> getUserById(Integer userId) {
+        User cached = cache.get(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
+        return sendJsonRequest(BASE_URL + userId, UserResponse.class)
+                .thenApply(response -> response.isOk() ? response.body().getData() : null)
+                .exceptionally(e -> {
+                    e.printStackTrace();
+                    return null;
+                });
     }
 
     /**
-     * Method to update user details by user ID using the backend API.
+     * Method to update user details by user ID using the backend API. The updated user is applied to the cache.
      *
      * @param userId         - Integer value representing the user ID.
      * @param updateUserDto - UpdateUserDto object containing the updated user details.
      * @return boolean value indicating the success of the operation.
      */
-    public boolean updateUser(Integer userId, UpdateUserDto updateUserDto) {
-        try {
-            String url = "http://localhost:8080/users/" + userId;
-            String token = JwtTokenService.getInstance().getJwtToken();
-
-            Gson gson = new Gson();
-            String requestBody = gson.toJson(updateUserDto);
-
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(url, "PUT", token, requestBody);
-
-            HttpUtils.checkIfResponseWasUnauthorized(response);
-
-            int statusCode = response.statusCode();
-
-            return response.statusCode() == 200;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+    public CompletableFuture<Boolean> updateUser(Integer userId, UpdateUserDto updateUserDto) {
+        String url = BASE_URL + userId;
+        String requestBody = HttpUtils.toJson(updateUserDto);
+        return sendHttpRequest(url, "PUT", requestBody, this::userChanged);
     }
 
     /**
-     * Method to delete a user by user ID using the backend API.
+     * Method to delete a user by user ID using the backend API. The user is removed from the cache.
      *
      * @param userId - Integer value representing the user ID.
      * @return boolean value indicating the success of the operation.
      */
-    public static boolean deleteUser(Integer userId) {
+    public static CompletableFuture<Boolean> deleteUser(Integer userId) {
+        String url = BASE_URL + userId;
+        UserService userService = getInstance();
+        return sendHttpRequest(url, "DELETE", null, responseBody -> userService.cache.remove(userId));
+    }
+
+    /**
+     * Method to apply a user the backend returned after a change, such as registering the user, to the cache. If the
+     * user cannot be read from the response, the cache is revalidated on the next read instead.
+     *
+     * @param responseBody - the body of the successful response, holding the user.
+     */
+    public void userChanged(String responseBody) {
+        User user;
         try {
-            String url = "http://localhost:8080/users/" + userId;
-            String token = JwtTokenService.getInstance().getJwtToken();
-
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(url, "DELETE", token, null);
-            HttpUtils.checkIfResponseWasUnauthorized(response);
-            return response.statusCode() == 200;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+            UserResponse response = HttpUtils.parseJsonResponse(responseBody, UserResponse.class);
+            user = response != null ? response.getData() : null;
+        } catch (RuntimeException e) {
+            user = null;
+        }
+        if (user != null) {
+            cache.put(user);
+        } else {
+            cache.invalidate();
         }
     }
 
-}
+    private static CompletableFuture<EntityCache.Snapshot<Integer, User>> loadUsers(String eTag) {
+        return sendJsonRequest(BASE_URL, UsersResponse.class, eTag)
+                .thenApply(response -> {
+                    if (response.isNotModified()) {
+                        return EntityCache.Snapshot.<Integer, User>notModified(response.eTag() != null ? response.eTag() : eTag);
+                    }
+                    return response.isOk() ? EntityCache.Snapshot.of(response.body().getData(), response.eTag()) : null;
+                });
+    }
 
+    private static <R> CompletableFuture<JsonResponse<R>> sendJsonRequest(String url, Class<R> responseType) {
+        return sendJsonRequest(url, responseType, null);
+    }
+
+    private static <R> CompletableFuture<JsonResponse<R>> sendJsonRequest(String url, Class<R> responseType, String eTag) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendJsonRequestAsync(url, "GET", token, null, responseType, eTag);
+    }
+
+    private static CompletableFuture<Boolean> sendHttpRequest(String url, String method, String requestBody, Consumer<String> onSuccess) {
+        String token = JwtTokenService.getInstance().getJwtToken();
+        return HttpUtils.sendHttpRequestAsync(url, method, token, requestBody)
+                .thenApply(response -> {
+                    HttpUtils.checkIfTokenExpired(response.body());
+                    boolean successful = response.statusCode() == 200;
+                    if (successful) {
+                        onSuccess.accept(response.body());
+                    }
+                    return successful;
+                })
+                .exceptionally(e -> {
+                    e.printStackTrace();
+                    return false;
+                });
+    }
+
+}
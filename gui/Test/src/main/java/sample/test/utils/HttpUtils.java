@@ -1,23 +1,178 @@
 package sample.test.utils;
 
 import com.google.gson.Gson;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.stage.Window;
+import sample.test.helpers.JsonResponse;
 import sample.test.service.UserService;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 
+/**
+ * Sends the requests of the application to the backend.
+ * <p>
+ * All requests share one HTTP client, so connections to the backend are reused, and one Gson instance,
+ * so the type adapters of the response classes are only built once. The asynchronous methods never
+ * block the caller; responses are handled on virtual threads and results can be handed back to the FX
+ * application thread with {@link #onFxThread(CompletableFuture, Consumer)}.
+ */
 public class HttpUtils {
 
-    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private static final HttpClient client = HttpClient.newBuilder().executor(virtualThreads).build();
+    private static final Gson gson = new Gson();
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ERROR_BODY_SIZE = 64 * 1024;
 
     public static HttpResponse<String> sendHttpRequest(String url, String method, String token, String jsonInputString) throws Exception {
+        return client.send(buildRequest(url, method, token, jsonInputString), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sends a request without blocking the caller.
+     *
+     * @return the response, completed on a virtual thread
+     */
+    public static CompletableFuture<HttpResponse<String>> sendHttpRequestAsync(String url, String method, String token, String jsonInputString) {
+        try {
+            return client.sendAsync(buildRequest(url, method, token, jsonInputString), HttpResponse.BodyHandlers.ofString());
+        } catch (URISyntaxException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Sends a request without blocking the caller and decodes a successful response straight from the
+     * response stream, without reading it into a string first. An expired token sends the user back
+     * to the login view.
+     *
+     * @return the status code and the decoded body, which is null unless the request succeeded
+     */
+    public static <T> CompletableFuture<JsonResponse<T>> sendJsonRequestAsync(String url, String method, String token, String jsonInputString, Class<T> responseType) {
+        return sendJsonRequestAsync(url, method, token, jsonInputString, responseType, null);
+    }
+
+    /**
+     * Like {@link #sendJsonRequestAsync(String, String, String, String, Class)}, but conditional: if the
+     * ETag is not null the server is asked to answer 304 Not Modified, without a body, when the copy the
+     * ETag was sent with is still current.
+     *
+     * @return the status code, the decoded body and the ETag of the response
+     */
+    public static <T> CompletableFuture<JsonResponse<T>> sendJsonRequestAsync(String url, String method, String token, String jsonInputString, Class<T> responseType, String eTag) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                HttpResponse<InputStream> response = client.send(buildRequest(url, method, token, jsonInputString, eTag),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                String responseETag = response.headers().firstValue("ETag").orElse(null);
+                try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                    if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+                        return new JsonResponse<>(response.statusCode(), gson.fromJson(reader, responseType), responseETag);
+                    }
+                    StringWriter error = new StringWriter();
+                    reader.transferTo(error);
+                    checkIfTokenExpired(error.toString());
+                    return new JsonResponse<T>(response.statusCode(), null, responseETag);
+                }
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, virtualThreads);
+    }
+
+    /**
+     * Streams the body of a GET request into the file a buffer at a time, so it is never held in memory
+     * whatever its size. The body goes to a temporary file next to the target, which only replaces the
+     * target once the whole body has arrived. Blocks the caller, an interrupt stops the download.
+     *
+     * @param progress  called with the bytes written so far and the body length, -1 if the server sent none
+     * @param cancelled checked after every buffer, the download stops with a {@link CancellationException}
+     *                  once it returns true
+     * @return the status code, the file is only written if it is 200
+     */
+    public static int downloadToFile(String url, String token, Path target, BiConsumer<Long, Long> progress, BooleanSupplier cancelled) throws Exception {
+        HttpResponse<InputStream> response = client.send(buildRequest(url, "GET", token, null), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                checkIfTokenExpired(new String(body.readNBytes(MAX_ERROR_BODY_SIZE), StandardCharsets.UTF_8));
+                return response.statusCode();
+            }
+            long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            Path temporaryFile = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".part");
+            try {
+                try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+                    byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+                    long written = 0;
+                    int read;
+                    while ((read = body.read(buffer)) != -1) {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("Download cancelled");
+                        }
+                        out.write(buffer, 0, read);
+                        written += read;
+                        progress.accept(written, length);
+                    }
+                }
+                Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            return response.statusCode();
+        }
+    }
+
+    /**
+     * Runs the action with the result on the FX application thread once the future completes.
+     * Failures are logged.
+     */
+    public static <T> void onFxThread(CompletableFuture<T> future, Consumer<T> action) {
+        onFxThread(future, action, error -> System.out.println("Request failed: " + error.getMessage()));
+    }
+
+    /**
+     * Runs the action with the result, or the error handler with the failure, on the FX application
+     * thread once the future completes.
+     */
+    public static <T> void onFxThread(CompletableFuture<T> future, Consumer<T> action, Consumer<Throwable> errorHandler) {
+        future.whenCompleteAsync((result, error) -> {
+            if (error == null) {
+                action.accept(result);
+            } else {
+                errorHandler.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        }, Platform::runLater);
+    }
+
+    private static HttpRequest buildRequest(String url, String method, String token, String jsonInputString) throws URISyntaxException {
+        return buildRequest(url, method, token, jsonInputString, null);
+    }
+
+    private static HttpRequest buildRequest(String url, String method, String token, String jsonInputString, String eTag) throws URISyntaxException {
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(new URI(url));
 
@@ -25,6 +180,10 @@ public class HttpUtils {
             requestBuilder.header("Authorization", "Bearer " + token);
         }
 
+        if (eTag != null) {
+            requestBuilder.header("If-None-Match", eTag);
+        }
+
         switch (method.toUpperCase()) {
             case "POST":
                 addJsonBody(requestBuilder, jsonInputString, "POST");
@@ -45,8 +204,7 @@ public class HttpUtils {
                 throw new UnsupportedOperationException("HTTP method not supported: " + method);
         }
 
-        HttpRequest request = requestBuilder.build();
-        return client.send(request, HttpResponse.BodyHandlers.ofString());
+        return requestBuilder.build();
     }
 
     private static void addJsonBody(HttpRequest.Builder requestBuilder, String jsonInputString, String method) {
@@ -66,10 +224,13 @@ public class HttpUtils {
     }
 
     public static <T> T parseJsonResponse(String jsonResponse, Class<T> clazz) {
-        Gson gson = new Gson();
         return gson.fromJson(jsonResponse, clazz);
     }
 
+    public static String toJson(Object object) {
+        return gson.toJson(object);
+    }
+
     public static boolean checkIfResponseWasGood(HttpResponse<String> response) throws IOException {
         int responseCode = response.statusCode();
         return responseCode == HttpURLConnection.HTTP_OK;
@@ -77,7 +238,7 @@ public class HttpUtils {
 
     public static boolean checkIfResponseWasUnauthorized(HttpResponse<String> response) throws IOException {
         String responseBody = response.body();
-        if (responseBody.contains("\"message\": \"Token has expired\"")) {
+        if (isTokenExpired(responseBody)) {
             UserService.resetInstance();
             reloadApp();
             return true;
@@ -85,6 +246,29 @@ public class HttpUtils {
         return false;
     }
 
+    /**
+     * Like {@link #checkIfResponseWasUnauthorized(HttpResponse)}, for responses handled off the FX
+     * application thread: the login view is loaded on the FX application thread.
+     */
+    public static boolean checkIfTokenExpired(String responseBody) {
+        if (!isTokenExpired(responseBody)) {
+            return false;
+        }
+        Platform.runLater(() -> {
+            UserService.resetInstance();
+            try {
+                reloadApp();
+            } catch (IOException e) {
+                System.out.println("Failed to load the login view: " + e.getMessage());
+            }
+        });
+        return true;
+    }
+
+    private static boolean isTokenExpired(String responseBody) {
+        return responseBody != null && responseBody.contains("\"message\": \"Token has expired\"");
+    }
+
     public static void reloadApp() throws IOException {
         Stage currentStage = (Stage) Stage.getWindows().stream().filter(Window::isShowing).findFirst().orElse(null);
         if (currentStage != null) {
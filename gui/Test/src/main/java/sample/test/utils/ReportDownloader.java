@@ -1,18 +1,19 @@
 package sample.test.utils;
 
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Button;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.FileChooser;
 import javafx.scene.layout.Pane;
 import sample.test.service.JwtTokenService;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.net.http.HttpResponse;
+import java.net.HttpURLConnection;
 
 public class ReportDownloader {
     private static final String BASE_URL = "http://localhost:8080/api/reports";
@@ -26,9 +27,9 @@ public class ReportDownloader {
     /**
      * Handles the report download action based on the button clicked.
      * This method retrieves the report type from the clicked button,
-     * validates it, constructs the appropriate URL, and sends an HTTP
-     * GET request to download the report. It handles errors and
-     * manages the response accordingly.
+     * validates it and asks for the file to save the report to. The
+     * report is then streamed into the file on a background thread,
+     * while a dialog shows the progress and lets the user cancel.
      *
      * @param event The action event from the button click
      */
@@ -36,31 +37,80 @@ public class ReportDownloader {
         String reportType = getReportType((Button) event.getSource());
         if (isTypeValid(reportType)) return;
 
-        String endPointUrl = createUrl(reportType);
-        String token = getJwtToken();
-
-        try {
-            HttpResponse<String> response = HttpUtils.sendHttpRequest(endPointUrl, "GET", token, null);
-            handleResponse(response);
-        } catch (Exception e) {
-            handleDownloadError(e);
+        File file = saveFileDialog();
+        if (file == null) {
+            showError("Save Error", "Failed to save the report: No file selected");
+            return;
         }
+
+        startDownload(createUrl(reportType), getJwtToken(), ensureJsonExtension(file));
+    }
+
+    /**
+     * Downloads the report into the file on a virtual thread. The outcome
+     * is reported on the FX application thread once the download ends.
+     *
+     * @param endPointUrl The URL of the report
+     * @param token The JWT token
+     * @param file The file to save the report to
+     */
+    private void startDownload(String endPointUrl, String token, File file) {
+        Task<Integer> download = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                return HttpUtils.downloadToFile(endPointUrl, token, file.toPath(), this::updateProgress, this::isCancelled);
+            }
+        };
+        Alert progressAlert = createProgressAlert(download);
+
+        download.setOnSucceeded(event -> {
+            progressAlert.close();
+            handleResponse(download.getValue(), file);
+        });
+        download.setOnFailed(event -> {
+            progressAlert.close();
+            handleDownloadError(download.getException());
+        });
+        download.setOnCancelled(event -> progressAlert.close());
+
+        progressAlert.show();
+        Thread.ofVirtual().name("report-download").start(download);
+    }
+
+    /**
+     * Creates the dialog showing the download progress. Closing it cancels the download.
+     *
+     * @param download The download task
+     * @return The progress dialog
+     */
+    private Alert createProgressAlert(Task<?> download) {
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(300);
+        progressBar.progressProperty().bind(download.progressProperty());
+
+        Alert alert = new Alert(AlertType.NONE, null, ButtonType.CANCEL);
+        alert.initOwner(parentPane.getScene().getWindow());
+        alert.setTitle("Downloading");
+        alert.setHeaderText("Downloading report");
+        alert.getDialogPane().setContent(progressBar);
+        alert.setOnHidden(event -> download.cancel());
+        return alert;
     }
 
     /**
-     * Processes the HTTP response received from the report download request.
-     * If the response indicates success, it saves the report to a file.
+     * Reports the outcome of a finished download.
+     * If the response indicates success, the report was saved to the file.
      * Otherwise, it displays an error message indicating the failure.
      *
-     * @param response The HTTP response object received from the server
-     * @throws IOException If an I/O error occurs while saving the report
+     * @param statusCode The status code of the response
+     * @param file The file the report was saved to
      */
-    private void handleResponse(HttpResponse<String> response) throws IOException {
-        if (HttpUtils.checkIfResponseWasGood(response)) {
-            saveReportToFile(response.body());
+    private void handleResponse(int statusCode, File file) {
+        if (statusCode == HttpURLConnection.HTTP_OK) {
+            showSuccess("Report saved successfully to:\n" + file.getAbsolutePath());
         } else {
             showError("Download Failed",
-                    String.format("Server returned status code: %d", response.statusCode()));
+                    String.format("Server returned status code: %d", statusCode));
         }
     }
 
@@ -111,24 +161,6 @@ public class ReportDownloader {
         };
     }
 
-    /**
-     * Saves the JSON report to a file selected by the user
-     * @param jsonResponse The JSON content to save
-     */
-    private void saveReportToFile(String jsonResponse) {
-        File file = saveFileDialog();
-        saveIfFileCreatedSuccessfully(jsonResponse, file);
-    }
-
-    private void saveIfFileCreatedSuccessfully(String jsonResponse, File file) {
-        if (file != null) {
-            file = ensureJsonExtension(file);
-            writeToFile(file, jsonResponse);
-        } else {
-            showError("Save Error", "Failed to save the report: No file selected");
-        }
-    }
-
     private File saveFileDialog() {
         FileChooser fileChooser = createFileChooser();
         return fileChooser.showSaveDialog(parentPane.getScene().getWindow());
@@ -159,26 +191,11 @@ public class ReportDownloader {
         return file;
     }
 
-    /**
-     * Writes the JSON content to the specified file
-     * @param file The file to write to
-     * @param content The JSON content
-     */
-    private void writeToFile(File file, String content) {
-        try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-            byte[] buffer = content.getBytes();
-            fileOutputStream.write(buffer);
-            showSuccess("Report saved successfully to:\n" + file.getAbsolutePath());
-        } catch (IOException e) {
-            showError("Save Error", "Failed to save the report: " + e.getMessage());
-        }
-    }
-
     /**
      * Handles errors during the download process
      * @param e The exception that occurred
      */
-    private void handleDownloadError(Exception e) {
+    private void handleDownloadError(Throwable e) {
         showError("Download Error", "Failed to download the report: " + e.getMessage());
     }
 
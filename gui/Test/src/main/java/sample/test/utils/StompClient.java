@@ -0,0 +1,164 @@
+package sample.test.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Minimal STOMP 1.2 client over a plain WebSocket, enough to subscribe to broker topics.
+ * <p>
+ * Every connection subscribes to its destinations as soon as the broker confirms it. The listener is
+ * called on the WebSocket threads, so it must hand UI work to the FX thread itself.
+ */
+public class StompClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+    public interface Listener {
+        void onConnected();
+
+        void onMessage(String destination, String body);
+
+        /**
+         * Called once per connection when it is closed, with the error if it failed.
+         */
+        void onClosed(Throwable error);
+    }
+
+    /**
+     * Opens a connection that subscribes to the destinations once the broker accepts it.
+     *
+     * @return the WebSocket, completed exceptionally if it could not be opened
+     */
+    public CompletableFuture<WebSocket> connect(URI uri, List<String> destinations, Listener listener) {
+        return client.newWebSocketBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(uri, new FrameListener(uri.getHost(), destinations, listener));
+    }
+
+    public static void disconnect(WebSocket webSocket) {
+        if (webSocket != null && !webSocket.isOutputClosed()) {
+            webSocket.sendText(frame("DISCONNECT", Map.of()), true)
+                    .thenCompose(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+        }
+    }
+
+    private static String frame(String command, Map<String, String> headers) {
+        StringBuilder frame = new StringBuilder(command).append('\n');
+        headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+        return frame.append('\n').append('\0').toString();
+    }
+
+    private static final class FrameListener implements WebSocket.Listener {
+        private final String host;
+        private final List<String> destinations;
+        private final Listener listener;
+        private final StringBuilder buffer = new StringBuilder();
+        private boolean closed;
+
+        private FrameListener(String host, List<String> destinations, Listener listener) {
+            this.host = host;
+            this.destinations = destinations;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            // asks the broker for no heart-beats, so a dead connection is only noticed when TCP notices it
+            webSocket.sendText(frame("CONNECT", Map.of("accept-version", "1.2", "host", host, "heart-beat", "0,0")), true);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                String frames = buffer.toString();
+                buffer.setLength(0);
+                for (String frame : frames.split("\0")) {
+                    handleFrame(webSocket, frame);
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            close(null);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            close(error);
+        }
+
+        private void handleFrame(WebSocket webSocket, String frame) {
+            // frames may be preceded by end-of-line heart-beats
+            int start = 0;
+            while (start < frame.length() && (frame.charAt(start) == '\n' || frame.charAt(start) == '\r')) {
+                start++;
+            }
+            if (start == frame.length()) {
+                return;
+            }
+            int headersEnd = frame.indexOf("\n\n", start);
+            String head = headersEnd < 0 ? frame.substring(start) : frame.substring(start, headersEnd);
+            String body = headersEnd < 0 ? "" : frame.substring(headersEnd + 2);
+            String[] lines = head.split("\r?\n");
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+                }
+            }
+
+            switch (lines[0]) {
+                case "CONNECTED" -> {
+                    // a WebSocket takes one outgoing message at a time
+                    CompletableFuture<WebSocket> sent = CompletableFuture.completedFuture(webSocket);
+                    for (int i = 0; i < destinations.size(); i++) {
+                        String subscribe = frame("SUBSCRIBE", Map.of("id", "sub-" + i, "destination", destinations.get(i)));
+                        sent = sent.thenCompose(ws -> ws.sendText(subscribe, true));
+                    }
+                    sent.whenComplete((ws, error) -> {
+                        if (error == null) {
+                            listener.onConnected();
+                        } else {
+                            close(error);
+                            webSocket.abort();
+                        }
+                    });
+                }
+                case "MESSAGE" -> listener.onMessage(headers.get("destination"), body);
+                case "ERROR" -> {
+                    close(new IOException("STOMP error: " + headers.getOrDefault("message", body)));
+                    webSocket.abort();
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void close(Throwable error) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            listener.onClosed(error);
+        }
+    }
+}
@@ -7,17 +7,28 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.beans.value.ChangeListener;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
 import sample.test.helpers.ColumnDefinition;
 import sample.test.model.MenuItem;
 import sample.test.model.OrderItem;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class TableUtils {
 
+    private static final String ROW_INDEX_PROPERTY = TableUtils.class.getName() + ".rowIndex";
+
     public static <T> void initTable(
             TableView<T> tableView,
             List<T> data,
@@ -54,6 +65,48 @@ public class TableUtils {
         tableView.setItems(observableList);
     }
 
+    /**
+     * Brings the rows of the table in line with the items, matching them by id. Changed rows are replaced,
+     * new ones inserted and missing ones removed in the list the table already shows, so unlike
+     * {@link #populateTable(TableView, List)} the cells, the selection and the scroll position are kept.
+     */
+    public static <T> void updateTable(TableView<T> tableView, List<T> items, Function<T, ?> idFunction) {
+        Object selectedId = selectedId(tableView, idFunction);
+        updateItems(tableView.getItems(), items, idFunction);
+        tableView.getProperties().remove(ROW_INDEX_PROPERTY);
+        restoreSelection(tableView, selectedId, idFunction);
+    }
+
+    /**
+     * Applies changes to single rows of the table: the row of each changed item is replaced, or the item is
+     * appended if it has no row yet, and the rows of the removed ids are removed. Rows are found through an
+     * index kept with the table, so the work done depends on the number of changes, not of rows.
+     */
+    public static <T> void applyChanges(TableView<T> tableView, Collection<T> changed, Collection<?> removedIds, Function<T, ?> idFunction) {
+        Object selectedId = selectedId(tableView, idFunction);
+        ObservableList<T> items = tableView.getItems();
+        RowIndex rowIndex = tableView.getProperties().get(ROW_INDEX_PROPERTY) instanceof RowIndex index && index.items() == items
+                ? index
+                : new RowIndex(items, new HashMap<>());
+        tableView.getProperties().put(ROW_INDEX_PROPERTY, rowIndex);
+        applyChanges(items, rowIndex.positions(), changed, removedIds, idFunction);
+        restoreSelection(tableView, selectedId, idFunction);
+    }
+
+    /**
+     * Returns the items of the rows the table currently shows, or all items if the table has not been laid out yet.
+     */
+    public static <T> List<T> getVisibleItems(TableView<T> tableView) {
+        List<T> items = tableView.getItems();
+        if (tableView.lookup(".virtual-flow") instanceof VirtualFlow<?> flow
+                && flow.getFirstVisibleCell() != null && flow.getLastVisibleCell() != null) {
+            int from = Math.max(flow.getFirstVisibleCell().getIndex(), 0);
+            int to = Math.min(flow.getLastVisibleCell().getIndex() + 1, items.size());
+            return from < to ? List.copyOf(items.subList(from, to)) : List.of();
+        }
+        return List.copyOf(items);
+    }
+
     public static <T> void setColumns(TableView<T> tableView, List<ColumnDefinition<T, ?>> columnDefinitions) {
         for (ColumnDefinition<T, ?> columnDefinition : columnDefinitions) {
             TableColumn<T, Object> tableColumn = new TableColumn<>(columnDefinition.getTitle());
@@ -62,5 +115,106 @@ public class TableUtils {
         }
     }
 
+    static <T> void updateItems(List<T> current, List<T> updated, Function<T, ?> idFunction) {
+        Set<Object> updatedIds = new HashSet<>();
+        updated.forEach(item -> updatedIds.add(idFunction.apply(item)));
+        List<T> missing = new ArrayList<>();
+        Set<Object> currentIds = new HashSet<>();
+        for (T item : current) {
+            Object id = idFunction.apply(item);
+            if (updatedIds.contains(id)) {
+                currentIds.add(id);
+            } else {
+                missing.add(item);
+            }
+        }
+        if (!missing.isEmpty()) {
+            current.removeAll(missing);
+        }
+
+        for (int i = 0; i < updated.size(); i++) {
+            T item = updated.get(i);
+            Object id = idFunction.apply(item);
+            if (i < current.size() && Objects.equals(idFunction.apply(current.get(i)), id)) {
+                if (!Objects.equals(current.get(i), item)) {
+                    current.set(i, item);
+                }
+            } else if (currentIds.contains(id)) {
+                // the item moved up, its old row is further down
+                int from = i + 1;
+                while (!Objects.equals(idFunction.apply(current.get(from)), id)) {
+                    from++;
+                }
+                current.remove(from);
+                current.add(i, item);
+            } else {
+                current.add(i, item);
+            }
+        }
+    }
+
+    static <T> void applyChanges(List<T> items, Map<Object, Integer> positions, Collection<T> changed, Collection<?> removedIds, Function<T, ?> idFunction) {
+        for (T item : changed) {
+            Object id = idFunction.apply(item);
+            Integer position = findPosition(items, positions, id, idFunction);
+            if (position == null) {
+                positions.put(id, items.size());
+                items.add(item);
+            } else if (!Objects.equals(items.get(position), item)) {
+                items.set(position, item);
+            }
+        }
+
+        List<T> removed = new ArrayList<>();
+        for (Object id : removedIds) {
+            Integer position = findPosition(items, positions, id, idFunction);
+            if (position != null) {
+                removed.add(items.get(position));
+            }
+        }
+        if (!removed.isEmpty()) {
+            items.removeAll(removed);
+            // rows after the removed ones moved up, the index is rebuilt on the next lookup
+            positions.clear();
+        }
+    }
+
+    private static <T> Integer findPosition(List<T> items, Map<Object, Integer> positions, Object id, Function<T, ?> idFunction) {
+        Integer position = positions.get(id);
+        if (position != null && position < items.size() && Objects.equals(idFunction.apply(items.get(position)), id)) {
+            return position;
+        }
+        if (position == null && positions.size() == items.size()) {
+            return null;
+        }
+        positions.clear();
+        for (int i = 0; i < items.size(); i++) {
+            positions.put(idFunction.apply(items.get(i)), i);
+        }
+        return positions.get(id);
+    }
+
+    private static <T> Object selectedId(TableView<T> tableView, Function<T, ?> idFunction) {
+        T selected = tableView.getSelectionModel().getSelectedItem();
+        return selected != null ? idFunction.apply(selected) : null;
+    }
 
+    /**
+     * Selects the row with the id again if replacing or moving it cleared the selection.
+     */
+    private static <T> void restoreSelection(TableView<T> tableView, Object selectedId, Function<T, ?> idFunction) {
+        if (selectedId == null || Objects.equals(selectedId(tableView, idFunction), selectedId)) {
+            return;
+        }
+        ObservableList<T> items = tableView.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (Objects.equals(idFunction.apply(items.get(i)), selectedId)) {
+                tableView.getSelectionModel().select(i);
+                return;
+            }
+        }
+    }
+
+    private record RowIndex(List<?> items, Map<Object, Integer> positions) {
+    }
 }
@@ -0,0 +1,122 @@
+package sample.test.service;
+
+import org.junit.jupiter.api.Test;
+import sample.test.model.MenuItem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> requestedETags = new ArrayList<>();
+    private final List<CompletableFuture<EntityCache.Snapshot<Long, MenuItem>>> loads = new ArrayList<>();
+    private final EntityCache<Long, MenuItem> cache = new EntityCache<>(TIME_TO_LIVE, MenuItem::getId, eTag -> {
+        requestedETags.add(eTag);
+        CompletableFuture<EntityCache.Snapshot<Long, MenuItem>> load = new CompletableFuture<>();
+        loads.add(load);
+        return load;
+    }, clock::get);
+
+    @Test
+    void getAll_ShouldLoadOnceWhileTheCopyIsFresh() {
+        // Arrange
+        CompletableFuture<List<MenuItem>> first = cache.getAll();
+        CompletableFuture<List<MenuItem>> concurrent = cache.getAll();
+        loads.getFirst().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup"), menuItem(2L, "Cake")), "\"v1\""));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+            assertEquals(2, cache.getAll().join().size());
+        }
+
+        // Assert
+        assertSame(first, concurrent);
+        assertEquals(2, first.join().size());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void getAll_ShouldRevalidateAnExpiredCopyWithItsETag() {
+        // Arrange
+        cache.getAll();
+        loads.getFirst().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup")), "\"v1\""));
+        clock.addAndGet(TIME_TO_LIVE.toNanos());
+
+        // Act
+        CompletableFuture<List<MenuItem>> revalidated = cache.getAll();
+        loads.getLast().complete(EntityCache.Snapshot.notModified("\"v1\""));
+
+        // Assert
+        assertEquals(Arrays.asList(null, "\"v1\""), requestedETags);
+        assertEquals("Soup", revalidated.join().getFirst().getName());
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void getAll_ShouldApplyIncrementalChanges() {
+        // Arrange
+        cache.getAll();
+        loads.getFirst().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup"), menuItem(2L, "Cake")), "7"));
+        clock.addAndGet(TIME_TO_LIVE.toNanos());
+
+        // Act
+        CompletableFuture<List<MenuItem>> revalidated = cache.getAll();
+        loads.getLast().complete(EntityCache.Snapshot.changes(List.of(menuItem(3L, "Tea")), List.of(1L), "9"));
+
+        // Assert
+        assertEquals(List.of("Cake", "Tea"), revalidated.join().stream().map(MenuItem::getName).toList());
+    }
+
+    @Test
+    void put_ShouldNotBeOverwrittenByALoadStartedBeforeIt() {
+        // Arrange
+        cache.getAll();
+        loads.getFirst().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup")), "\"v1\""));
+        clock.addAndGet(TIME_TO_LIVE.toNanos());
+        CompletableFuture<List<MenuItem>> revalidated = cache.getAll();
+
+        // Act
+        cache.put(menuItem(1L, "Tomato soup"));
+        loads.getLast().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup")), "\"v1\""));
+
+        // Assert
+        assertEquals("Tomato soup", revalidated.join().getFirst().getName());
+        cache.getAll();
+        assertEquals(Arrays.asList(null, "\"v1\"", "\"v1\""), requestedETags);
+    }
+
+    @Test
+    void getAll_ShouldFallBackOnTheCopyWhenLoadingFails() {
+        // Arrange
+        cache.getAll();
+        loads.getFirst().complete(EntityCache.Snapshot.of(List.of(menuItem(1L, "Soup")), "\"v1\""));
+        cache.remove(1L);
+        cache.put(menuItem(2L, "Cake"));
+        cache.invalidate();
+
+        // Act
+        CompletableFuture<List<MenuItem>> revalidated = cache.getAll();
+        loads.getLast().completeExceptionally(new RuntimeException("Connection refused"));
+
+        // Assert
+        assertEquals(List.of("Cake"), revalidated.join().stream().map(MenuItem::getName).toList());
+        assertNull(cache.get(2L));
+    }
+
+    private static MenuItem menuItem(Long id, String name) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(id);
+        menuItem.setName(name);
+        return menuItem;
+    }
+}
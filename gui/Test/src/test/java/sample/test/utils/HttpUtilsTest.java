@@ -0,0 +1,226 @@
+package sample.test.utils;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.test.helpers.JsonResponse;
+import sample.test.helpers.OrdersResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a local stub server that answers every request after {@link #SERVER_DELAY_MS}, or once
+ * {@link #answerGate} opens while a test has set one. The stub counts the requests it holds at once, so
+ * concurrency is checked where the requests arrive rather than with the clock.
+ */
+class HttpUtilsTest {
+
+    private static final long SERVER_DELAY_MS = 50;
+    private static final int REQUESTS = 20;
+    private static final long GATE_TIMEOUT_SECONDS = 5;
+    private static final String ORDERS_JSON = "{\"data\":[" +
+            "{\"orderId\":1,\"status\":\"IN_PREPARATION\",\"boardCode\":\"17\",\"orderItems\":[{\"orderItemId\":3,\"quantity\":2}]}," +
+            "{\"orderId\":2,\"status\":\"READY_FOR_PICKUP\",\"boardCode\":\"18\",\"orderItems\":[]}]}";
+
+    private static ServerSocket serverSocket;
+    private static ExecutorService connections;
+    private static final AtomicInteger acceptedConnections = new AtomicInteger();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static volatile CountDownLatch answerGate;
+    private static String url;
+
+    @BeforeAll
+    static void startStubServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        connections = Executors.newVirtualThreadPerTaskExecutor();
+        url = "http://localhost:" + serverSocket.getLocalPort() + "/api/orders";
+        connections.execute(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    acceptedConnections.incrementAndGet();
+                    connections.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @AfterAll
+    static void stopStubServer() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    @AfterEach
+    void openTheGate() {
+        CountDownLatch gate = answerGate;
+        answerGate = null;
+        if (gate != null) {
+            while (gate.getCount() > 0) {
+                gate.countDown();
+            }
+        }
+    }
+
+    @Test
+    void sendJsonRequestAsync_ShouldDecodeTheResponse() {
+        // Act
+        JsonResponse<OrdersResponse> response = HttpUtils.sendJsonRequestAsync(url, "GET", "token", null, OrdersResponse.class).join();
+
+        // Assert
+        assertTrue(response.isOk());
+        assertEquals(2, response.body().getData().size());
+        assertEquals("READY_FOR_PICKUP", response.body().getData().get(1).getStatus());
+        assertEquals(2, response.body().getData().getFirst().getOrderItems().getFirst().getQuantity());
+    }
+
+    @Test
+    void sendJsonRequestAsync_ShouldNotBlockTheCaller() {
+        // Arrange
+        // held until the test counts down the second time
+        CountDownLatch gate = new CountDownLatch(2);
+        answerGate = gate;
+
+        // Act
+        CompletableFuture<JsonResponse<OrdersResponse>> future = HttpUtils.sendJsonRequestAsync(url, "GET", "token", null, OrdersResponse.class);
+
+        // Assert
+        assertFalse(future.isDone());
+        gate.countDown();
+        assertTrue(future.join().isOk());
+    }
+
+    @Test
+    void sendJsonRequestAsync_ShouldKeepEveryRequestInFlightAtOnce() throws Exception {
+        // Arrange
+        HttpUtils.sendHttpRequest(url, "GET", "token", null);
+        int connectionsBefore = acceptedConnections.get();
+        maxInFlight.set(0);
+
+        // Act
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(200, HttpUtils.sendHttpRequest(url, "GET", "token", null).statusCode());
+        }
+        int blockingMaxInFlight = maxInFlight.getAndSet(0);
+        int blockingConnections = acceptedConnections.get() - connectionsBefore;
+
+        // answered only once all of them have arrived, or after the timeout if they never do
+        answerGate = new CountDownLatch(REQUESTS);
+        List<CompletableFuture<JsonResponse<OrdersResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(HttpUtils.sendJsonRequestAsync(url, "GET", "token", null, OrdersResponse.class));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        int asyncMaxInFlight = maxInFlight.get();
+
+        // Assert
+        futures.forEach(future -> assertEquals(2, future.join().body().getData().size()));
+        assertEquals(1, blockingMaxInFlight);
+        assertEquals(REQUESTS, asyncMaxInFlight);
+        // requests sent one after another reuse the open connection
+        assertEquals(0, blockingConnections);
+    }
+
+    @Test
+    void downloadToFile_ShouldStreamTheBodyToTheFile(@TempDir Path directory) throws Exception {
+        // Arrange
+        Path report = directory.resolve("report.json");
+        List<Long> progress = new ArrayList<>();
+
+        // Act
+        int statusCode = HttpUtils.downloadToFile(url, "token", report, (written, length) -> {
+            progress.add(written);
+            assertEquals(ORDERS_JSON.length(), length);
+        }, () -> false);
+
+        // Assert
+        assertEquals(200, statusCode);
+        assertEquals(ORDERS_JSON, Files.readString(report));
+        assertEquals(ORDERS_JSON.length(), progress.getLast());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(report), files.toList());
+        }
+    }
+
+    @Test
+    void downloadToFile_ShouldLeaveNoFileWhenCancelled(@TempDir Path directory) throws Exception {
+        // Arrange
+        Path report = directory.resolve("report.json");
+
+        // Act & Assert
+        assertThrows(CancellationException.class,
+                () -> HttpUtils.downloadToFile(url, "token", report, (written, length) -> fail(), () -> true));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void serve(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = socket.getOutputStream();
+            byte[] body = ORDERS_JSON.getBytes(StandardCharsets.UTF_8);
+            byte[] head = ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1);
+            byte[] response = new byte[head.length + body.length];
+            System.arraycopy(head, 0, response, 0, head.length);
+            System.arraycopy(body, 0, response, head.length, body.length);
+            String requestLine;
+            while ((requestLine = in.readLine()) != null) {
+                if (requestLine.isEmpty()) {
+                    continue;
+                }
+                String header;
+                while ((header = in.readLine()) != null && !header.isEmpty()) {
+                    // requests of the test carry no body
+                }
+                hold();
+                // one write, so the response is not held back waiting for an acknowledgement
+                out.write(response);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // the client closed the connection or the server is stopping
+        }
+    }
+
+    private static void hold() throws InterruptedException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            CountDownLatch gate = answerGate;
+            if (gate != null) {
+                gate.countDown();
+                gate.await(GATE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } else {
+                Thread.sleep(SERVER_DELAY_MS);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
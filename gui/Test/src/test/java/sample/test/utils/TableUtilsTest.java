@@ -0,0 +1,133 @@
+package sample.test.utils;
+
+import org.junit.jupiter.api.Test;
+import sample.test.model.Order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableUtilsTest {
+
+    private static final int ROWS = 10_000;
+    private static final Function<Order, ?> ORDER_ID = Order::getOrderId;
+
+    @Test
+    void updateItems_ShouldOnlyReplaceTheChangedRow() {
+        // Arrange
+        CountingList<Order> rows = new CountingList<>(orders(ROWS));
+        List<Order> updated = orders(ROWS);
+        updated.get(42).setStatus("READY_FOR_PICKUP");
+
+        // Act
+        TableUtils.updateItems(rows, updated, ORDER_ID);
+
+        // Assert
+        assertEquals(updated, rows);
+        assertEquals(1, rows.changes);
+    }
+
+    @Test
+    void updateItems_ShouldInsertRemoveAndMoveRows() {
+        // Arrange
+        CountingList<Order> rows = new CountingList<>(orders(5));
+        List<Order> updated = new ArrayList<>(List.of(order(5L), order(1L), order(3L), order(2L), order(6L)));
+
+        // Act
+        TableUtils.updateItems(rows, updated, ORDER_ID);
+
+        // Assert
+        assertEquals(updated, rows);
+    }
+
+    @Test
+    void applyChanges_ShouldTouchOnlyTheChangedRows() {
+        // Arrange
+        CountingList<Order> rows = new CountingList<>(orders(ROWS));
+        Map<Object, Integer> positions = new HashMap<>();
+        TableUtils.applyChanges(rows, positions, List.of(), List.of(), ORDER_ID);
+        Order changed = order(7L);
+        changed.setStatus("READY_FOR_PICKUP");
+
+        // Act
+        TableUtils.applyChanges(rows, positions, List.of(changed, order(8L), order(ROWS + 1L)), List.of(), ORDER_ID);
+
+        // Assert
+        assertEquals(2, rows.changes);
+        assertEquals("READY_FOR_PICKUP", rows.get(6).getStatus());
+        assertEquals(ROWS + 1L, rows.getLast().getOrderId());
+    }
+
+    @Test
+    void applyChanges_ShouldRemoveDeletedRowsAndKeepTheIndexValid() {
+        // Arrange
+        CountingList<Order> rows = new CountingList<>(orders(10));
+        Map<Object, Integer> positions = new HashMap<>();
+        Order changed = order(9L);
+        changed.setStatus("COMPLETED");
+
+        // Act
+        TableUtils.applyChanges(rows, positions, List.of(), List.of(2L, 4L, 42L), ORDER_ID);
+        TableUtils.applyChanges(rows, positions, List.of(changed), List.of(), ORDER_ID);
+
+        // Assert
+        assertEquals(8, rows.size());
+        assertTrue(rows.stream().noneMatch(order -> order.getOrderId() == 2L || order.getOrderId() == 4L));
+        assertEquals("COMPLETED", rows.get(6).getStatus());
+    }
+
+    private static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            orders.add(order(id));
+        }
+        return orders;
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setStatus("IN_PREPARATION");
+        order.setBoardCode(String.valueOf(id));
+        return order;
+    }
+
+    /**
+     * Counts the changes a table would have to redraw rows for.
+     */
+    private static final class CountingList<T> extends ArrayList<T> {
+        private int changes;
+
+        private CountingList(List<T> items) {
+            super(items);
+        }
+
+        @Override
+        public T set(int index, T element) {
+            changes++;
+            return super.set(index, element);
+        }
+
+        @Override
+        public void add(int index, T element) {
+            changes++;
+            super.add(index, element);
+        }
+
+        @Override
+        public boolean add(T element) {
+            changes++;
+            return super.add(element);
+        }
+
+        @Override
+        public T remove(int index) {
+            changes++;
+            return super.remove(index);
+        }
+    }
+}